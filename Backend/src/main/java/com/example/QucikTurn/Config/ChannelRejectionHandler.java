@@ -0,0 +1,63 @@
+package com.example.QucikTurn.Config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageHandlingRunnable;
+
+import java.security.Principal;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Rejection policy of a client channel executor whose queue has been bounded
+ * (app.websocket.channel.*.queue-capacity). The message is dropped, counted
+ * (websocket.channel.rejected, see WebSocketMetrics) and, when a messaging
+ * template is given, the sending user is told on /user/queue/errors instead of
+ * the frame vanishing silently.
+ */
+class ChannelRejectionHandler implements RejectedExecutionHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChannelRejectionHandler.class);
+
+    private final String channel;
+    private final Supplier<SimpMessagingTemplate> messagingTemplate;
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * @param messagingTemplate source of the template used to report the
+     *        rejection, or null to only count it (the outbound channel, where
+     *        the report would queue behind the same full executor)
+     */
+    ChannelRejectionHandler(String channel, Supplier<SimpMessagingTemplate> messagingTemplate) {
+        this.channel = channel;
+        this.messagingTemplate = messagingTemplate;
+    }
+
+    @Override
+    public void rejectedExecution(Runnable task, ThreadPoolExecutor executor) {
+        rejected.increment();
+        Principal user = task instanceof MessageHandlingRunnable handling
+                ? SimpMessageHeaderAccessor.getUser(handling.getMessage().getHeaders())
+                : null;
+        logger.debug("Client {} channel queue full, dropped a message of user {}", channel,
+                user != null ? user.getName() : "unknown");
+        if (messagingTemplate == null || user == null) {
+            return;
+        }
+        try {
+            messagingTemplate.get().convertAndSendToUser(user.getName(), "/queue/errors",
+                    "Error: Server sedang sibuk, pesan tidak diproses. Silakan coba lagi.");
+        } catch (RuntimeException e) {
+            logger.debug("Could not report a rejected {} message to user {}: {}", channel, user.getName(),
+                    e.getMessage());
+        }
+    }
+
+    long rejectedCount() {
+        return rejected.sum();
+    }
+}
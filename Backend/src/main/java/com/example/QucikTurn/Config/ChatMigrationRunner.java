@@ -0,0 +1,58 @@
+package com.example.QucikTurn.Config;
+
+import com.example.QucikTurn.Repository.ChatMessageRepository;
+import com.example.QucikTurn.Repository.ConversationRepository;
+import com.example.QucikTurn.Service.ChatService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Chat data migration runner that executes on application startup.
+ * Sets conversationId on chat messages saved before it existed, and backfills
+ * the conversations collection (contact list summaries) from chat_messages
+ * when it is still empty.
+ */
+@Component
+@Order(2)
+public class ChatMigrationRunner implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChatMigrationRunner.class);
+
+    @Autowired
+    private ChatService chatService;
+    @Autowired
+    private ConversationRepository conversationRepository;
+    @Autowired
+    private ChatMessageRepository chatMessageRepository;
+
+    @Override
+    public void run(String... args) throws Exception {
+        try {
+            backfillConversationIds();
+            backfillConversations();
+        } catch (Exception e) {
+            logger.warn("Chat migration warning (may be harmless): " + e.getMessage());
+            // Don't throw - allow application to continue starting
+        }
+    }
+
+    private void backfillConversationIds() {
+        long updated = chatService.backfillConversationIds();
+        if (updated > 0) {
+            logger.info("Backfilled conversationId on {} chat messages.", updated);
+        }
+    }
+
+    private void backfillConversations() {
+        if (conversationRepository.count() > 0 || chatMessageRepository.count() == 0) {
+            return;
+        }
+        logger.info("Backfilling conversation summaries from chat_messages...");
+        int written = chatService.rebuildConversationSummaries();
+        logger.info("Backfilled {} conversation summaries.", written);
+    }
+}
@@ -1,24 +1,37 @@
 package com.example.QucikTurn.Config;
 
-import com.example.QucikTurn.Security.JwtService;
+import com.example.QucikTurn.Entity.User;
+import com.example.QucikTurn.Security.TokenAuthenticationCache;
+import com.example.QucikTurn.Security.WebSocketAuthenticationToken;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.simp.config.StompBrokerRelayRegistration;
 import org.springframework.messaging.simp.stomp.StompCommand;
 import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
 import org.springframework.messaging.support.ChannelInterceptor;
 import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
 import java.util.List;
 
@@ -27,18 +40,118 @@ import java.util.List;
 @Order(Ordered.HIGHEST_PRECEDENCE + 99)
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
-    private final JwtService jwtService;
-    private final UserDetailsService userDetailsService;
+    private static final Logger logger = LoggerFactory.getLogger(WebSocketConfig.class);
 
-    public WebSocketConfig(JwtService jwtService, UserDetailsService userDetailsService) {
-        this.jwtService = jwtService;
-        this.userDetailsService = userDetailsService;
+    // "simple" = in-memory broker (single instance), "relay" = external STOMP broker
+    @Value("${app.websocket.broker.mode:simple}")
+    private String brokerMode;
+
+    @Value("${app.websocket.broker.relay.host:localhost}")
+    private String relayHost;
+
+    @Value("${app.websocket.broker.relay.port:61613}")
+    private int relayPort;
+
+    @Value("${app.websocket.broker.relay.login:guest}")
+    private String relayLogin;
+
+    @Value("${app.websocket.broker.relay.passcode:guest}")
+    private String relayPasscode;
+
+    @Value("${app.websocket.broker.relay.virtual-host:}")
+    private String relayVirtualHost;
+
+    // Heartbeats the server sends / expects from clients (0 = off)
+    @Value("${app.websocket.heartbeat.send-ms:10000}")
+    private long heartbeatSendMs;
+
+    @Value("${app.websocket.heartbeat.receive-ms:10000}")
+    private long heartbeatReceiveMs;
+
+    // Per-session transport limits; a client that cannot keep up is disconnected
+    // instead of holding an outbound thread
+    @Value("${app.websocket.transport.message-size-limit:65536}")
+    private int messageSizeLimit;
+
+    @Value("${app.websocket.transport.send-buffer-size-limit:524288}")
+    private int sendBufferSizeLimit;
+
+    @Value("${app.websocket.transport.send-time-limit-ms:10000}")
+    private int sendTimeLimitMs;
+
+    @Value("${app.websocket.transport.time-to-first-message-ms:30000}")
+    private int timeToFirstMessageMs;
+
+    @Value("${app.websocket.channel.virtual-threads:false}")
+    private boolean channelVirtualThreads;
+
+    @Value("${app.websocket.channel.inbound.core-pool-size:8}")
+    private int inboundCorePoolSize;
+
+    @Value("${app.websocket.channel.inbound.max-pool-size:32}")
+    private int inboundMaxPoolSize;
+
+    @Value("${app.websocket.channel.inbound.queue-capacity:2147483647}")
+    private int inboundQueueCapacity;
+
+    @Value("${app.websocket.channel.outbound.core-pool-size:8}")
+    private int outboundCorePoolSize;
+
+    @Value("${app.websocket.channel.outbound.max-pool-size:32}")
+    private int outboundMaxPoolSize;
+
+    @Value("${app.websocket.channel.outbound.queue-capacity:2147483647}")
+    private int outboundQueueCapacity;
+
+    private final TokenAuthenticationCache authCache;
+    private TaskScheduler messageBrokerTaskScheduler;
+    private ObjectProvider<SimpMessagingTemplate> messagingTemplate;
+
+    public WebSocketConfig(TokenAuthenticationCache authCache) {
+        this.authCache = authCache;
+    }
+
+    // Spring's own broker scheduler, lazy because it is created by this configuration
+    @Autowired
+    public void setMessageBrokerTaskScheduler(
+            @Lazy @Qualifier("messageBrokerTaskScheduler") TaskScheduler messageBrokerTaskScheduler) {
+        this.messageBrokerTaskScheduler = messageBrokerTaskScheduler;
+    }
+
+    // Also created by this configuration; only needed once an inbound message is rejected
+    @Autowired
+    public void setMessagingTemplate(ObjectProvider<SimpMessagingTemplate> messagingTemplate) {
+        this.messagingTemplate = messagingTemplate;
     }
 
     @Override
     public void configureMessageBroker(MessageBrokerRegistry registry) {
         // Prefix buat url yang dituju frontend (client subscribe)
-        registry.enableSimpleBroker("/topic", "/queue");
+        if ("relay".equalsIgnoreCase(brokerMode)) {
+            // External broker: every instance publishes to and subscribes through it,
+            // so convertAndSend reaches clients connected to any replica.
+            StompBrokerRelayRegistration relay = registry.enableStompBrokerRelay("/topic", "/queue")
+                    .setRelayHost(relayHost)
+                    .setRelayPort(relayPort)
+                    .setClientLogin(relayLogin)
+                    .setClientPasscode(relayPasscode)
+                    .setSystemLogin(relayLogin)
+                    .setSystemPasscode(relayPasscode)
+                    // Share user sessions across instances for /user destinations
+                    .setUserDestinationBroadcast("/topic/unresolved-user-destination")
+                    .setUserRegistryBroadcast("/topic/user-registry")
+                    .setSystemHeartbeatSendInterval(heartbeatSendMs)
+                    .setSystemHeartbeatReceiveInterval(heartbeatReceiveMs);
+            if (!relayVirtualHost.isBlank()) {
+                relay.setVirtualHost(relayVirtualHost);
+            }
+            logger.info("WebSocket broker: STOMP relay to {}:{}", relayHost, relayPort);
+        } else {
+            registry.enableSimpleBroker("/topic", "/queue")
+                    .setHeartbeatValue(new long[] { heartbeatSendMs, heartbeatReceiveMs })
+                    .setTaskScheduler(messageBrokerTaskScheduler);
+            logger.info("WebSocket broker: in-memory simple broker");
+        }
         // Prefix buat pesan yang dikirim client ke server
         registry.setApplicationDestinationPrefixes("/app");
     }
@@ -55,36 +168,82 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                 .setAllowedOriginPatterns("*"); // <--- Gak pake .withSockJS()
     }
 
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setMessageSizeLimit(messageSizeLimit)
+                .setSendBufferSizeLimit(sendBufferSizeLimit)
+                .setSendTimeLimit(sendTimeLimitMs)
+                .setTimeToFirstMessage(timeToFirstMessageMs);
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor(channelExecutor("clientOutboundChannel-",
+                outboundCorePoolSize, outboundMaxPoolSize, outboundQueueCapacity,
+                new ChannelRejectionHandler("outbound", null)));
+    }
+
     @Override
     public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor(channelExecutor("clientInboundChannel-",
+                inboundCorePoolSize, inboundMaxPoolSize, inboundQueueCapacity,
+                new ChannelRejectionHandler("inbound", () -> messagingTemplate.getObject())));
         registration.interceptors(new ChannelInterceptor() {
             @Override
             public Message<?> preSend(Message<?> message, MessageChannel channel) {
                 StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
                 
                 if (accessor != null && StompCommand.CONNECT.equals(accessor.getCommand())) {
-                    List<String> authHeaders = accessor.getNativeHeader("Authorization");
-                    if (authHeaders != null && !authHeaders.isEmpty()) {
-                        String authHeader = authHeaders.get(0);
-                        if (authHeader.startsWith("Bearer ")) {
-                            String token = authHeader.substring(7);
-                            try {
-                                String username = jwtService.username(token);
-                                if (username != null && jwtService.valid(token, username)) {
-                                    UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                                    UsernamePasswordAuthenticationToken auth = 
-                                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-                                    accessor.setUser(auth);
-                                    SecurityContextHolder.getContext().setAuthentication(auth);
-                                }
-                            } catch (Exception e) {
-                                // Log error but don't break
-                            }
-                        }
+                    User user = authenticate(accessor.getNativeHeader("Authorization"));
+                    if (user == null) {
+                        // Refuses the CONNECT: the client gets an ERROR frame and no session
+                        throw new MessageDeliveryException(message, "Unauthorized: a valid bearer token is required");
                     }
+                    // Principal name = user ID, so /user/queue/... destinations and
+                    // the session registry are addressed by user ID
+                    UsernamePasswordAuthenticationToken auth = new WebSocketAuthenticationToken(user);
+                    accessor.setUser(auth);
+                    SecurityContextHolder.getContext().setAuthentication(auth);
                 }
                 return message;
             }
         });
     }
+
+    /**
+     * The user of the CONNECT frame's bearer token, or null if it is missing or
+     * not valid.
+     */
+    private User authenticate(List<String> authHeaders) {
+        if (authHeaders == null || authHeaders.isEmpty() || !authHeaders.get(0).startsWith("Bearer ")) {
+            return null;
+        }
+        try {
+            return authCache.resolve(authHeaders.get(0).substring(7));
+        } catch (RuntimeException e) {
+            logger.debug("STOMP CONNECT with unusable token: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Executor for a client channel, exposed by Spring as the
+     * clientInboundChannelExecutor / clientOutboundChannelExecutor beans (see
+     * WebSocketMetrics). With virtual threads the pool still caps concurrency,
+     * but a thread blocked on I/O no longer holds a platform thread. The queue
+     * is unbounded unless a capacity is configured; only then can the
+     * rejection handler fire.
+     */
+    private ThreadPoolTaskExecutor channelExecutor(String threadNamePrefix, int corePoolSize, int maxPoolSize,
+            int queueCapacity, ChannelRejectionHandler rejectionHandler) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(corePoolSize);
+        executor.setMaxPoolSize(maxPoolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(rejectionHandler);
+        if (channelVirtualThreads) {
+            executor.setThreadFactory(Thread.ofVirtual().name(threadNamePrefix, 1).factory());
+        }
+        return executor;
+    }
 }
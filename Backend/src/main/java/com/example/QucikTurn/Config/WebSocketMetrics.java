@@ -0,0 +1,59 @@
+package com.example.QucikTurn.Config;
+
+import com.example.QucikTurn.Service.ChatPersistencePipeline;
+import com.example.QucikTurn.Service.UserPresenceService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Micrometer gauges for the WebSocket pipeline:
+ * <ul>
+ * <li>{@code websocket.channel.queue.size} / {@code websocket.channel.active.threads}
+ * per client channel (tag {@code channel=inbound|outbound}) - a growing
+ * outbound queue means clients are not keeping up</li>
+ * <li>{@code websocket.channel.rejected} - messages dropped because a bounded
+ * channel queue was full (always 0 with the default unbounded queues)</li>
+ * <li>{@code chat.persistence.queue.size} - messages waiting for the
+ * write-behind writer</li>
+ * <li>{@code websocket.users.online} - users with a live session</li>
+ * </ul>
+ */
+@Component
+public class WebSocketMetrics {
+
+    public WebSocketMetrics(MeterRegistry registry,
+            @Qualifier("clientInboundChannelExecutor") ThreadPoolTaskExecutor inboundExecutor,
+            @Qualifier("clientOutboundChannelExecutor") ThreadPoolTaskExecutor outboundExecutor,
+            ChatPersistencePipeline chatPersistencePipeline,
+            UserPresenceService userPresenceService) {
+        registerChannel(registry, "inbound", inboundExecutor);
+        registerChannel(registry, "outbound", outboundExecutor);
+        Gauge.builder("chat.persistence.queue.size", chatPersistencePipeline, ChatPersistencePipeline::queueDepth)
+                .description("Chat messages waiting to be persisted")
+                .register(registry);
+        Gauge.builder("websocket.users.online", userPresenceService, UserPresenceService::onlineUserCount)
+                .description("Users with at least one WebSocket session")
+                .register(registry);
+    }
+
+    private static void registerChannel(MeterRegistry registry, String channel, ThreadPoolTaskExecutor executor) {
+        Gauge.builder("websocket.channel.queue.size", executor, ThreadPoolTaskExecutor::getQueueSize)
+                .description("Messages waiting for a client channel thread")
+                .tag("channel", channel)
+                .register(registry);
+        Gauge.builder("websocket.channel.active.threads", executor, ThreadPoolTaskExecutor::getActiveCount)
+                .description("Client channel threads currently handling a message")
+                .tag("channel", channel)
+                .register(registry);
+        if (executor.getThreadPoolExecutor().getRejectedExecutionHandler() instanceof ChannelRejectionHandler rejections) {
+            FunctionCounter.builder("websocket.channel.rejected", rejections, ChannelRejectionHandler::rejectedCount)
+                    .description("Messages dropped because the client channel queue was full")
+                    .tag("channel", channel)
+                    .register(registry);
+        }
+    }
+}
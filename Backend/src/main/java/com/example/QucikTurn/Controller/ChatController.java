@@ -1,13 +1,16 @@
 package com.example.QucikTurn.Controller;
 
 import com.example.QucikTurn.Entity.mongo.ChatMessage;
+import com.example.QucikTurn.Entity.mongo.Conversation;
 import com.example.QucikTurn.Repository.ApplicationRepository;
-import com.example.QucikTurn.Repository.UserRepository;
+import com.example.QucikTurn.Security.WebSocketAuthenticationToken;
+import com.example.QucikTurn.Service.ChatPersistencePipeline;
 import com.example.QucikTurn.Service.ChatService;
 import com.example.QucikTurn.Service.FileStorageService;
 import com.example.QucikTurn.dto.ChatMessageDTO;
 import com.example.QucikTurn.dto.ChatResponseDTO;
 import com.example.QucikTurn.dto.ApiResponse;
+import com.example.QucikTurn.dto.CursorPage;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
@@ -23,6 +26,7 @@ import org.springframework.web.multipart.MultipartFile;
 
 import com.example.QucikTurn.Entity.User;
 import java.io.IOException;
+import java.security.Principal;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -35,7 +39,7 @@ public class ChatController {
     @Autowired
     private ChatService chatService;
     @Autowired
-    private UserRepository userRepository;
+    private ChatPersistencePipeline chatPersistencePipeline;
     @Autowired
     private ApplicationRepository applicationRepository;
     @Autowired
@@ -46,31 +50,30 @@ public class ChatController {
     /**
      * Handle sending messages via WebSocket
      * Client sends to: /app/chat.sendMessage
+     * Both users receive the message on /user/queue/messages
+     * The sender is always the authenticated session's user; the payload's
+     * senderId is ignored.
      */
     @MessageMapping("/chat.sendMessage")
-    public void sendMessage(@Payload ChatMessageDTO chatMessageDTO) {
+    public void sendMessage(@Payload ChatMessageDTO chatMessageDTO, Principal principal) {
+        if (!(principal instanceof WebSocketAuthenticationToken auth)) {
+            // Reported to the session on /user/queue/errors by handleException
+            throw new IllegalStateException("Unauthorized: session is not authenticated");
+        }
+        Long senderId = auth.getUserId();
         try {
-            Long senderId = chatMessageDTO.getSenderId();
             Long recipientId = chatMessageDTO.getRecipientId();
 
-            ChatMessage saved;
-
-            // Check if message has attachment
-            if (chatMessageDTO.getAttachmentUrl() != null && !chatMessageDTO.getAttachmentUrl().isEmpty()) {
-                saved = chatService.saveMessageWithAttachment(
-                        senderId,
-                        recipientId,
-                        chatMessageDTO.getContent(),
-                        chatMessageDTO.getAttachmentUrl(),
-                        chatMessageDTO.getAttachmentType(),
-                        chatMessageDTO.getOriginalFilename(),
-                        chatMessageDTO.getFileSize());
-            } else {
-                saved = chatService.saveMessage(
-                        senderId,
-                        recipientId,
-                        chatMessageDTO.getContent());
-            }
+            // Validate and assign the ID now; persistence happens in the background
+            ChatMessage saved = chatService.prepareMessage(
+                    senderId,
+                    recipientId,
+                    chatMessageDTO.getContent(),
+                    blankToNull(chatMessageDTO.getAttachmentUrl()),
+                    chatMessageDTO.getAttachmentType(),
+                    chatMessageDTO.getOriginalFilename(),
+                    chatMessageDTO.getFileSize());
+            chatPersistencePipeline.submit(saved);
 
             // Build response DTO
             ChatMessageDTO responseDTO = new ChatMessageDTO();
@@ -88,27 +91,21 @@ public class ChatController {
                 responseDTO.setFileSize(saved.getFileSize());
             }
 
-            // Get sender name (show "Deleted User" if account is deleted)
-            Long senderIdValue = saved.getSenderId();
-            if (senderIdValue != null) {
-                userRepository.findById(senderIdValue)
-                        .ifPresent(sender -> {
-                            if (sender.isDeleted()) {
-                                responseDTO.setSenderName("Deleted User");
-                            } else {
-                                responseDTO.setSenderName(sender.getNama());
-                            }
-                        });
+            // Sender name from the session's user (show "Deleted User" if account is deleted)
+            if (auth.getPrincipal() instanceof User sender) {
+                responseDTO.setSenderName(sender.isDeleted() ? "Deleted User" : sender.getNama());
             }
 
             // Send to recipient
-            messagingTemplate.convertAndSend(
-                    "/topic/public/" + recipientId,
+            messagingTemplate.convertAndSendToUser(
+                    String.valueOf(recipientId),
+                    "/queue/messages",
                     responseDTO);
 
             // Send acknowledgment to sender
-            messagingTemplate.convertAndSend(
-                    "/topic/public/" + senderId,
+            messagingTemplate.convertAndSendToUser(
+                    String.valueOf(senderId),
+                    "/queue/messages",
                     responseDTO);
 
         } catch (Exception e) {
@@ -116,10 +113,11 @@ public class ChatController {
             ChatMessageDTO errorDTO = new ChatMessageDTO();
             errorDTO.setContent("Error: " + e.getMessage());
             errorDTO.setSenderId(0L); // System message
-            errorDTO.setRecipientId(chatMessageDTO.getSenderId());
+            errorDTO.setRecipientId(senderId);
 
-            messagingTemplate.convertAndSend(
-                    "/topic/errors/" + chatMessageDTO.getSenderId(),
+            messagingTemplate.convertAndSendToUser(
+                    String.valueOf(senderId),
+                    "/queue/errors",
                     errorDTO);
         }
     }
@@ -180,6 +178,33 @@ public class ChatController {
         }
     }
 
+    /**
+     * Get chat history one page at a time, newest first.
+     * Pass the returned nextCursor to scroll back to older messages.
+     */
+    @GetMapping("/api/chat/history/cursor")
+    @ResponseBody
+    public ResponseEntity<ApiResponse<CursorPage<ChatResponseDTO>>> getHistoryBefore(
+            @RequestParam Long otherUserId,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) String cursor,
+            @AuthenticationPrincipal User currentUser) {
+
+        try {
+            CursorPage<ChatResponseDTO> history = chatService.getChatHistoryBefore(
+                    currentUser.getId(), otherUserId, limit, cursor);
+
+            // Mark messages as read when opening the conversation
+            if (cursor == null) {
+                chatService.markMessagesAsRead(currentUser.getId(), otherUserId);
+            }
+
+            return ResponseEntity.ok(ApiResponse.ok("Chat history retrieved", history));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.fail(e.getMessage()));
+        }
+    }
+
     /**
      * Get unread message count
      */
@@ -208,16 +233,22 @@ public class ChatController {
     }
 
     /**
-     * Mark messages as read
+     * Mark messages as read (optionally only up to a given message, for read receipts)
      */
     @PostMapping("/api/chat/mark-read")
     @ResponseBody
-    public ResponseEntity<ApiResponse<String>> markAsRead(
+    public ResponseEntity<ApiResponse<Map<String, Long>>> markAsRead(
             @RequestParam Long senderId,
+            @RequestParam(required = false) String upToMessageId,
             @AuthenticationPrincipal User currentUser) {
 
-        chatService.markMessagesAsRead(currentUser.getId(), senderId);
-        return ResponseEntity.ok(ApiResponse.ok("Messages marked as read", null));
+        try {
+            long marked = chatService.markMessagesAsRead(currentUser.getId(), senderId, upToMessageId);
+            return ResponseEntity.ok(ApiResponse.ok("Messages marked as read",
+                    Map.of("markedCount", marked)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.fail(e.getMessage()));
+        }
     }
 
     /**
@@ -283,7 +314,14 @@ public class ChatController {
 
     // ========== PRIVATE HELPER METHODS ==========
 
+    private static String blankToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+
     private List<Map<String, Object>> getContactsForUser(User currentUser) {
+        // Unread counts and last message times for every contact in one query
+        Map<Long, Conversation> conversations = chatService.getConversationSummaries(currentUser.getId());
+
         if (currentUser.getRole().name().equals("MAHASISWA")) {
             // Mahasiswa: get UMKM from approved applications, deduplicated by userId
             Map<Long, Map<String, Object>> contactsMap = new java.util.LinkedHashMap<>();
@@ -312,11 +350,14 @@ public class ChatController {
                             contactMap.put("projectTitle", app.getProject().getTitle());
                             contactMap.put("projects",
                                     new java.util.ArrayList<>(java.util.List.of(app.getProject().getTitle())));
-                            contactMap.put("unreadCount", chatService.getUnreadCountFromSender(
-                                    currentUser.getId(), umkmId));
+                            Conversation conversation = conversations.get(umkmId);
+                            contactMap.put("unreadCount", conversation == null ? 0L
+                                    : conversation.unreadCountFor(currentUser.getId()));
                             // Add last message time for sorting
-                            contactMap.put("lastMessageTime", chatService.getLastMessageTime(
-                                    currentUser.getId(), umkmId));
+                            contactMap.put("lastMessageTime", conversation == null ? null
+                                    : conversation.getLastMessageAt());
+                            contactMap.put("lastMessagePreview", conversation == null ? null
+                                    : conversation.getLastMessagePreview());
                             contactsMap.put(umkmId, contactMap);
                         }
                     });
@@ -372,11 +413,14 @@ public class ChatController {
                             contactMap.put("projectTitle", app.getProject().getTitle());
                             contactMap.put("projects",
                                     new java.util.ArrayList<>(java.util.List.of(app.getProject().getTitle())));
-                            contactMap.put("unreadCount", chatService.getUnreadCountFromSender(
-                                    currentUser.getId(), mahasiswaId));
+                            Conversation conversation = conversations.get(mahasiswaId);
+                            contactMap.put("unreadCount", conversation == null ? 0L
+                                    : conversation.unreadCountFor(currentUser.getId()));
                             // Add last message time for sorting
-                            contactMap.put("lastMessageTime", chatService.getLastMessageTime(
-                                    currentUser.getId(), mahasiswaId));
+                            contactMap.put("lastMessageTime", conversation == null ? null
+                                    : conversation.getLastMessageAt());
+                            contactMap.put("lastMessagePreview", conversation == null ? null
+                                    : conversation.getLastMessagePreview());
                             contactsMap.put(mahasiswaId, contactMap);
                         }
                     });
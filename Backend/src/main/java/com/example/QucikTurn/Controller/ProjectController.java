@@ -2,17 +2,23 @@ package com.example.QucikTurn.Controller;
 
 import com.example.QucikTurn.Entity.Project;
 import com.example.QucikTurn.Entity.User;
+import com.example.QucikTurn.Entity.enums.ProjectComplexity;
+import com.example.QucikTurn.Entity.enums.WorkMode;
 import com.example.QucikTurn.Service.ApplicationService;
 import com.example.QucikTurn.Service.FinishingService;
 import com.example.QucikTurn.Service.ProjectService;
 import com.example.QucikTurn.Service.ProjectViewerService;
 import com.example.QucikTurn.Service.RecommendationService;
 import com.example.QucikTurn.Service.ReviewService;
+import com.example.QucikTurn.Service.UserService;
 import com.example.QucikTurn.dto.ApiResponse;
 import com.example.QucikTurn.dto.ApplicantResponse;
 import com.example.QucikTurn.dto.CreateProjectRequest;
+import com.example.QucikTurn.dto.CursorPage;
 import com.example.QucikTurn.dto.FinishProjectRequest;
 import com.example.QucikTurn.dto.NearbyProjectResponse;
+import com.example.QucikTurn.dto.ProjectBrowseFilter;
+import com.example.QucikTurn.dto.ProjectBrowseItem;
 import com.example.QucikTurn.dto.ReviewRequest;
 import com.example.QucikTurn.dto.ProjectWithStatusResponse;
 import com.example.QucikTurn.dto.UmkmProjectResponse;
@@ -21,6 +27,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Map;
 
@@ -34,16 +41,19 @@ public class ProjectController {
     private final ApplicationService applicationSvc;
     private final ReviewService reviewService;
     private final RecommendationService recommendationSvc;
+    private final UserService userSvc;
 
     public ProjectController(ProjectService projectSvc, ProjectViewerService projectViewerSvc,
             FinishingService finishingSvc, ApplicationService applicationSvc,
-            ReviewService reviewService, RecommendationService recommendationSvc) {
+            ReviewService reviewService, RecommendationService recommendationSvc,
+            UserService userSvc) {
         this.projectSvc = projectSvc;
         this.projectViewerSvc = projectViewerSvc;
         this.finishingSvc = finishingSvc;
         this.applicationSvc = applicationSvc;
         this.reviewService = reviewService;
         this.recommendationSvc = recommendationSvc;
+        this.userSvc = userSvc;
     }
 
     /**
@@ -86,14 +96,36 @@ public class ProjectController {
         return ResponseEntity.ok(ApiResponse.ok("All open projects retrieved", list));
     }
 
-    // --- GET NEARBY OPEN PROJECTS (Geoloc) ---
+    // --- BROWSE OPEN PROJECTS (filtered, keyset paginated, newest first) ---
+    @GetMapping("/browse")
+    public ResponseEntity<ApiResponse<CursorPage<ProjectBrowseItem>>> browseProjects(
+            @AuthenticationPrincipal User user,
+            @RequestParam(value = "category", required = false) String category,
+            @RequestParam(value = "workMode", required = false) WorkMode workMode,
+            @RequestParam(value = "complexity", required = false) ProjectComplexity complexity,
+            @RequestParam(value = "minBudget", required = false) BigDecimal minBudget,
+            @RequestParam(value = "maxBudget", required = false) BigDecimal maxBudget,
+            @RequestParam(value = "city", required = false) String city,
+            @RequestParam(value = "limit", defaultValue = "20") int limit,
+            @RequestParam(value = "cursor", required = false) String cursor) {
+        Long studentId = (user != null && user.getRole().name().equals("MAHASISWA")) ? user.getId() : null;
+        ProjectBrowseFilter filter = new ProjectBrowseFilter(category, workMode, complexity, minBudget, maxBudget,
+                city);
+        CursorPage<ProjectBrowseItem> page = projectViewerSvc.browseOpenProjects(filter, studentId, limit, cursor);
+        return ResponseEntity.ok(ApiResponse.ok("Projects retrieved", page));
+    }
+
+    // --- GET NEARBY OPEN PROJECTS (Geoloc, keyset paginated) ---
     @GetMapping("/nearby")
-    public ResponseEntity<ApiResponse<List<NearbyProjectResponse>>> getNearbyProjects(
+    public ResponseEntity<ApiResponse<CursorPage<NearbyProjectResponse>>> getNearbyProjects(
             @RequestParam("lat") double lat,
             @RequestParam("lng") double lng,
-            @RequestParam(value = "radiusKm", defaultValue = "10") double radiusKm) {
-        List<NearbyProjectResponse> list = projectViewerSvc.getNearbyProjects(lat, lng, radiusKm);
-        return ResponseEntity.ok(ApiResponse.ok("Nearby projects retrieved successfully", list));
+            @RequestParam(value = "radiusKm", defaultValue = "10") double radiusKm,
+            @RequestParam(value = "limit", defaultValue = "20") int limit,
+            @RequestParam(value = "cursor", required = false) String cursor) {
+        CursorPage<NearbyProjectResponse> page = projectViewerSvc.getNearbyProjects(lat, lng, radiusKm, limit,
+                cursor);
+        return ResponseEntity.ok(ApiResponse.ok("Nearby projects retrieved successfully", page));
     }
 
     // --- GET RECOMMENDED PROJECTS (AI-Powered) ---
@@ -101,8 +133,10 @@ public class ProjectController {
     public ResponseEntity<ApiResponse<List<ProjectWithStatusResponse>>> getRecommendedProjects(
             @AuthenticationPrincipal User user,
             @RequestParam(defaultValue = "10") int limit) {
-        // Get recommended projects based on user skills and category
-        List<Project> recommendedProjects = recommendationSvc.getRecommendationsForUser(user, limit);
+        // Get recommended projects based on user skills and category; read them
+        // from the DB, the principal may be a cached copy from before a change
+        User current = userSvc.getUserById(user.getId());
+        List<Project> recommendedProjects = recommendationSvc.getRecommendationsForUser(current, limit);
 
         // Convert to ProjectWithStatusResponse for consistency with other endpoints
         List<ProjectWithStatusResponse> list = projectViewerSvc.convertToStatusResponse(
@@ -9,7 +9,9 @@ import java.util.UUID;
  * Uses a UUID token in a clickable link instead of 6-digit codes.
  */
 @Entity
-@Table(name = "email_verification_token")
+@Table(name = "email_verification_token", indexes = {
+        @Index(name = "idx_email_verification_expiry", columnList = "expiry_date") // retention job
+})
 public class EmailVerificationToken {
 
     // Token expires after 24 hours
@@ -8,7 +8,8 @@ import java.time.LocalDateTime;
 @Table(name = "notifications", indexes = {
         @Index(name = "idx_notification_user", columnList = "user_id"),
         @Index(name = "idx_notification_read", columnList = "user_id, is_read"),
-        @Index(name = "idx_notification_created", columnList = "created_at")
+        @Index(name = "idx_notification_created", columnList = "created_at"),
+        @Index(name = "idx_notification_read_at", columnList = "is_read, read_at") // retention job
 })
 public class Notification {
 
@@ -42,6 +43,9 @@ public class Notification {
     @Column(name = "action_url", length = 500)
     private String actionUrl; // URL to navigate when clicked
 
+    @Column(name = "event_count", nullable = false, columnDefinition = "INT DEFAULT 1")
+    private int eventCount = 1; // > 1 for a digest of several events (see NotificationEvent)
+
     @Column(nullable = false)
     private LocalDateTime createdAt;
 
@@ -148,6 +152,14 @@ public class Notification {
         this.actionUrl = actionUrl;
     }
 
+    public int getEventCount() {
+        return eventCount;
+    }
+
+    public void setEventCount(int eventCount) {
+        this.eventCount = eventCount;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
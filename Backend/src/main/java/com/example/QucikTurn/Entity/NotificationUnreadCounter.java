@@ -0,0 +1,43 @@
+package com.example.QucikTurn.Entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Number of unread notifications per user, kept up to date as notifications
+ * are created and read so the badge does not need a COUNT over
+ * {@code notifications}. A periodic job reconciles it against the real count
+ * (see UnreadNotificationCounter).
+ */
+@Entity
+@Table(name = "notification_unread_counters")
+public class NotificationUnreadCounter {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "unread_count", nullable = false)
+    private long unreadCount;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt = LocalDateTime.now();
+
+    // --- Constructors ---
+    public NotificationUnreadCounter() {}
+
+    public NotificationUnreadCounter(Long userId, long unreadCount) {
+        this.userId = userId;
+        this.unreadCount = unreadCount;
+    }
+
+    // --- Getters & Setters ---
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public long getUnreadCount() { return unreadCount; }
+    public void setUnreadCount(long unreadCount) { this.unreadCount = unreadCount; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -6,7 +6,9 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "password_reset_token")
+@Table(name = "password_reset_token", indexes = {
+        @Index(name = "idx_password_reset_code_expiry", columnList = "code_expiry_date") // retention job
+})
 public class PasswordResetToken {
 
     // Waktu kadaluarsa verification code: 5 menit
@@ -11,7 +11,13 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "projects", indexes = {
         @Index(name = "idx_project_status", columnList = "status"),
-        @Index(name = "idx_project_owner", columnList = "owner_id")
+        @Index(name = "idx_project_status_lat_lng", columnList = "status, latitude, longitude"),
+        @Index(name = "idx_project_owner", columnList = "owner_id"),
+        // Browse listing: newest first per status, optionally narrowed by an equality filter
+        @Index(name = "idx_project_status_created", columnList = "status, created_at, id"),
+        @Index(name = "idx_project_status_category_created", columnList = "status, category, created_at"),
+        @Index(name = "idx_project_status_city_created", columnList = "status, city, created_at"),
+        @Index(name = "idx_project_status_work_mode_created", columnList = "status, work_mode, created_at")
 })
 public class Project {
     @Id
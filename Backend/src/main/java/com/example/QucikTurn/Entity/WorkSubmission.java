@@ -7,7 +7,9 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "work_submissions")
+@Table(name = "work_submissions", indexes = {
+        @Index(name = "idx_submission_project_submitted", columnList = "project_id, submitted_at")
+})
 public class WorkSubmission {
 
     @Id
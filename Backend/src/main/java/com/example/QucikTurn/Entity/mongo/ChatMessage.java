@@ -2,12 +2,17 @@ package com.example.QucikTurn.Entity.mongo;
 
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import java.time.LocalDateTime;
 
 @Document(collection = "chat_messages")
-@CompoundIndex(name = "sender_recipient_idx", def = "{'senderId': 1, 'recipientId': 1}")
+@CompoundIndexes({
+        @CompoundIndex(name = "sender_recipient_idx", def = "{'senderId': 1, 'recipientId': 1}"),
+        // History of one conversation, newest first; _id breaks timestamp ties for cursors
+        @CompoundIndex(name = "conversation_timestamp_idx", def = "{'conversationId': 1, 'timestamp': -1, '_id': -1}")
+})
 public class ChatMessage {
     @Id
     private String id;
@@ -18,6 +23,8 @@ public class ChatMessage {
     @Indexed
     private Long recipientId; // Relasi logical ke MySQL User ID
 
+    private String conversationId; // Conversation.idFor(senderId, recipientId)
+
     private String content;
 
     @Indexed
@@ -38,6 +45,7 @@ public class ChatMessage {
     public ChatMessage(Long senderId, Long recipientId, String content) {
         this.senderId = senderId;
         this.recipientId = recipientId;
+        this.conversationId = Conversation.idFor(senderId, recipientId);
         this.content = content;
         this.timestamp = LocalDateTime.now();
         this.isRead = false;
@@ -68,6 +76,14 @@ public class ChatMessage {
         this.recipientId = recipientId;
     }
 
+    public String getConversationId() {
+        return conversationId;
+    }
+
+    public void setConversationId(String conversationId) {
+        this.conversationId = conversationId;
+    }
+
     public String getContent() {
         return content;
     }
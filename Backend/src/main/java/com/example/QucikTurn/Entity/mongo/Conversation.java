@@ -0,0 +1,127 @@
+package com.example.QucikTurn.Entity.mongo;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Materialized summary of the chat between two users: last message preview
+ * and per-participant unread counters. One document per user pair, kept up to
+ * date by ChatService on every send and mark-as-read, so the contacts list is
+ * a single indexed query instead of scanning chat_messages per contact.
+ */
+@Document(collection = "conversations")
+@CompoundIndex(name = "participants_last_message_idx", def = "{'participants': 1, 'lastMessageAt': -1}")
+public class Conversation {
+
+    /** Maximum length of the stored last-message preview. */
+    public static final int PREVIEW_LENGTH = 100;
+
+    @Id
+    private String id; // idFor(userA, userB)
+
+    private List<Long> participants; // Relasi logical ke MySQL User ID, lower ID first
+
+    private Long lastMessageSenderId;
+    private String lastMessagePreview;
+    private LocalDateTime lastMessageAt;
+
+    // Key: participant user ID as string (Mongo field names must be strings)
+    private Map<String, Long> unreadCounts = new HashMap<>();
+
+    public Conversation() {
+    }
+
+    /**
+     * Canonical ID of the conversation between two users, independent of who
+     * sent the message: "lowerId_higherId".
+     */
+    public static String idFor(Long userId1, Long userId2) {
+        return Math.min(userId1, userId2) + "_" + Math.max(userId1, userId2);
+    }
+
+    /**
+     * Preview text stored for a message; attachments without text are shown by
+     * file name.
+     */
+    public static String previewOf(String content, String originalFilename) {
+        String text = (content == null || content.isEmpty()) && originalFilename != null
+                ? "Mengirim lampiran: " + originalFilename
+                : content;
+        if (text != null && text.length() > PREVIEW_LENGTH) {
+            return text.substring(0, PREVIEW_LENGTH);
+        }
+        return text;
+    }
+
+    /**
+     * The participant that is not the given user.
+     */
+    public Long otherParticipant(Long userId) {
+        return participants.get(0).equals(userId) ? participants.get(1) : participants.get(0);
+    }
+
+    /**
+     * Unread messages waiting for the given participant.
+     */
+    public long unreadCountFor(Long userId) {
+        if (unreadCounts == null) {
+            return 0L;
+        }
+        Long count = unreadCounts.get(String.valueOf(userId));
+        return count == null ? 0L : Math.max(count, 0L);
+    }
+
+    // Getters Setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public List<Long> getParticipants() {
+        return participants;
+    }
+
+    public void setParticipants(List<Long> participants) {
+        this.participants = participants;
+    }
+
+    public Long getLastMessageSenderId() {
+        return lastMessageSenderId;
+    }
+
+    public void setLastMessageSenderId(Long lastMessageSenderId) {
+        this.lastMessageSenderId = lastMessageSenderId;
+    }
+
+    public String getLastMessagePreview() {
+        return lastMessagePreview;
+    }
+
+    public void setLastMessagePreview(String lastMessagePreview) {
+        this.lastMessagePreview = lastMessagePreview;
+    }
+
+    public LocalDateTime getLastMessageAt() {
+        return lastMessageAt;
+    }
+
+    public void setLastMessageAt(LocalDateTime lastMessageAt) {
+        this.lastMessageAt = lastMessageAt;
+    }
+
+    public Map<String, Long> getUnreadCounts() {
+        return unreadCounts;
+    }
+
+    public void setUnreadCounts(Map<String, Long> unreadCounts) {
+        this.unreadCounts = unreadCounts;
+    }
+}
@@ -3,7 +3,10 @@ package com.example.QucikTurn.Repository;
 import com.example.QucikTurn.Entity.Application;
 import com.example.QucikTurn.Entity.enums.ApplicationStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,6 +18,16 @@ public interface ApplicationRepository extends JpaRepository<Application, Long>
     // SECURITY: Check if student has specific application status for a project
     boolean existsByProjectIdAndStudentIdAndStatus(Long projectId, Long studentId, ApplicationStatus status);
 
+    /**
+     * Whether either user has an application with the given status to a project
+     * owned by the other (chat permission check), without loading any entity.
+     */
+    @Query("SELECT COUNT(a) > 0 FROM Application a WHERE a.status = :status AND (" +
+            "(a.student.id = :userId1 AND a.project.owner.id = :userId2) OR " +
+            "(a.student.id = :userId2 AND a.project.owner.id = :userId1))")
+    boolean existsContractBetween(@Param("userId1") Long userId1, @Param("userId2") Long userId2,
+            @Param("status") ApplicationStatus status);
+
     // Ambil semua aplikasi untuk satu project (UMKM lihat siapa saja yang apply)
     List<Application> findByProjectId(Long projectId);
 
@@ -24,15 +37,50 @@ public interface ApplicationRepository extends JpaRepository<Application, Long>
     // Ambil aplikasi spesifik berdasarkan project dan student
     Optional<Application> findByProjectIdAndStudentId(Long projectId, Long studentId);
 
+    /**
+     * A student's application status for each of the given projects they applied
+     * to, in one query (used by listings instead of one lookup per project).
+     */
+    @Query("SELECT a.project.id AS projectId, a.status AS status FROM Application a " +
+            "WHERE a.student.id = :studentId AND a.project.id IN :projectIds")
+    List<ProjectApplicationStatus> findStatusesByStudentIdAndProjectIds(@Param("studentId") Long studentId,
+            @Param("projectIds") Collection<Long> projectIds);
+
     // Ambil semua aplikasi untuk project milik UMKM tertentu
     List<Application> findByProject_Owner_Id(Long ownerId);
 
     // Count applications for a project
     int countByProjectId(Long projectId);
 
+    /**
+     * Applicant count of every project owned by the given UMKM, in one grouped
+     * query. Projects without applications are absent.
+     */
+    @Query("SELECT a.project.id AS projectId, COUNT(a) AS applicantCount FROM Application a " +
+            "WHERE a.project.owner.id = :ownerId GROUP BY a.project.id")
+    List<ProjectApplicantCount> countApplicantsByOwnerId(@Param("ownerId") Long ownerId);
+
     // Find applications by project and status
     List<Application> findByProjectIdAndStatus(Long projectId, ApplicationStatus status);
 
     // For account deletion - delete all applications for a project
     void deleteByProjectId(Long projectId);
+
+    /**
+     * Projection for {@link #countApplicantsByOwnerId}.
+     */
+    interface ProjectApplicantCount {
+        Long getProjectId();
+
+        long getApplicantCount();
+    }
+
+    /**
+     * Projection for {@link #findStatusesByStudentIdAndProjectIds}.
+     */
+    interface ProjectApplicationStatus {
+        Long getProjectId();
+
+        ApplicationStatus getStatus();
+    }
 }
@@ -1,32 +1,34 @@
 package com.example.QucikTurn.Repository;
 
 import com.example.QucikTurn.Entity.mongo.ChatMessage;
+import org.bson.types.ObjectId;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ChatMessageRepository extends MongoRepository<ChatMessage, String> {
 
-    // Query chat between 2 users with sorting by timestamp (ascending)
-    @Query(value = "{ $or: [ { senderId: ?0, recipientId: ?1 }, { senderId: ?1, recipientId: ?0 } ] }", sort = "{ timestamp: 1 }")
-    List<ChatMessage> findChatBetweenUsers(Long userId1, Long userId2);
+    // Chat between 2 users with sorting by timestamp (ascending), served by conversation_timestamp_idx
+    List<ChatMessage> findByConversationIdOrderByTimestampAsc(String conversationId);
 
-    // Paginated version for large chat histories
-    @Query(value = "{ $or: [ { senderId: ?0, recipientId: ?1 }, { senderId: ?1, recipientId: ?0 } ] }")
-    Page<ChatMessage> findChatBetweenUsersPaged(Long userId1, Long userId2, Pageable pageable);
+    // Offset-paginated version for large chat histories
+    Page<ChatMessage> findByConversationId(String conversationId, Pageable pageable);
+
+    // Newest messages of a conversation (first page of the cursor history)
+    @Query(value = "{ conversationId: ?0 }", sort = "{ timestamp: -1, _id: -1 }")
+    List<ChatMessage> findLatestInConversation(String conversationId, Pageable pageable);
+
+    // Messages strictly before the cursor position (timestamp, _id), newest first
+    @Query(value = "{ conversationId: ?0, $or: [ { timestamp: { $lt: ?1 } }, { timestamp: ?1, _id: { $lt: ?2 } } ] }", sort = "{ timestamp: -1, _id: -1 }")
+    List<ChatMessage> findInConversationBefore(String conversationId, LocalDateTime beforeTimestamp,
+            ObjectId beforeId, Pageable pageable);
 
     // Count unread messages for a recipient
     long countByRecipientIdAndIsReadFalse(Long recipientId);
 
     // Count unread messages from a specific sender
     long countByRecipientIdAndSenderIdAndIsReadFalse(Long recipientId, Long senderId);
-
-    // Find unread messages to mark as read
-    List<ChatMessage> findByRecipientIdAndSenderIdAndIsReadFalse(Long recipientId, Long senderId);
-
-    // Get the latest message between two users (sorted by timestamp desc, limit 1)
-    @Query(value = "{ $or: [ { senderId: ?0, recipientId: ?1 }, { senderId: ?1, recipientId: ?0 } ] }", sort = "{ timestamp: -1 }")
-    List<ChatMessage> findLatestMessageBetweenUsers(Long userId1, Long userId2);
 }
@@ -0,0 +1,11 @@
+package com.example.QucikTurn.Repository;
+
+import com.example.QucikTurn.Entity.mongo.Conversation;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import java.util.List;
+
+public interface ConversationRepository extends MongoRepository<Conversation, String> {
+
+    // All conversations a user takes part in, most recent first (participants_last_message_idx)
+    List<Conversation> findByParticipantsOrderByLastMessageAtDesc(Long userId);
+}
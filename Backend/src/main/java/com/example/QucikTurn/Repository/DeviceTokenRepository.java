@@ -4,6 +4,7 @@ import com.example.QucikTurn.Entity.DeviceToken;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,4 +19,7 @@ public interface DeviceTokenRepository extends JpaRepository<DeviceToken, Long>
 
     /** Remove all tokens for a user (e.g. on logout or account deletion). */
     void deleteByUserId(Long userId);
+
+    /** Remove specific tokens of a user (e.g. reported invalid by FCM). */
+    void deleteByUserIdAndTokenIn(Long userId, Collection<String> tokens);
 }
@@ -0,0 +1,16 @@
+package com.example.QucikTurn.Repository;
+
+import com.example.QucikTurn.Entity.NotificationEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface NotificationEventRepository extends JpaRepository<NotificationEvent, Long> {
+
+    /**
+     * Events summarized by a digest notification (newest first)
+     */
+    List<NotificationEvent> findByNotificationIdOrderByCreatedAtDesc(Long notificationId);
+}
@@ -1,14 +1,18 @@
 package com.example.QucikTurn.Repository;
 
 import com.example.QucikTurn.Entity.Notification;
+import com.example.QucikTurn.Entity.enums.NotificationType;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -29,6 +33,13 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
      */
     long countByUserIdAndReadFalse(Long userId);
 
+    /**
+     * Unread count per user, for users with at least one unread notification
+     * (rows of [userId, count]; reconciliation job)
+     */
+    @Query("SELECT n.user.id, COUNT(n) FROM Notification n WHERE n.read = false GROUP BY n.user.id")
+    List<Object[]> countUnreadGroupedByUser();
+
     /**
      * Mark all notifications as read for a user
      */
@@ -37,12 +48,20 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
     int markAllAsReadByUserId(@Param("userId") Long userId);
 
     /**
-     * Delete old read notifications (cleanup job)
-     * Keeps notifications for 30 days after being read
+     * Unread digest candidates for a new event: same user, type and related
+     * entity, created since the given time (newest first). Locked so
+     * concurrent events for one digest are counted one after another.
      */
-    @Modifying
-    @Query("DELETE FROM Notification n WHERE n.read = true AND n.readAt < :cutoffDate")
-    int deleteOldReadNotifications(@Param("cutoffDate") java.time.LocalDateTime cutoffDate);
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT n FROM Notification n WHERE n.user.id = :userId AND n.type = :type "
+            + "AND n.relatedEntityType = :relatedEntityType AND n.relatedEntityId = :relatedEntityId "
+            + "AND n.read = false AND n.createdAt >= :since ORDER BY n.createdAt DESC")
+    List<Notification> findOpenDigests(@Param("userId") Long userId,
+            @Param("type") NotificationType type,
+            @Param("relatedEntityType") String relatedEntityType,
+            @Param("relatedEntityId") Long relatedEntityId,
+            @Param("since") LocalDateTime since,
+            Pageable pageable);
 
     /**
      * Find notifications by related entity
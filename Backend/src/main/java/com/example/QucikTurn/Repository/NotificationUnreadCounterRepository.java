@@ -0,0 +1,44 @@
+package com.example.QucikTurn.Repository;
+
+import com.example.QucikTurn.Entity.NotificationUnreadCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface NotificationUnreadCounterRepository extends JpaRepository<NotificationUnreadCounter, Long> {
+
+    /**
+     * Add to a user's counter, creating it if needed (MySQL upsert, atomic
+     * under concurrent notifications).
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO notification_unread_counters (user_id, unread_count, updated_at) "
+            + "VALUES (:userId, GREATEST(:delta, 0), NOW()) "
+            + "ON DUPLICATE KEY UPDATE unread_count = GREATEST(unread_count + :delta, 0), updated_at = NOW()",
+            nativeQuery = true)
+    int addToCount(@Param("userId") Long userId, @Param("delta") long delta);
+
+    /**
+     * Set a user's counter, creating it if needed. Transactional on its own
+     * because seeding a missing counter happens on read paths.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO notification_unread_counters (user_id, unread_count, updated_at) "
+            + "VALUES (:userId, :count, NOW()) "
+            + "ON DUPLICATE KEY UPDATE unread_count = :count, updated_at = NOW()",
+            nativeQuery = true)
+    int setCount(@Param("userId") Long userId, @Param("count") long count);
+
+    /**
+     * Counters claiming unread notifications (reconciliation job).
+     */
+    List<NotificationUnreadCounter> findByUnreadCountGreaterThan(long unreadCount);
+}
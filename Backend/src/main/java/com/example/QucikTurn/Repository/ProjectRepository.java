@@ -1,9 +1,16 @@
 package com.example.QucikTurn.Repository;
 
 import com.example.QucikTurn.Entity.Project;
+import com.example.QucikTurn.Entity.enums.ProjectComplexity;
+import com.example.QucikTurn.Entity.enums.ProjectStatus;
+import com.example.QucikTurn.Entity.enums.WorkMode;
+import com.example.QucikTurn.dto.ProjectBrowseItem;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query; // ✅ IMPORT THIS
 import org.springframework.data.repository.query.Param; // ✅ IMPORT THIS
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ProjectRepository extends JpaRepository<Project, Long> {
@@ -21,4 +28,51 @@ public interface ProjectRepository extends JpaRepository<Project, Long> {
      */
     List<Project> findByStatusAndLatitudeIsNotNullAndLongitudeIsNotNull(
             com.example.QucikTurn.Entity.enums.ProjectStatus status);
-}
\ No newline at end of file
+
+    /**
+     * Projects of a given status inside a latitude/longitude bounding box
+     * (bounds inclusive). Served by the composite
+     * {@code idx_project_status_lat_lng} index so only nearby candidates are read.
+     */
+    List<Project> findByStatusAndLatitudeBetweenAndLongitudeBetween(
+            com.example.QucikTurn.Entity.enums.ProjectStatus status,
+            Double minLat, Double maxLat, Double minLng, Double maxLng);
+
+    /**
+     * One page of the browse listing, newest first, as DTOs (no entities are
+     * loaded). Null filter parameters are ignored.
+     *
+     * <p>
+     * Keyset pagination on {@code (createdAt, id)}: only rows strictly after
+     * {@code (afterCreatedAt, afterId)} in {@code createdAt DESC, id DESC} order
+     * are returned; pass a far-future timestamp and {@link Long#MAX_VALUE} for
+     * the first page. The leading {@code createdAt <= :afterCreatedAt} keeps
+     * the predicate a plain range on the {@code (status, ..., created_at)}
+     * indexes. The page size comes from {@code pageable}.
+     * </p>
+     */
+    @Query("SELECT new com.example.QucikTurn.dto.ProjectBrowseItem(p.id, p.title, p.description, p.category, " +
+            "p.budget, p.deadline, p.requiredSkills, p.estimatedDuration, p.complexity, p.workMode, p.city, " +
+            "p.applicantCount, p.createdAt, o.id, o.nama, o.averageRating) " +
+            "FROM Project p JOIN p.owner o " +
+            "WHERE p.status = :status " +
+            "AND (:category IS NULL OR p.category = :category) " +
+            "AND (:workMode IS NULL OR p.workMode = :workMode) " +
+            "AND (:complexity IS NULL OR p.complexity = :complexity) " +
+            "AND (:minBudget IS NULL OR p.budget >= :minBudget) " +
+            "AND (:maxBudget IS NULL OR p.budget <= :maxBudget) " +
+            "AND (:city IS NULL OR p.city = :city) " +
+            "AND p.createdAt <= :afterCreatedAt " +
+            "AND (p.createdAt < :afterCreatedAt OR p.id < :afterId) " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    List<ProjectBrowseItem> browse(@Param("status") ProjectStatus status,
+            @Param("category") String category,
+            @Param("workMode") WorkMode workMode,
+            @Param("complexity") ProjectComplexity complexity,
+            @Param("minBudget") BigDecimal minBudget,
+            @Param("maxBudget") BigDecimal maxBudget,
+            @Param("city") String city,
+            @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+            @Param("afterId") Long afterId,
+            Pageable pageable);
+}
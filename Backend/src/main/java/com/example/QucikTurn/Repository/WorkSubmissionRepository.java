@@ -2,7 +2,11 @@ package com.example.QucikTurn.Repository;
 
 import com.example.QucikTurn.Entity.WorkSubmission;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,4 +18,30 @@ public interface WorkSubmissionRepository extends JpaRepository<WorkSubmission,
     Optional<WorkSubmission> findByProjectIdAndSubmittedById(Long projectId, Long userId);
 
     List<WorkSubmission> findByProjectIdOrderBySubmittedAtDesc(Long projectId);
+
+    /**
+     * Latest submission (status and feedback) of each of the given projects in a
+     * single query. Projects without submissions are absent; if two submissions
+     * share the latest timestamp both are returned and the caller picks one.
+     */
+    @Query("SELECT w.id AS id, w.project.id AS projectId, w.status AS status, w.feedback AS feedback, " +
+            "w.submittedAt AS submittedAt FROM WorkSubmission w " +
+            "WHERE w.project.id IN :projectIds AND w.submittedAt = " +
+            "(SELECT MAX(w2.submittedAt) FROM WorkSubmission w2 WHERE w2.project.id = w.project.id)")
+    List<LatestSubmission> findLatestByProjectIds(@Param("projectIds") Collection<Long> projectIds);
+
+    /**
+     * Projection for {@link #findLatestByProjectIds}.
+     */
+    interface LatestSubmission {
+        Long getId();
+
+        Long getProjectId();
+
+        String getStatus();
+
+        String getFeedback();
+
+        LocalDateTime getSubmittedAt();
+    }
 }
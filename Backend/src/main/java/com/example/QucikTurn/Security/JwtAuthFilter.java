@@ -7,7 +7,6 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -15,12 +14,10 @@ import java.io.IOException;
 
 @Component
 public class JwtAuthFilter extends OncePerRequestFilter {
-    private final JwtService jwt;
-    private final UserDetailsService uds;
+    private final TokenAuthenticationCache authCache;
 
-    public JwtAuthFilter(JwtService jwt, UserDetailsService uds){
-        this.jwt=jwt;
-        this.uds=uds;
+    public JwtAuthFilter(TokenAuthenticationCache authCache){
+        this.authCache=authCache;
     }
 
     @Override
@@ -35,14 +32,11 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
         String token = h.substring(7);
         try {
-            String username = jwt.username(token);
+            if (SecurityContextHolder.getContext().getAuthentication() == null){
+                // Verified token -> user, cached briefly (no DB query per request)
+                var user = authCache.resolve(token);
 
-            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null){
-                var user = uds.loadUserByUsername(username);
-
-                boolean isValid = jwt.valid(token, user.getUsername());
-
-                if (isValid){
+                if (user != null){
                     var auth = new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
                     auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(req));
                     SecurityContextHolder.getContext().setAuthentication(auth);
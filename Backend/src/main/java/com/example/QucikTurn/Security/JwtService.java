@@ -13,10 +13,18 @@ import java.util.Map;
 public class JwtService {
     private final Key key;
     private final long expires;
+    // Immutable and thread-safe: built once instead of per verification
+    private final JwtParser parser;
+
+    /**
+     * What a verified token says about its bearer.
+     */
+    public record VerifiedToken(String subject, String role, Instant expiresAt) {}
 
     public JwtService(@Value("${app.jwt.secret}") String secret, @Value("${app.jwt.expires-in-seconds}") long exp) {
         this.key = Keys.hmacShaKeyFor(secret.getBytes());
         this.expires = exp;
+        this.parser = Jwts.parserBuilder().setSigningKey(key).build();
     }
 
     public String generateToken(String subject, Map<String, Object> claims) {
@@ -26,17 +34,29 @@ public class JwtService {
                 .signWith(key, SignatureAlgorithm.HS256).compact();
     }
 
+    /**
+     * Verify signature and expiry and read subject, role and expiry in one parse.
+     *
+     * @return the token's claims, or null if the token is invalid or expired
+     */
+    public VerifiedToken parseAndValidate(String token) {
+        try {
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            Date expiration = claims.getExpiration();
+            return new VerifiedToken(claims.getSubject(), claims.get("role", String.class),
+                    expiration == null ? null : expiration.toInstant());
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
     public String username(String token) {
-        return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody().getSubject();
+        return parser.parseClaimsJws(token).getBody().getSubject();
     }
 
     public boolean valid(String token, String username) {
-        try {
-            return username.equals(username(token))
-                    && Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token) != null;
-        } catch (JwtException | IllegalArgumentException e) {
-            return false;
-        }
+        VerifiedToken verified = parseAndValidate(token);
+        return verified != null && username.equals(verified.subject());
     }
 
     public long getExpires() {
@@ -0,0 +1,121 @@
+package com.example.QucikTurn.Security;
+
+import com.example.QucikTurn.Entity.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.ReflectionUtils;
+
+import java.time.Instant;
+
+/**
+ * Resolves a bearer token to its user for the HTTP filter and STOMP CONNECT.
+ *
+ * The token is verified once and the user loaded once; the result is cached
+ * for a short time (Caffeine, see {@code app.auth.token-cache.spec}) so
+ * authenticated requests do not each cost a MySQL lookup. An entry is never
+ * used past the token's own expiry, and every entry of a user is evicted
+ * whenever the user row changes (profile, ban, role, password, email
+ * verification, rating, deletion by themselves or an admin). Each call gets
+ * its own copy of the cached user, so concurrent requests never share one
+ * detached entity.
+ */
+@Component
+public class TokenAuthenticationCache {
+
+    private record CachedAuthentication(User user, Instant expiresAt) {
+    }
+
+    private final JwtService jwtService;
+    private final UserDetailsService userDetailsService;
+    private final Cache<String, CachedAuthentication> cache; // null when disabled
+
+    public TokenAuthenticationCache(JwtService jwtService, UserDetailsService userDetailsService,
+            @Value("${app.auth.token-cache.spec:maximumSize=10000,expireAfterWrite=60s}") String cacheSpec) {
+        this.jwtService = jwtService;
+        this.userDetailsService = userDetailsService;
+        this.cache = cacheSpec == null || cacheSpec.isBlank()
+                ? null
+                : Caffeine.from(cacheSpec).build();
+    }
+
+    /**
+     * The user the token belongs to.
+     *
+     * @return the user, or null if the token is invalid, expired or its user
+     *         no longer exists
+     */
+    public User resolve(String token) {
+        if (cache == null) {
+            CachedAuthentication loaded = load(token);
+            return loaded == null ? null : loaded.user();
+        }
+        CachedAuthentication cached = cache.getIfPresent(token);
+        if (cached != null && cached.expiresAt().isAfter(Instant.now())) {
+            return copyOf(cached.user());
+        }
+        CachedAuthentication loaded = load(token);
+        if (loaded == null) {
+            cache.invalidate(token);
+            return null;
+        }
+        cache.put(token, loaded);
+        return copyOf(loaded.user());
+    }
+
+    /**
+     * Forget every cached token of the user, now and again once the surrounding
+     * transaction commits (so a concurrent request cannot re-cache the old
+     * state).
+     */
+    public void evictUser(Long userId) {
+        if (cache == null || userId == null) {
+            return;
+        }
+        Runnable eviction = () -> cache.asMap().values().removeIf(entry -> userId.equals(entry.user().getId()));
+        eviction.run();
+        afterCommit(eviction);
+    }
+
+    private CachedAuthentication load(String token) {
+        JwtService.VerifiedToken verified = jwtService.parseAndValidate(token);
+        if (verified == null || verified.subject() == null || verified.expiresAt() == null) {
+            return null;
+        }
+        try {
+            UserDetails userDetails = userDetailsService.loadUserByUsername(verified.subject());
+            if (!(userDetails instanceof User user)) {
+                return null;
+            }
+            return new CachedAuthentication(user, verified.expiresAt());
+        } catch (RuntimeException e) {
+            return null; // UserDetailsService: user not found
+        }
+    }
+
+    private static User copyOf(User user) {
+        User copy = new User();
+        ReflectionUtils.shallowCopyFieldState(user, copy);
+        return copy;
+    }
+
+    /**
+     * Run the action after the surrounding transaction commits; nothing to do if
+     * there is none (the immediate eviction already happened).
+     */
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        }
+    }
+}
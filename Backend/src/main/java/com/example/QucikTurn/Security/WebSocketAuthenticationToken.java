@@ -0,0 +1,29 @@
+package com.example.QucikTurn.Security;
+
+import com.example.QucikTurn.Entity.User;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+/**
+ * Authentication of a STOMP session. The principal name is the user's ID (not
+ * the email), so /user destinations can be addressed with
+ * {@code convertAndSendToUser(String.valueOf(userId), ...)} and the session
+ * registry is keyed by user ID.
+ */
+public class WebSocketAuthenticationToken extends UsernamePasswordAuthenticationToken {
+
+    private final Long userId;
+
+    public WebSocketAuthenticationToken(User user) {
+        super(user, null, user.getAuthorities());
+        this.userId = user.getId();
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    @Override
+    public String getName() {
+        return String.valueOf(userId);
+    }
+}
@@ -7,6 +7,7 @@ import com.example.QucikTurn.Entity.User;
 import com.example.QucikTurn.Entity.enums.AccountStatus;
 import com.example.QucikTurn.Entity.enums.ProjectStatus;
 import com.example.QucikTurn.Repository.*;
+import com.example.QucikTurn.Security.TokenAuthenticationCache;
 import com.example.QucikTurn.dto.DeleteAccountRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -54,6 +55,10 @@ public class AccountDeletionService {
     private final ReviewRepository reviewRepository;
     private final AzureBlobService azureBlobService;
     private final MongoTemplate mongoTemplate;
+    private final ProjectSpatialIndex spatialIndex;
+    private final ProjectSkillIndex skillIndex;
+    private final ChatPermissionService chatPermissionService;
+    private final TokenAuthenticationCache authCache;
 
     public AccountDeletionService(
             UserRepository userRepository,
@@ -63,7 +68,11 @@ public class AccountDeletionService {
             ContractRepository contractRepository,
             ReviewRepository reviewRepository,
             AzureBlobService azureBlobService,
-            MongoTemplate mongoTemplate) {
+            MongoTemplate mongoTemplate,
+            ProjectSpatialIndex spatialIndex,
+            ProjectSkillIndex skillIndex,
+            ChatPermissionService chatPermissionService,
+            TokenAuthenticationCache authCache) {
         this.userRepository = userRepository;
         this.projectRepository = projectRepository;
         this.applicationRepository = applicationRepository;
@@ -72,6 +81,10 @@ public class AccountDeletionService {
         this.reviewRepository = reviewRepository;
         this.azureBlobService = azureBlobService;
         this.mongoTemplate = mongoTemplate;
+        this.spatialIndex = spatialIndex;
+        this.skillIndex = skillIndex;
+        this.chatPermissionService = chatPermissionService;
+        this.authCache = authCache;
     }
 
     /**
@@ -106,6 +119,7 @@ public class AccountDeletionService {
 
             // Step 5: Handle applications - anonymize for completed projects, delete others
             handleUserApplications(userId);
+            chatPermissionService.evictUser(userId);
 
             // Step 6: Handle contracts - anonymize completed, delete active
             handleUserContracts(userId);
@@ -215,6 +229,8 @@ public class AccountDeletionService {
 
                 // Then delete the project
                 projectRepository.delete(project);
+                spatialIndex.evict(project.getId());
+                skillIndex.evict(project.getId());
             }
         }
     }
@@ -314,6 +330,7 @@ public class AccountDeletionService {
         user.setActive(false);
 
         userRepository.save(user);
+        authCache.evictUser(user.getId());
         log.info("User ID: {} anonymized and marked as DELETED", user.getId());
     }
 
@@ -34,6 +34,9 @@ public class ApplicationService {
     private final ContractRepository contractRepo;
     private final ActivityService activityService;
     private final NotificationService notificationService;
+    private final ProjectSpatialIndex spatialIndex;
+    private final ProjectSkillIndex skillIndex;
+    private final ChatPermissionService chatPermissionService;
 
     public ApplicationService(
             ApplicationRepository applicationRepo,
@@ -41,13 +44,19 @@ public class ApplicationService {
             UserRepository userRepo,
             ContractRepository contractRepo,
             ActivityService activityService,
-            NotificationService notificationService) {
+            NotificationService notificationService,
+            ProjectSpatialIndex spatialIndex,
+            ProjectSkillIndex skillIndex,
+            ChatPermissionService chatPermissionService) {
         this.applicationRepo = applicationRepo;
         this.projectRepo = projectRepo;
         this.userRepo = userRepo;
         this.contractRepo = contractRepo;
         this.activityService = activityService;
         this.notificationService = notificationService;
+        this.spatialIndex = spatialIndex;
+        this.skillIndex = skillIndex;
+        this.chatPermissionService = chatPermissionService;
     }
 
     // --- LOGIC MAHASISWA APPLY ---
@@ -80,6 +89,7 @@ public class ApplicationService {
             // Increment applicant count for social proof
             project.incrementApplicantCount();
             projectRepo.save(project);
+            skillIndex.upsert(project);
 
             // Log activity for student
             activityService.logActivity(student, ActivityService.TYPE_APPLIED,
@@ -164,7 +174,10 @@ public class ApplicationService {
 
         project.setStatus(ProjectStatus.ONGOING);
         projectRepo.save(project);
+        spatialIndex.evict(projectId);
+        skillIndex.evict(projectId);
         applicationRepo.saveAll(allApps);
+        chatPermissionService.evict(ownerId, acceptedApp.getStudent().getId());
 
         // GENERATE DIGITAL CONTRACT
         String contractText = generateContractText(project, acceptedApp);
@@ -205,6 +218,7 @@ public class ApplicationService {
 
         app.setStatus(ApplicationStatus.REJECTED);
         applicationRepo.save(app);
+        chatPermissionService.evict(ownerId, app.getStudent().getId());
 
         // Log for student
         activityService.logActivity(app.getStudent(), ActivityService.TYPE_REJECTED,
@@ -6,6 +6,7 @@ import com.example.QucikTurn.Entity.enums.Role;
 import com.example.QucikTurn.Repository.PasswordResetTokenRepository;
 import com.example.QucikTurn.Repository.UserRepository;
 import com.example.QucikTurn.Security.JwtService;
+import com.example.QucikTurn.Security.TokenAuthenticationCache;
 import com.example.QucikTurn.dto.auth.AuthResponse;
 import com.example.QucikTurn.dto.auth.ForgotPasswordRequest;
 import com.example.QucikTurn.dto.auth.LoginRequest;
@@ -39,6 +40,7 @@ public class AuthService {
     private final JwtService jwtService;
     private final UserService userService;
     private final EmailVerificationService emailVerificationService;
+    private final TokenAuthenticationCache authCache;
 
     @Value("${spring.security.oauth2.client.registration.google.client-id}")
     private String googleClientId;
@@ -50,7 +52,8 @@ public class AuthService {
             AuthenticationManager authenticationManager,
             JwtService jwtService,
             UserService userService,
-            EmailVerificationService emailVerificationService) {
+            EmailVerificationService emailVerificationService,
+            TokenAuthenticationCache authCache) {
         this.userRepository = userRepository;
         this.tokenRepo = tokenRepo;
         this.emailService = emailService;
@@ -59,6 +62,7 @@ public class AuthService {
         this.jwtService = jwtService;
         this.userService = userService;
         this.emailVerificationService = emailVerificationService;
+        this.authCache = authCache;
     }
 
     // -------- REGISTER --------
@@ -199,6 +203,7 @@ public class AuthService {
         User user = token.getUser();
         user.setPasswordHash(passwordEncoder.encode(req.getNewPassword()));
         userRepository.save(user);
+        authCache.evictUser(user.getId());
 
         tokenRepo.delete(token);
     }
@@ -242,6 +247,7 @@ public class AuthService {
 
         user.setRole(selectedRole);
         userRepository.save(user);
+        authCache.evictUser(user.getId());
 
         log.info("User {} selected role: {}", maskEmail(email), selectedRole.name());
 
@@ -0,0 +1,97 @@
+package com.example.QucikTurn.Service;
+
+import com.example.QucikTurn.Entity.enums.ApplicationStatus;
+import com.example.QucikTurn.Entity.mongo.Conversation;
+import com.example.QucikTurn.Repository.ApplicationRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Decides whether two users may chat: they need an active contract, i.e. an
+ * APPROVED application of one of them to a project owned by the other.
+ *
+ * The check runs on every chat message and history call, so the answer per
+ * user pair is cached (Caffeine, see {@code app.chat.permission-cache.spec})
+ * and evicted when an application is accepted or rejected or a user deletes
+ * their account.
+ */
+@Service
+public class ChatPermissionService {
+
+    private final ApplicationRepository applicationRepo;
+    private final Cache<String, Boolean> permissionCache; // null when disabled
+
+    public ChatPermissionService(ApplicationRepository applicationRepo,
+            @Value("${app.chat.permission-cache.spec:maximumSize=10000,expireAfterWrite=300s}") String cacheSpec) {
+        this.applicationRepo = applicationRepo;
+        this.permissionCache = cacheSpec == null || cacheSpec.isBlank()
+                ? null
+                : Caffeine.from(cacheSpec).build();
+    }
+
+    /**
+     * Whether the two users have an active contract (in either direction).
+     */
+    public boolean hasActiveContract(Long userId1, Long userId2) {
+        if (userId1 == null || userId2 == null) {
+            return false;
+        }
+        if (permissionCache == null) {
+            return load(userId1, userId2);
+        }
+        return permissionCache.get(Conversation.idFor(userId1, userId2), key -> load(userId1, userId2));
+    }
+
+    /**
+     * Forget the cached answer for a user pair, now and again once the surrounding
+     * transaction commits (so a concurrent check cannot re-cache the old state).
+     */
+    public void evict(Long userId1, Long userId2) {
+        if (permissionCache == null || userId1 == null || userId2 == null) {
+            return;
+        }
+        String key = Conversation.idFor(userId1, userId2);
+        permissionCache.invalidate(key);
+        afterCommit(() -> permissionCache.invalidate(key));
+    }
+
+    /**
+     * Forget every cached answer involving the user.
+     */
+    public void evictUser(Long userId) {
+        if (permissionCache == null || userId == null) {
+            return;
+        }
+        Runnable eviction = () -> permissionCache.asMap().keySet().removeIf(key -> involves(key, userId));
+        eviction.run();
+        afterCommit(eviction);
+    }
+
+    private boolean load(Long userId1, Long userId2) {
+        return applicationRepo.existsContractBetween(userId1, userId2, ApplicationStatus.APPROVED);
+    }
+
+    private static boolean involves(String pairKey, Long userId) {
+        String id = String.valueOf(userId);
+        return pairKey.startsWith(id + "_") || pairKey.endsWith("_" + id);
+    }
+
+    /**
+     * Run the action after the surrounding transaction commits; nothing to do if
+     * there is none (the immediate eviction already happened).
+     */
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.example.QucikTurn.Service;
+
+import com.example.QucikTurn.Entity.mongo.ChatMessage;
+import com.example.QucikTurn.dto.ChatMessageDTO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind persistence for chat messages sent over WebSocket.
+ *
+ * <p>
+ * {@link #submit} only enqueues an already validated message (see
+ * {@link ChatService#prepareMessage}), so the caller can broadcast it right
+ * away. A single writer thread drains the bounded queue in batches, inserts
+ * each batch into chat_messages with one insertMany, then hands it to
+ * {@link ChatService#recordSaved} for conversation summaries (notifications
+ * are created on a thread of their own). One writer draining a FIFO queue
+ * keeps every conversation in send order.
+ * </p>
+ *
+ * <p>
+ * A full queue rejects the message (the sender gets an error instead of a
+ * broadcast). Messages that cannot be persisted are reported to their sender on
+ * /user/queue/errors with the message ID.
+ * </p>
+ */
+@Component
+public class ChatPersistencePipeline {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChatPersistencePipeline.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final ChatService chatService;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final BlockingQueue<ChatMessage> queue;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public ChatPersistencePipeline(MongoTemplate mongoTemplate, ChatService chatService,
+            SimpMessagingTemplate messagingTemplate,
+            @Value("${app.chat.persistence.async:true}") boolean enabled,
+            @Value("${app.chat.persistence.queue-capacity:10000}") int queueCapacity,
+            @Value("${app.chat.persistence.batch-size:500}") int batchSize,
+            @Value("${app.chat.persistence.flush-interval-ms:20}") long flushIntervalMs) {
+        this.mongoTemplate = mongoTemplate;
+        this.chatService = chatService;
+        this.messagingTemplate = messagingTemplate;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            logger.info("Async chat persistence disabled, messages are saved on the sending thread");
+            return;
+        }
+        running = true;
+        writer = new Thread(this::runWriter, "chat-persistence-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Stop the writer thread and persist whatever is still queued.
+     */
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (writer != null) {
+            writer.interrupt();
+            try {
+                writer.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        while (drainOnce() > 0) {
+            // flush the remainder on the shutdown thread
+        }
+    }
+
+    /**
+     * Queue a prepared message for persistence.
+     *
+     * @throws RuntimeException if the queue is full (backpressure)
+     */
+    public void submit(ChatMessage message) {
+        if (!enabled) {
+            persist(List.of(message));
+            return;
+        }
+        if (!queue.offer(message)) {
+            throw new RuntimeException("Server chat sedang sibuk, pesan tidak terkirim. Silakan coba lagi.");
+        }
+    }
+
+    /** Messages waiting to be written. */
+    public int queueDepth() {
+        return queue.size();
+    }
+
+    /** Free queue slots before submit starts rejecting messages. */
+    public int remainingCapacity() {
+        return queue.remainingCapacity();
+    }
+
+    /**
+     * Write up to one batch of queued messages.
+     *
+     * @return number of messages taken from the queue
+     */
+    int drainOnce() {
+        List<ChatMessage> batch = new ArrayList<>(Math.min(batchSize, queue.size()));
+        queue.drainTo(batch, batchSize);
+        if (!batch.isEmpty()) {
+            persist(batch);
+        }
+        return batch.size();
+    }
+
+    private void runWriter() {
+        while (running) {
+            ChatMessage first;
+            try {
+                first = queue.poll(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                continue; // stop() interrupts; the loop condition decides
+            }
+            if (first == null) {
+                continue;
+            }
+            // Give concurrent senders a moment to fill the batch.
+            if (queue.size() < batchSize - 1 && flushIntervalMs > 0) {
+                try {
+                    Thread.sleep(flushIntervalMs);
+                } catch (InterruptedException e) {
+                    // shutting down: write what we have now
+                }
+            }
+            List<ChatMessage> batch = new ArrayList<>();
+            batch.add(first);
+            queue.drainTo(batch, batchSize - 1);
+            try {
+                persist(batch);
+            } catch (Exception e) {
+                logger.error("Chat persistence writer error: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    private void persist(List<ChatMessage> batch) {
+        List<ChatMessage> saved;
+        try {
+            mongoTemplate.insert(batch, ChatMessage.class);
+            saved = batch;
+        } catch (Exception e) {
+            logger.warn("Batch insert of {} chat messages failed, retrying one by one: {}", batch.size(),
+                    e.getMessage());
+            saved = persistOneByOne(batch);
+        }
+        try {
+            chatService.recordSaved(saved);
+        } catch (Exception e) {
+            logger.error("Failed to update conversations for {} chat messages: {}", saved.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Fallback after a failed insertMany: part of the batch may already be stored,
+     * so save by ID (idempotent) and report only the messages that still fail.
+     */
+    private List<ChatMessage> persistOneByOne(List<ChatMessage> batch) {
+        List<ChatMessage> saved = new ArrayList<>(batch.size());
+        for (ChatMessage msg : batch) {
+            try {
+                mongoTemplate.save(msg);
+                saved.add(msg);
+            } catch (Exception e) {
+                logger.error("Failed to persist chat message {}: {}", msg.getId(), e.getMessage());
+                reportFailure(msg);
+            }
+        }
+        return saved;
+    }
+
+    private void reportFailure(ChatMessage msg) {
+        ChatMessageDTO errorDTO = new ChatMessageDTO();
+        errorDTO.setId(msg.getId());
+        errorDTO.setContent("Error: Pesan gagal disimpan, silakan kirim ulang.");
+        errorDTO.setSenderId(0L); // System message
+        errorDTO.setRecipientId(msg.getSenderId());
+        messagingTemplate.convertAndSendToUser(String.valueOf(msg.getSenderId()), "/queue/errors", errorDTO);
+    }
+}
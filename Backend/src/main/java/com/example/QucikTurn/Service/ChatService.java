@@ -2,54 +2,110 @@ package com.example.QucikTurn.Service;
 
 import com.example.QucikTurn.Entity.User;
 import com.example.QucikTurn.Entity.mongo.ChatMessage;
-import com.example.QucikTurn.Repository.ApplicationRepository;
+import com.example.QucikTurn.Entity.mongo.Conversation;
 import com.example.QucikTurn.Repository.ChatMessageRepository;
+import com.example.QucikTurn.Repository.ConversationRepository;
 import com.example.QucikTurn.Repository.UserRepository;
 import com.example.QucikTurn.dto.ChatResponseDTO;
+import com.example.QucikTurn.dto.CursorPage;
+import com.example.QucikTurn.util.CursorCodec;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class ChatService {
 
+    private static final Logger logger = LoggerFactory.getLogger(ChatService.class);
+
+    /** Default and maximum page sizes for the cursor-based chat history. */
+    public static final int DEFAULT_HISTORY_PAGE_SIZE = 50;
+    public static final int MAX_HISTORY_PAGE_SIZE = 100;
+
     @Autowired
     private ChatMessageRepository chatMessageRepository;
     @Autowired
     private UserRepository userRepository;
     @Autowired
-    private ApplicationRepository applicationRepository;
+    private ChatPermissionService chatPermissionService;
     @Autowired
     private NotificationService notificationService;
+    @Autowired
+    private ConversationRepository conversationRepository;
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Value("${app.chat.notifications.queue-capacity:10000}")
+    private int notificationQueueCapacity;
+
+    /** Creates new-message notifications in order; null = on the calling thread. */
+    private ThreadPoolExecutor notificationExecutor;
+
+    @PostConstruct
+    public void startNotifications() {
+        notificationExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(Math.max(1, notificationQueueCapacity)), task -> {
+                    Thread thread = new Thread(task, "chat-notifications");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
 
     /**
-     * Save a chat message after validating contract permission
+     * Create the notifications still queued, then stop.
      */
-    public ChatMessage saveMessage(Long senderId, Long recipientId, String content) {
-        validateChatPermission(senderId, recipientId);
-
-        ChatMessage chat = new ChatMessage(senderId, recipientId, content);
-        ChatMessage saved = chatMessageRepository.save(chat);
-
+    @PreDestroy
+    public void stopNotifications() {
+        if (notificationExecutor == null) {
+            return;
+        }
+        notificationExecutor.shutdown();
         try {
-            User sender = userRepository.findById(senderId).orElse(null);
-            User recipient = userRepository.findById(recipientId).orElse(null);
-            if (sender != null && recipient != null) {
-                notificationService.notifyNewMessage(recipient, sender.getNama(), content, senderId);
-            }
-        } catch (Exception e) {
-            System.err.println("Gagal mengirim push notification chat: " + e.getMessage());
+            notificationExecutor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
+    }
 
-        return saved;
+    /**
+     * Save a chat message after validating contract permission
+     */
+    public ChatMessage saveMessage(Long senderId, Long recipientId, String content) {
+        return saveMessageWithAttachment(senderId, recipientId, content, null, null, null, null);
     }
 
     /**
@@ -58,29 +114,91 @@ public class ChatService {
     public ChatMessage saveMessageWithAttachment(Long senderId, Long recipientId, String content,
             String attachmentUrl, String attachmentType,
             String originalFilename, Long fileSize) {
+        ChatMessage chat = prepareMessage(senderId, recipientId, content,
+                attachmentUrl, attachmentType, originalFilename, fileSize);
+        ChatMessage saved = chatMessageRepository.insert(chat);
+        recordSaved(List.of(saved));
+        return saved;
+    }
+
+    /**
+     * Validate contract permission and build a message ready to broadcast. The ID
+     * is assigned here so the message can be shown to both users before it is
+     * persisted (see ChatPersistencePipeline).
+     */
+    public ChatMessage prepareMessage(Long senderId, Long recipientId, String content,
+            String attachmentUrl, String attachmentType,
+            String originalFilename, Long fileSize) {
         validateChatPermission(senderId, recipientId);
 
         ChatMessage chat = new ChatMessage(senderId, recipientId, content);
+        chat.setId(new ObjectId().toHexString());
         chat.setAttachmentUrl(attachmentUrl);
         chat.setAttachmentType(attachmentType);
         chat.setOriginalFilename(originalFilename);
         chat.setFileSize(fileSize);
-        ChatMessage saved = chatMessageRepository.save(chat);
+        return chat;
+    }
+
+    /**
+     * Follow-up work for persisted messages, in message order: conversation
+     * summaries in one ordered bulk write, then notifications to the
+     * recipients. The notifications (MySQL writes) are handed to their own
+     * thread, so a slow MySQL never holds up the chat persistence writer.
+     */
+    public void recordSaved(List<ChatMessage> saved) {
+        if (saved.isEmpty()) {
+            return;
+        }
+        updateConversations(saved);
+
+        List<ChatMessage> batch = List.copyOf(saved);
+        if (notificationExecutor == null) {
+            notifyRecipients(batch);
+            return;
+        }
+        try {
+            notificationExecutor.execute(() -> notifyRecipients(batch));
+        } catch (RejectedExecutionException e) {
+            logger.warn("Chat notification queue full, no notifications for {} messages", batch.size());
+        }
+    }
 
+    /**
+     * One notification per message (users loaded in one query); a failure only
+     * costs that message its notification.
+     */
+    private void notifyRecipients(List<ChatMessage> saved) {
+        Map<Long, User> users;
         try {
-            User sender = userRepository.findById(senderId).orElse(null);
-            User recipient = userRepository.findById(recipientId).orElse(null);
-            if (sender != null && recipient != null) {
-                String notificationContent = (content == null || content.isEmpty()) 
-                        ? "Mengirim lampiran: " + originalFilename 
-                        : content;
-                notificationService.notifyNewMessage(recipient, sender.getNama(), notificationContent, senderId);
+            Set<Long> userIds = new HashSet<>();
+            for (ChatMessage msg : saved) {
+                userIds.add(msg.getSenderId());
+                userIds.add(msg.getRecipientId());
             }
+            users = userRepository.findAllById(userIds).stream()
+                    .collect(Collectors.toMap(User::getId, user -> user));
         } catch (Exception e) {
-            System.err.println("Gagal mengirim push notification chat: " + e.getMessage());
+            logger.error("Failed to load users to notify of {} chat messages: {}", saved.size(), e.getMessage());
+            return;
+        }
+        for (ChatMessage msg : saved) {
+            User sender = users.get(msg.getSenderId());
+            User recipient = users.get(msg.getRecipientId());
+            if (sender == null || recipient == null) {
+                continue;
+            }
+            String notificationContent = (msg.getContent() == null || msg.getContent().isEmpty())
+                    ? "Mengirim lampiran: " + msg.getOriginalFilename()
+                    : msg.getContent();
+            try {
+                notificationService.notifyNewMessage(recipient, sender.getNama(), notificationContent,
+                        msg.getSenderId());
+            } catch (Exception e) {
+                logger.error("Failed to notify user {} of chat message {}: {}", msg.getRecipientId(), msg.getId(),
+                        e.getMessage());
+            }
         }
-
-        return saved;
     }
 
     /**
@@ -89,7 +207,8 @@ public class ChatService {
     public List<ChatResponseDTO> getChatHistory(Long userId1, Long userId2) {
         validateChatPermission(userId1, userId2);
 
-        List<ChatMessage> chats = chatMessageRepository.findChatBetweenUsers(userId1, userId2);
+        List<ChatMessage> chats = chatMessageRepository
+                .findByConversationIdOrderByTimestampAsc(Conversation.idFor(userId1, userId2));
         return mapToResponseDTO(chats, userId1, userId2);
     }
 
@@ -100,7 +219,8 @@ public class ChatService {
         validateChatPermission(userId1, userId2);
 
         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "timestamp"));
-        Page<ChatMessage> chatPage = chatMessageRepository.findChatBetweenUsersPaged(userId1, userId2, pageable);
+        Page<ChatMessage> chatPage = chatMessageRepository
+                .findByConversationId(Conversation.idFor(userId1, userId2), pageable);
 
         // Get user names once
         Map<Long, String> userNames = getUserNames(userId1, userId2);
@@ -114,19 +234,113 @@ public class ChatService {
     }
 
     /**
-     * Mark all messages from a sender as read for the recipient
+     * Get chat history between two users one page at a time, newest first.
+     * Keyset-paginated on (timestamp, id): each page is one indexed range scan
+     * and no count query is run, however long the conversation is.
+     *
+     * @param limit  page size (capped at {@value #MAX_HISTORY_PAGE_SIZE})
+     * @param cursor {@code nextCursor} of the previous page, or null for the
+     *               newest messages
      */
-    public void markMessagesAsRead(Long recipientId, Long senderId) {
-        List<ChatMessage> unreadMessages = chatMessageRepository
-                .findByRecipientIdAndSenderIdAndIsReadFalse(recipientId, senderId);
+    public CursorPage<ChatResponseDTO> getChatHistoryBefore(Long userId1, Long userId2, int limit, String cursor) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+        int pageSize = Math.min(limit, MAX_HISTORY_PAGE_SIZE);
+        validateChatPermission(userId1, userId2);
 
-        for (ChatMessage msg : unreadMessages) {
-            msg.setRead(true);
+        String conversationId = Conversation.idFor(userId1, userId2);
+        // Fetch one extra message to know whether older ones exist.
+        Pageable pageable = PageRequest.of(0, pageSize + 1);
+        List<ChatMessage> chats;
+        if (cursor == null || cursor.isBlank()) {
+            chats = chatMessageRepository.findLatestInConversation(conversationId, pageable);
+        } else {
+            String[] parts = CursorCodec.decode(cursor, 2);
+            LocalDateTime beforeTimestamp;
+            try {
+                beforeTimestamp = LocalDateTime.parse(parts[0]);
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            if (!ObjectId.isValid(parts[1])) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            chats = chatMessageRepository.findInConversationBefore(conversationId, beforeTimestamp,
+                    new ObjectId(parts[1]), pageable);
+        }
+
+        boolean hasMore = chats.size() > pageSize;
+        if (hasMore) {
+            chats = chats.subList(0, pageSize);
         }
+        List<ChatResponseDTO> items = mapToResponseDTO(chats, userId1, userId2);
+        if (!hasMore) {
+            return CursorPage.last(items);
+        }
+        ChatMessage oldest = chats.get(chats.size() - 1);
+        return new CursorPage<>(items, CursorCodec.encode(oldest.getTimestamp(), oldest.getId()), true);
+    }
+
+    /**
+     * Mark all messages from a sender as read for the recipient
+     *
+     * @return number of messages marked as read
+     */
+    public long markMessagesAsRead(Long recipientId, Long senderId) {
+        return markMessagesAsRead(recipientId, senderId, null);
+    }
 
-        if (!unreadMessages.isEmpty()) {
-            chatMessageRepository.saveAll(unreadMessages);
+    /**
+     * Mark messages from a sender as read for the recipient with one server-side
+     * multi-update, then push the conversation's remaining unread count to the
+     * recipient over /user/queue/messages. The counter is set from a count of
+     * the messages still unread rather than adjusted, so it cannot drift when a
+     * message is persisted (write-behind) while it is being read.
+     *
+     * @param upToMessageId if set, only messages up to and including this one
+     *                      are marked (read receipts); null marks all
+     * @return number of messages marked as read
+     */
+    public long markMessagesAsRead(Long recipientId, Long senderId, String upToMessageId) {
+        Criteria criteria = Criteria.where("recipientId").is(recipientId)
+                .and("senderId").is(senderId)
+                .and("isRead").is(false);
+        if (upToMessageId != null) {
+            if (!ObjectId.isValid(upToMessageId)) {
+                throw new IllegalArgumentException("Invalid message id");
+            }
+            criteria = criteria.and("_id").lte(new ObjectId(upToMessageId));
+        }
+        long marked = mongoTemplate.updateMulti(new Query(criteria), new Update().set("isRead", true),
+                ChatMessage.class).getModifiedCount();
+        if (marked == 0) {
+            return 0;
         }
+
+        Conversation conversation = recountUnread(recipientId, senderId);
+        messagingTemplate.convertAndSendToUser(String.valueOf(recipientId), "/queue/messages", Map.of(
+                "type", "UNREAD_COUNT",
+                "senderId", senderId,
+                "unreadCount", conversation == null ? 0L : conversation.unreadCountFor(recipientId)));
+        return marked;
+    }
+
+    /**
+     * Set the recipient's counter on the conversation summary to the number of
+     * messages from the sender that are actually unread.
+     *
+     * @return the updated summary, or null if there is none
+     */
+    private Conversation recountUnread(Long recipientId, Long senderId) {
+        long unread = mongoTemplate.count(new Query(Criteria.where("recipientId").is(recipientId)
+                .and("senderId").is(senderId)
+                .and("isRead").is(false)), ChatMessage.class);
+        return mongoTemplate.findAndModify(
+                new Query(Criteria.where("_id").is(Conversation.idFor(recipientId, senderId))),
+                new Update().set("unreadCounts." + recipientId, unread),
+                FindAndModifyOptions.options().returnNew(true),
+                Conversation.class);
     }
 
     /**
@@ -147,21 +361,7 @@ public class ChatService {
      * Validate that two users have an active contract (APPROVED application)
      */
     public boolean hasActiveContract(Long userId1, Long userId2) {
-        // Check if userId1 is student with approved app to userId2's project
-        boolean hasContract = applicationRepository.findByStudentId(userId1)
-                .stream()
-                .anyMatch(app -> app.getStatus().name().equals("APPROVED") &&
-                        app.getProject().getOwner().getId().equals(userId2));
-
-        if (!hasContract) {
-            // Check reverse: userId2 is student with approved app to userId1's project
-            hasContract = applicationRepository.findByStudentId(userId2)
-                    .stream()
-                    .anyMatch(app -> app.getStatus().name().equals("APPROVED") &&
-                            app.getProject().getOwner().getId().equals(userId1));
-        }
-
-        return hasContract;
+        return chatPermissionService.hasActiveContract(userId1, userId2);
     }
 
     /**
@@ -169,15 +369,138 @@ public class ChatService {
      * Used for sorting contacts by most recent conversation
      */
     public java.time.LocalDateTime getLastMessageTime(Long userId1, Long userId2) {
-        List<ChatMessage> messages = chatMessageRepository.findLatestMessageBetweenUsers(userId1, userId2);
-        if (messages != null && !messages.isEmpty()) {
-            return messages.get(0).getTimestamp();
+        return conversationRepository.findById(Conversation.idFor(userId1, userId2))
+                .map(Conversation::getLastMessageAt)
+                .orElse(null);
+    }
+
+    /**
+     * Get the conversation summaries of a user in one query, keyed by the other
+     * participant's user ID
+     */
+    public Map<Long, Conversation> getConversationSummaries(Long userId) {
+        Map<Long, Conversation> summaries = new LinkedHashMap<>();
+        for (Conversation conversation : conversationRepository.findByParticipantsOrderByLastMessageAtDesc(userId)) {
+            summaries.put(conversation.otherParticipant(userId), conversation);
+        }
+        return summaries;
+    }
+
+    /**
+     * Rebuild every conversation summary from chat_messages.
+     * Used once to backfill the conversations collection for existing chats.
+     *
+     * @return number of conversations written
+     */
+    public int rebuildConversationSummaries() {
+        Map<String, Conversation> summaries = new HashMap<>();
+        Query query = new Query().with(Sort.by(Sort.Direction.ASC, "timestamp"));
+        try (Stream<ChatMessage> messages = mongoTemplate.stream(query, ChatMessage.class)) {
+            messages.forEach(msg -> {
+                if (msg.getSenderId() == null || msg.getRecipientId() == null) {
+                    return;
+                }
+                Conversation conversation = summaries.computeIfAbsent(
+                        Conversation.idFor(msg.getSenderId(), msg.getRecipientId()),
+                        id -> newConversation(msg.getSenderId(), msg.getRecipientId()));
+                conversation.setLastMessageSenderId(msg.getSenderId());
+                conversation.setLastMessagePreview(
+                        Conversation.previewOf(msg.getContent(), msg.getOriginalFilename()));
+                conversation.setLastMessageAt(msg.getTimestamp());
+                if (!msg.isRead()) {
+                    conversation.getUnreadCounts().merge(String.valueOf(msg.getRecipientId()), 1L, Long::sum);
+                }
+            });
+        }
+        conversationRepository.saveAll(summaries.values());
+        return summaries.size();
+    }
+
+    /**
+     * Set conversationId on chat messages saved before it existed.
+     * Used once on startup; one multi-update per user pair.
+     *
+     * @return number of messages updated
+     */
+    public long backfillConversationIds() {
+        Query missing = new Query(Criteria.where("conversationId").exists(false));
+        missing.fields().include("senderId", "recipientId");
+        Set<String> conversationIds = new HashSet<>();
+        try (Stream<ChatMessage> messages = mongoTemplate.stream(missing, ChatMessage.class)) {
+            messages.filter(msg -> msg.getSenderId() != null && msg.getRecipientId() != null)
+                    .forEach(msg -> conversationIds.add(Conversation.idFor(msg.getSenderId(), msg.getRecipientId())));
         }
-        return null;
+
+        long updated = 0;
+        for (String conversationId : conversationIds) {
+            String[] users = conversationId.split("_");
+            Long userId1 = Long.valueOf(users[0]);
+            Long userId2 = Long.valueOf(users[1]);
+            Query query = new Query(Criteria.where("conversationId").exists(false).orOperator(
+                    Criteria.where("senderId").is(userId1).and("recipientId").is(userId2),
+                    Criteria.where("senderId").is(userId2).and("recipientId").is(userId1)));
+            updated += mongoTemplate.updateMulti(query, new Update().set("conversationId", conversationId),
+                    ChatMessage.class).getModifiedCount();
+        }
+        return updated;
     }
 
     // -------- PRIVATE HELPER METHODS --------
 
+    /**
+     * Upsert the conversation summaries for saved messages: last message preview
+     * plus the recipient's unread counter, one atomic update per message sent as
+     * a single ordered bulk write.
+     *
+     * <p>
+     * A message can be marked as read between its insert and this increment;
+     * the counters of conversations with such a message are recounted.
+     * </p>
+     */
+    private void updateConversations(List<ChatMessage> saved) {
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.ORDERED, Conversation.class);
+        for (ChatMessage msg : saved) {
+            Long senderId = msg.getSenderId();
+            Long recipientId = msg.getRecipientId();
+            Update update = new Update()
+                    .setOnInsert("participants",
+                            List.of(Math.min(senderId, recipientId), Math.max(senderId, recipientId)))
+                    .setOnInsert("unreadCounts." + senderId, 0L)
+                    .set("lastMessageSenderId", senderId)
+                    .set("lastMessagePreview", Conversation.previewOf(msg.getContent(), msg.getOriginalFilename()))
+                    .set("lastMessageAt", msg.getTimestamp())
+                    .inc("unreadCounts." + recipientId, 1);
+            bulk.upsert(new Query(Criteria.where("_id").is(Conversation.idFor(senderId, recipientId))), update);
+        }
+        bulk.execute();
+
+        List<ObjectId> ids = saved.stream()
+                .map(ChatMessage::getId)
+                .filter(id -> id != null && ObjectId.isValid(id))
+                .map(ObjectId::new)
+                .toList();
+        if (ids.isEmpty()) {
+            return;
+        }
+        Query readMeanwhile = new Query(Criteria.where("_id").in(ids).and("isRead").is(true));
+        readMeanwhile.fields().include("senderId", "recipientId");
+        Set<String> recounted = new HashSet<>();
+        for (ChatMessage msg : mongoTemplate.find(readMeanwhile, ChatMessage.class)) {
+            if (recounted.add(msg.getRecipientId() + ">" + msg.getSenderId())) {
+                recountUnread(msg.getRecipientId(), msg.getSenderId());
+            }
+        }
+    }
+
+    private Conversation newConversation(Long userId1, Long userId2) {
+        Conversation conversation = new Conversation();
+        conversation.setId(Conversation.idFor(userId1, userId2));
+        conversation.setParticipants(List.of(Math.min(userId1, userId2), Math.max(userId1, userId2)));
+        conversation.getUnreadCounts().put(String.valueOf(userId1), 0L);
+        conversation.getUnreadCounts().put(String.valueOf(userId2), 0L);
+        return conversation;
+    }
+
     private void validateChatPermission(Long userId1, Long userId2) {
         if (!hasActiveContract(userId1, userId2)) {
             throw new RuntimeException("Tidak dapat mengakses chat: Tidak ada kontrak aktif antara kedua user");
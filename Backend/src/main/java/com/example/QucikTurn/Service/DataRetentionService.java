@@ -0,0 +1,191 @@
+package com.example.QucikTurn.Service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Scheduled purge of rows that are only kept for a while: read notifications
+ * (with their digest events), activities, and expired password reset and email
+ * verification tokens. Each table has its own policy under
+ * {@code app.retention.*}; a non-positive retention disables it.
+ *
+ * <p>
+ * Purgeable ids are selected in keyset chunks of {@code app.retention.chunk-size}
+ * and exactly those rows deleted, one short auto-committed statement per chunk
+ * with {@code app.retention.pause-ms} between them, so a large backlog never
+ * locks a big part of a table or holds one long transaction, and purgeable
+ * rows scattered over a wide id span cost no more than their own count. Rows purged and time taken per run are recorded as
+ * {@code retention.rows.purged} / {@code retention.run.duration} (tag
+ * {@code table}).
+ * </p>
+ */
+@Service
+public class DataRetentionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DataRetentionService.class);
+
+    /**
+     * Retention rule of one table. {@code condition} selects purgeable rows given
+     * {@code :cutoff}; {@code beforeDelete}, if set, removes dependent rows of
+     * the chunk's {@code :ids} first.
+     */
+    record Policy(String table, Duration keep, String condition, String beforeDelete) {
+    }
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int chunkSize;
+    private final long pauseMs;
+    private final List<Policy> policies;
+
+    public DataRetentionService(NamedParameterJdbcTemplate jdbc, MeterRegistry meterRegistry,
+            @Value("${app.retention.enabled:true}") boolean enabled,
+            @Value("${app.retention.chunk-size:1000}") int chunkSize,
+            @Value("${app.retention.pause-ms:200}") long pauseMs,
+            @Value("${app.retention.notifications.read-days:30}") int notificationReadDays,
+            @Value("${app.retention.activities.days:365}") int activityDays,
+            @Value("${app.retention.password-reset-tokens.expired-hours:24}") int passwordResetExpiredHours,
+            @Value("${app.retention.email-verification-tokens.expired-hours:24}") int emailVerificationExpiredHours) {
+        this.jdbc = jdbc;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.pauseMs = pauseMs;
+        this.policies = List.of(
+                new Policy("notifications", Duration.ofDays(notificationReadDays),
+                        "is_read = 1 AND read_at < :cutoff",
+                        "DELETE e FROM notification_events e JOIN notifications n ON n.id = e.notification_id "
+                                + "WHERE n.id IN (:ids) AND n.is_read = 1 AND n.read_at < :cutoff"),
+                new Policy("activities", Duration.ofDays(activityDays),
+                        "created_at < :cutoff", null),
+                new Policy("password_reset_token", Duration.ofHours(passwordResetExpiredHours),
+                        "code_expiry_date < :cutoff "
+                                + "AND (reset_token_expiry_date IS NULL OR reset_token_expiry_date < :cutoff)",
+                        null),
+                new Policy("email_verification_token", Duration.ofHours(emailVerificationExpiredHours),
+                        "expiry_date < :cutoff", null));
+    }
+
+    /**
+     * Nightly run (default 03:30).
+     */
+    @Scheduled(cron = "${app.retention.cron:0 30 3 * * *}")
+    public void scheduledPurge() {
+        if (enabled) {
+            purgeAll();
+        }
+    }
+
+    /**
+     * Apply every enabled policy once.
+     *
+     * @return rows purged per table
+     */
+    public Map<String, Long> purgeAll() {
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, Long> purged = new LinkedHashMap<>();
+        for (Policy policy : policies) {
+            if (policy.keep().isZero() || policy.keep().isNegative()) {
+                continue;
+            }
+            long started = System.nanoTime();
+            long rows;
+            try {
+                rows = purge(policy, now.minus(policy.keep()));
+            } catch (RuntimeException e) {
+                logger.error("Retention purge of {} failed: {}", policy.table(), e.getMessage());
+                continue;
+            }
+            purged.put(policy.table(), rows);
+            record(policy.table(), rows, Duration.ofNanos(System.nanoTime() - started));
+            if (rows > 0) {
+                logger.info("Retention purged {} rows from {}", rows, policy.table());
+            }
+            if (Thread.currentThread().isInterrupted()) {
+                break;
+            }
+        }
+        return purged;
+    }
+
+    /**
+     * Delete the policy's rows older than the cutoff, one chunk of ids at a
+     * time, until a chunk comes back empty.
+     */
+    long purge(Policy policy, LocalDateTime cutoff) {
+        String select = "SELECT id FROM " + policy.table()
+                + " WHERE (" + policy.condition() + ") AND id > :lastId ORDER BY id LIMIT :chunk";
+        // The condition is checked again in case a row changed since the select
+        String delete = "DELETE FROM " + policy.table()
+                + " WHERE id IN (:ids) AND (" + policy.condition() + ")";
+
+        long purged = 0;
+        long lastId = 0;
+        while (true) {
+            List<Long> ids = jdbc.queryForList(select, new MapSqlParameterSource()
+                    .addValue("cutoff", cutoff)
+                    .addValue("lastId", lastId)
+                    .addValue("chunk", chunkSize), Long.class);
+            if (ids.isEmpty()) {
+                break;
+            }
+            MapSqlParameterSource params = new MapSqlParameterSource()
+                    .addValue("cutoff", cutoff)
+                    .addValue("ids", ids);
+            if (policy.beforeDelete() != null) {
+                jdbc.update(policy.beforeDelete(), params);
+            }
+            purged += jdbc.update(delete, params);
+            lastId = ids.get(ids.size() - 1);
+            if (ids.size() < chunkSize || !pause()) {
+                break;
+            }
+        }
+        return purged;
+    }
+
+    /**
+     * @return false if interrupted (stop purging)
+     */
+    private boolean pause() {
+        if (pauseMs <= 0) {
+            return !Thread.currentThread().isInterrupted();
+        }
+        try {
+            Thread.sleep(pauseMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void record(String table, long rows, Duration duration) {
+        DistributionSummary.builder("retention.rows.purged")
+                .description("Rows deleted by one retention run")
+                .baseUnit("rows")
+                .tag("table", table)
+                .register(meterRegistry)
+                .record(rows);
+        Timer.builder("retention.run.duration")
+                .description("Time one retention run spent on a table")
+                .tag("table", table)
+                .register(meterRegistry)
+                .record(duration);
+    }
+}
@@ -3,25 +3,40 @@ package com.example.QucikTurn.Service;
 import com.example.QucikTurn.Entity.DeviceToken;
 import com.example.QucikTurn.Entity.User;
 import com.example.QucikTurn.Repository.DeviceTokenRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.Collection;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Manages FCM device-token persistence.
  * <p>
  * Each mobile device registers its FCM token after login so the backend can
  * later send push notifications via Firebase Cloud Messaging.
+ * <p>
+ * A user's tokens are cached (Caffeine, see
+ * {@code app.notifications.device-token-cache.spec}) so pushes do not query
+ * {@code device_tokens} each time; every change to a user's tokens evicts
+ * their entry.
  */
 @Service
 public class DeviceTokenService {
 
     private final DeviceTokenRepository repo;
+    private final Cache<Long, List<String>> cache; // null when disabled
 
-    public DeviceTokenService(DeviceTokenRepository repo) {
+    public DeviceTokenService(DeviceTokenRepository repo,
+            @Value("${app.notifications.device-token-cache.spec:maximumSize=10000,expireAfterWrite=600s}") String cacheSpec) {
         this.repo = repo;
+        this.cache = cacheSpec == null || cacheSpec.isBlank()
+                ? null
+                : Caffeine.from(cacheSpec).build();
     }
 
     /**
@@ -35,7 +50,10 @@ public class DeviceTokenService {
         repo.findByUserIdAndToken(user.getId(), token)
                 .ifPresentOrElse(
                         existing -> { /* already stored – nothing to do */ },
-                        () -> repo.save(new DeviceToken(user, token))
+                        () -> {
+                            repo.save(new DeviceToken(user, token));
+                            evict(user.getId());
+                        }
                 );
     }
 
@@ -44,10 +62,10 @@ public class DeviceTokenService {
      * every device the user owns.
      */
     public List<String> getTokensForUser(Long userId) {
-        return repo.findByUserId(userId)
-                .stream()
-                .map(DeviceToken::getToken)
-                .collect(Collectors.toList());
+        if (cache == null) {
+            return load(userId);
+        }
+        return cache.get(userId, this::load);
     }
 
     /**
@@ -56,5 +74,42 @@ public class DeviceTokenService {
     @Transactional
     public void removeAllTokens(Long userId) {
         repo.deleteByUserId(userId);
+        evict(userId);
+    }
+
+    /**
+     * Remove tokens FCM reported as unregistered or invalid.
+     */
+    @Transactional
+    public void removeTokens(Long userId, Collection<String> tokens) {
+        if (tokens == null || tokens.isEmpty()) return;
+
+        repo.deleteByUserIdAndTokenIn(userId, tokens);
+        evict(userId);
+    }
+
+    private List<String> load(Long userId) {
+        return repo.findByUserId(userId)
+                .stream()
+                .map(DeviceToken::getToken)
+                .toList();
+    }
+
+    /**
+     * Forget the user's cached tokens now and again once the surrounding
+     * transaction commits (so a concurrent push cannot re-cache the old list).
+     */
+    private void evict(Long userId) {
+        if (cache == null) return;
+
+        cache.invalidate(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(userId);
+                }
+            });
+        }
     }
 }
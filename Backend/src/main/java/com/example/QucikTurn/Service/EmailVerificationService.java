@@ -4,6 +4,7 @@ import com.example.QucikTurn.Entity.EmailVerificationToken;
 import com.example.QucikTurn.Entity.User;
 import com.example.QucikTurn.Repository.EmailVerificationTokenRepository;
 import com.example.QucikTurn.Repository.UserRepository;
+import com.example.QucikTurn.Security.TokenAuthenticationCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -30,16 +31,19 @@ public class EmailVerificationService {
     private final UserRepository userRepository;
     private final EmailService emailService;
     private final String frontendUrl;
+    private final TokenAuthenticationCache authCache;
 
     public EmailVerificationService(
             EmailVerificationTokenRepository tokenRepository,
             UserRepository userRepository,
             EmailService emailService,
-            @Value("${app.frontend.url}") String frontendUrl) {
+            @Value("${app.frontend.url}") String frontendUrl,
+            TokenAuthenticationCache authCache) {
         this.tokenRepository = tokenRepository;
         this.userRepository = userRepository;
         this.emailService = emailService;
         this.frontendUrl = frontendUrl;
+        this.authCache = authCache;
     }
 
     /**
@@ -100,6 +104,7 @@ public class EmailVerificationService {
         // Mark user as verified
         user.setEmailVerified(true);
         userRepository.save(user);
+        authCache.evictUser(user.getId());
 
         log.info("Email verified for user: {}", maskEmail(user.getEmail()));
 
@@ -131,6 +136,7 @@ public class EmailVerificationService {
         User user = verificationToken.getUser();
         user.setEmailVerified(true);
         userRepository.save(user);
+        authCache.evictUser(user.getId());
 
         log.info("Email verified for user: {}", maskEmail(user.getEmail()));
 
@@ -0,0 +1,110 @@
+package com.example.QucikTurn.Service;
+
+import com.example.QucikTurn.Config.FirebaseConfig;
+import com.google.api.core.ApiFuture;
+import com.google.firebase.messaging.BatchResponse;
+import com.google.firebase.messaging.FirebaseMessaging;
+import com.google.firebase.messaging.MessagingErrorCode;
+import com.google.firebase.messaging.MulticastMessage;
+import com.google.firebase.messaging.Notification;
+import com.google.firebase.messaging.SendResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * {@link PushNotificationSender} backed by FCM {@code sendEachForMulticastAsync}.
+ * FCM has no batch endpoint any more, so this is still one HTTP request per
+ * device token; they run on the Firebase app's own threads and the caller only
+ * gets a future. Per-token results are inspected so tokens FCM no longer
+ * accepts can be pruned.
+ */
+@Component
+public class FcmPushNotificationSender implements PushNotificationSender {
+
+    private static final Logger logger = LoggerFactory.getLogger(FcmPushNotificationSender.class);
+
+    private final FirebaseConfig firebaseConfig;
+
+    public FcmPushNotificationSender(FirebaseConfig firebaseConfig) {
+        this.firebaseConfig = firebaseConfig;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return firebaseConfig.isFirebaseEnabled();
+    }
+
+    @Override
+    public CompletableFuture<SendResult> send(List<String> tokens, PushMessage message) {
+        if (tokens.isEmpty()) {
+            return CompletableFuture.completedFuture(SendResult.NONE);
+        }
+        if (tokens.size() > MAX_TOKENS_PER_BATCH) {
+            throw new IllegalArgumentException("At most " + MAX_TOKENS_PER_BATCH + " tokens per batch");
+        }
+        MulticastMessage multicast = MulticastMessage.builder()
+                .addAllTokens(tokens)
+                .setNotification(Notification.builder()
+                        .setTitle(message.title())
+                        .setBody(message.body())
+                        .build())
+                .putAllData(message.data())
+                .build();
+        List<String> batch = List.copyOf(tokens);
+        CompletableFuture<SendResult> result = new CompletableFuture<>();
+        ApiFuture<BatchResponse> future = FirebaseMessaging.getInstance().sendEachForMulticastAsync(multicast);
+        // Runs on the Firebase thread that completed the future
+        future.addListener(() -> result.complete(toResult(batch, future)), Runnable::run);
+        return result;
+    }
+
+    private static SendResult toResult(List<String> tokens, ApiFuture<BatchResponse> future) {
+        BatchResponse response;
+        try {
+            response = future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return SendResult.NONE;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e; // usually FirebaseMessagingException
+            logger.error("FCM multicast to {} devices failed: {}", tokens.size(), cause.getMessage());
+            return SendResult.NONE;
+        }
+        if (response.getFailureCount() > 0) {
+            logger.warn("FCM push failed for {} of {} devices", response.getFailureCount(), tokens.size());
+        }
+        List<MessagingErrorCode> errors = new ArrayList<>(tokens.size());
+        for (SendResponse sent : response.getResponses()) {
+            errors.add(sent.isSuccessful() || sent.getException() == null
+                    ? null
+                    : sent.getException().getMessagingErrorCode());
+        }
+        return new SendResult(response.getSuccessCount(), invalidTokens(tokens, errors));
+    }
+
+    /**
+     * Tokens to delete, given the error code per token (null = delivered).
+     * UNREGISTERED always means the app instance is gone. INVALID_ARGUMENT also
+     * covers a malformed message, so it only condemns a token when some other
+     * token of the same batch got through or failed differently.
+     */
+    static List<String> invalidTokens(List<String> tokens, List<MessagingErrorCode> errors) {
+        boolean allInvalidArgument = !errors.isEmpty()
+                && errors.stream().allMatch(code -> code == MessagingErrorCode.INVALID_ARGUMENT);
+        List<String> invalid = new ArrayList<>();
+        for (int i = 0; i < tokens.size() && i < errors.size(); i++) {
+            MessagingErrorCode code = errors.get(i);
+            if (code == MessagingErrorCode.UNREGISTERED
+                    || (code == MessagingErrorCode.INVALID_ARGUMENT && !allInvalidArgument)) {
+                invalid.add(tokens.get(i));
+            }
+        }
+        return invalid;
+    }
+}
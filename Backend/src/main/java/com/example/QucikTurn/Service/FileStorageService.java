@@ -7,6 +7,7 @@ import com.example.QucikTurn.Entity.enums.FileType;
 import com.example.QucikTurn.Repository.UploadedFileRepository;
 import com.example.QucikTurn.Repository.UserRepository;
 import com.example.QucikTurn.Repository.ProjectRepository;
+import com.example.QucikTurn.Security.TokenAuthenticationCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -31,6 +32,7 @@ public class FileStorageService {
     private final UploadedFileRepository uploadedFileRepository;
     private final UserRepository userRepository;
     private final ProjectRepository projectRepository;
+    private final TokenAuthenticationCache authCache;
 
     // Allowed file types
     private static final Set<String> ALLOWED_IMAGE_TYPES = Set.of(
@@ -56,11 +58,13 @@ public class FileStorageService {
     public FileStorageService(AzureBlobService azureBlobService,
             UploadedFileRepository uploadedFileRepository,
             UserRepository userRepository,
-            ProjectRepository projectRepository) {
+            ProjectRepository projectRepository,
+            TokenAuthenticationCache authCache) {
         this.azureBlobService = azureBlobService;
         this.uploadedFileRepository = uploadedFileRepository;
         this.userRepository = userRepository;
         this.projectRepository = projectRepository;
+        this.authCache = authCache;
     }
 
     /**
@@ -117,6 +121,7 @@ public class FileStorageService {
         // Update user's profile picture URL
         user.setProfilePictureUrl(blobUrl);
         userRepository.save(user);
+        authCache.evictUser(user.getId());
 
         return uploadedFile;
     }
@@ -255,6 +260,7 @@ public class FileStorageService {
         if (uploadedFile.getFileType() == FileType.PROFILE_PICTURE) {
             user.setProfilePictureUrl(null);
             userRepository.save(user);
+            authCache.evictUser(user.getId());
         }
 
         // Delete from database
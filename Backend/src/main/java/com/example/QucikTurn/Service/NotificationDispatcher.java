@@ -0,0 +1,280 @@
+package com.example.QucikTurn.Service;
+
+import com.example.QucikTurn.dto.NotificationDTO;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Delivers stored notifications to their user, off the request path.
+ *
+ * <p>
+ * {@link #dispatch} only takes effect once the surrounding transaction
+ * commits (nothing is sent for a rolled back notification). Delivery runs on
+ * a small dedicated executor: notifications for the same user arriving within
+ * {@code app.notifications.dispatch.coalesce-window-ms} are delivered
+ * together, with one unread-count update and one push (a summary when there
+ * are several). Pushes are skipped while the user has a live WebSocket
+ * session. They are handed to the {@link PushNotificationSender} in batches of
+ * at most 500 tokens without waiting for FCM (which still costs one HTTP
+ * request per device), so a slow push never holds up WebSocket delivery to
+ * other users; tokens FCM reports as unregistered or invalid are deleted once
+ * the results arrive. Updates of a digest notification are
+ * sent over WebSocket only (see {@link #dispatchUpdate}), and a changed unread
+ * count alone goes through {@link #dispatchUnreadCount}.
+ * </p>
+ */
+@Component
+public class NotificationDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationDispatcher.class);
+
+    private final UnreadNotificationCounter unreadCounter;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final DeviceTokenService deviceTokenService;
+    private final UserPresenceService userPresenceService;
+    private final PushNotificationSender pushSender;
+    private final long coalesceWindowMs;
+    private final ScheduledExecutorService executor; // null = deliver on the committing thread
+    private final Map<Long, List<Pending>> pending = new ConcurrentHashMap<>();
+
+    /**
+     * A notification waiting for delivery; push = false for an updated digest,
+     * which is refreshed over WebSocket but not pushed again, and a null
+     * notification when only the unread count changed.
+     */
+    private record Pending(NotificationDTO notification, boolean push) {
+    }
+
+    public NotificationDispatcher(UnreadNotificationCounter unreadCounter,
+            SimpMessagingTemplate messagingTemplate,
+            DeviceTokenService deviceTokenService,
+            UserPresenceService userPresenceService,
+            PushNotificationSender pushSender,
+            @Value("${app.notifications.dispatch.async:true}") boolean async,
+            @Value("${app.notifications.dispatch.threads:2}") int threads,
+            @Value("${app.notifications.dispatch.coalesce-window-ms:200}") long coalesceWindowMs) {
+        this.unreadCounter = unreadCounter;
+        this.messagingTemplate = messagingTemplate;
+        this.deviceTokenService = deviceTokenService;
+        this.userPresenceService = userPresenceService;
+        this.pushSender = pushSender;
+        this.coalesceWindowMs = coalesceWindowMs;
+        this.executor = async ? newExecutor(threads) : null;
+    }
+
+    private static ScheduledExecutorService newExecutor(int threads) {
+        AtomicInteger counter = new AtomicInteger();
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(threads, task -> {
+            Thread thread = new Thread(task, "notification-dispatch-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.setRemoveOnCancelPolicy(true);
+        // On shutdown, stop() delivers the pending bursts itself instead of waiting out the window
+        executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        return executor;
+    }
+
+    /**
+     * Deliver the notification to the user once the current transaction commits
+     * (right away if there is none).
+     */
+    public void dispatch(Long userId, NotificationDTO notification) {
+        dispatch(userId, new Pending(notification, true));
+    }
+
+    /**
+     * Like {@link #dispatch}, for a digest notification that already reached
+     * the user and now summarizes one more event: the user's clients get the
+     * new version, but no push is sent for it.
+     */
+    public void dispatchUpdate(Long userId, NotificationDTO notification) {
+        dispatch(userId, new Pending(notification, false));
+    }
+
+    /**
+     * Send the user's current unread count once the current transaction
+     * commits, e.g. after notifications were marked as read. Shares the
+     * count update of a burst that is already pending.
+     */
+    public void dispatchUnreadCount(Long userId) {
+        dispatch(userId, new Pending(null, false));
+    }
+
+    private void dispatch(Long userId, Pending notification) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(userId, notification);
+                }
+            });
+        } else {
+            enqueue(userId, notification);
+        }
+    }
+
+    /**
+     * Deliver everything still pending, then stop the executor.
+     */
+    @PreDestroy
+    public void stop() {
+        if (executor != null) {
+            executor.shutdown();
+            try {
+                executor.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        for (Long userId : new ArrayList<>(pending.keySet())) {
+            flush(userId);
+        }
+    }
+
+    void enqueue(Long userId, Pending notification) {
+        boolean[] firstInBurst = { false };
+        pending.compute(userId, (id, burst) -> {
+            if (burst == null) {
+                burst = new ArrayList<>();
+                firstInBurst[0] = true;
+            }
+            burst.add(notification);
+            return burst;
+        });
+        if (!firstInBurst[0]) {
+            return; // a flush is already scheduled for this user
+        }
+        if (executor == null) {
+            flush(userId);
+            return;
+        }
+        try {
+            executor.schedule(() -> flush(userId), coalesceWindowMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            flush(userId); // shutting down
+        }
+    }
+
+    /**
+     * Deliver the user's pending burst.
+     */
+    void flush(Long userId) {
+        List<Pending> burst = pending.remove(userId);
+        if (burst == null || burst.isEmpty()) {
+            return;
+        }
+        try {
+            deliver(userId, burst);
+        } catch (Exception e) {
+            logger.error("Failed to deliver {} notifications to user {}: {}", burst.size(), userId, e.getMessage());
+        }
+    }
+
+    private void deliver(Long userId, List<Pending> burst) {
+        // Latest version of each notification (a digest may be updated several
+        // times within one burst), in order of last update
+        Map<Object, NotificationDTO> latest = new LinkedHashMap<>();
+        Set<Object> pushed = new HashSet<>();
+        for (Pending entry : burst) {
+            if (entry.notification() == null) {
+                continue; // count only
+            }
+            Object key = entry.notification().getId() != null ? entry.notification().getId() : entry;
+            latest.remove(key);
+            latest.put(key, entry.notification());
+            if (entry.push()) {
+                pushed.add(key);
+            }
+        }
+
+        String user = String.valueOf(userId);
+        for (NotificationDTO notification : latest.values()) {
+            messagingTemplate.convertAndSendToUser(user, "/queue/notifications", notification);
+        }
+        messagingTemplate.convertAndSendToUser(user, "/queue/notifications/count",
+                unreadCounter.get(userId));
+
+        List<NotificationDTO> toPush = new ArrayList<>();
+        latest.forEach((key, notification) -> {
+            if (pushed.contains(key)) {
+                toPush.add(notification);
+            }
+        });
+        if (toPush.isEmpty() || !pushSender.isEnabled() || userPresenceService.isOnline(userId)) {
+            return;
+        }
+        List<String> tokens = deviceTokenService.getTokensForUser(userId);
+        if (tokens == null || tokens.isEmpty()) {
+            return;
+        }
+        PushNotificationSender.PushMessage message = pushMessageFor(toPush);
+        List<CompletableFuture<PushNotificationSender.SendResult>> batches = new ArrayList<>();
+        for (int from = 0; from < tokens.size(); from += PushNotificationSender.MAX_TOKENS_PER_BATCH) {
+            int to = Math.min(tokens.size(), from + PushNotificationSender.MAX_TOKENS_PER_BATCH);
+            batches.add(pushSender.send(tokens.subList(from, to), message));
+        }
+        CompletableFuture.allOf(batches.toArray(CompletableFuture[]::new))
+                .whenComplete((ignored, error) -> pruneInvalidTokens(userId, batches));
+    }
+
+    /**
+     * Delete the tokens the finished batches reported as invalid.
+     */
+    private void pruneInvalidTokens(Long userId, List<CompletableFuture<PushNotificationSender.SendResult>> batches) {
+        List<String> invalidTokens = new ArrayList<>();
+        for (CompletableFuture<PushNotificationSender.SendResult> batch : batches) {
+            if (!batch.isCompletedExceptionally()) {
+                invalidTokens.addAll(batch.join().invalidTokens());
+            }
+        }
+        if (invalidTokens.isEmpty()) {
+            return;
+        }
+        logger.info("Removing {} invalid device tokens of user {}", invalidTokens.size(), userId);
+        try {
+            deviceTokenService.removeTokens(userId, invalidTokens);
+        } catch (RuntimeException e) {
+            logger.error("Failed to remove invalid device tokens of user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    /**
+     * The notification itself, or a summary pointing at the latest one when the
+     * burst holds several.
+     */
+    static PushNotificationSender.PushMessage pushMessageFor(List<NotificationDTO> burst) {
+        NotificationDTO latest = burst.get(burst.size() - 1);
+        Map<String, String> data = new HashMap<>();
+        data.put("type", latest.getType() != null ? latest.getType().name() : "");
+        data.put("relatedEntityType", latest.getRelatedEntityType() != null ? latest.getRelatedEntityType() : "");
+        data.put("relatedEntityId", latest.getRelatedEntityId() != null ? latest.getRelatedEntityId().toString() : "");
+        data.put("actionUrl", latest.getActionUrl() != null ? latest.getActionUrl() : "");
+        if (burst.size() == 1) {
+            return new PushNotificationSender.PushMessage(latest.getTitle(), latest.getMessage(), data);
+        }
+        data.put("count", String.valueOf(burst.size()));
+        return new PushNotificationSender.PushMessage(burst.size() + " notifikasi baru", latest.getTitle(), data);
+    }
+}
@@ -1,53 +1,58 @@
 package com.example.QucikTurn.Service;
 
-import com.example.QucikTurn.Config.FirebaseConfig;
 import com.example.QucikTurn.Entity.Notification;
+import com.example.QucikTurn.Entity.NotificationEvent;
 import com.example.QucikTurn.Entity.User;
 import com.example.QucikTurn.Entity.enums.NotificationType;
+import com.example.QucikTurn.Repository.NotificationEventRepository;
 import com.example.QucikTurn.Repository.NotificationRepository;
 import com.example.QucikTurn.dto.NotificationDTO;
-import com.google.firebase.messaging.FirebaseMessaging;
-import com.google.firebase.messaging.Message;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.IntFunction;
 import java.util.stream.Collectors;
 
 @Service
 public class NotificationService {
 
     private final NotificationRepository notificationRepository;
-    private final SimpMessagingTemplate messagingTemplate;
-    private final DeviceTokenService deviceTokenService;
-    private final FirebaseConfig firebaseConfig;
+    private final NotificationDispatcher notificationDispatcher;
+    private final UnreadNotificationCounter unreadCounter;
+    private final NotificationEventRepository notificationEventRepository;
+    private final long digestWindowMs;
 
     public NotificationService(NotificationRepository notificationRepository,
-                               SimpMessagingTemplate messagingTemplate,
-                               DeviceTokenService deviceTokenService,
-                               FirebaseConfig firebaseConfig) {
+                               NotificationDispatcher notificationDispatcher,
+                               UnreadNotificationCounter unreadCounter,
+                               NotificationEventRepository notificationEventRepository,
+                               @Value("${app.notifications.digest.window-ms:600000}") long digestWindowMs) {
         this.notificationRepository = notificationRepository;
-        this.messagingTemplate = messagingTemplate;
-        this.deviceTokenService = deviceTokenService;
-        this.firebaseConfig = firebaseConfig;
+        this.notificationDispatcher = notificationDispatcher;
+        this.unreadCounter = unreadCounter;
+        this.notificationEventRepository = notificationEventRepository;
+        this.digestWindowMs = digestWindowMs;
     }
 
     /**
-     * Create and send a notification to a user
+     * Create and send a notification to a user. Delivery (WebSocket and FCM)
+     * happens after commit, off the caller's thread (see NotificationDispatcher).
      */
     @Transactional
     public NotificationDTO createNotification(User user, NotificationType type,
             String title, String message) {
         Notification notification = new Notification(user, type, title, message);
         notification = notificationRepository.save(notification);
+        unreadCounter.increment(user.getId());
 
         NotificationDTO dto = new NotificationDTO(notification);
-        sendRealTimeNotification(user.getId(), dto);
+        notificationDispatcher.dispatch(user.getId(), dto);
 
         return dto;
     }
@@ -63,61 +68,59 @@ public class NotificationService {
         Notification notification = new Notification(user, type, title, message,
                 relatedEntityType, relatedEntityId, actionUrl);
         notification = notificationRepository.save(notification);
+        unreadCounter.increment(user.getId());
 
         NotificationDTO dto = new NotificationDTO(notification);
-        sendRealTimeNotification(user.getId(), dto);
+        notificationDispatcher.dispatch(user.getId(), dto);
 
         return dto;
     }
 
     /**
-     * Send real-time notification via WebSocket and Push Notification via FCM
+     * Create a notification, or fold it into the user's unread notification of
+     * the same type and related entity if that one was created within
+     * {@code app.notifications.digest.window-ms}. A digest keeps one row, one
+     * unread count and one push however many events it summarizes; the
+     * individual events are kept as NotificationEvent rows.
+     *
+     * Needs a transaction (the digest row is locked while it is updated).
+     *
+     * @param digestTitle   title of a digest of the given number of events
+     * @param digestMessage message of a digest of the given number of events
      */
-    private void sendRealTimeNotification(Long userId, NotificationDTO notification) {
-        try {
-            // Send to user-specific queue
-            messagingTemplate.convertAndSend("/topic/notifications/" + userId, notification);
-
-            // Also send unread count update
-            long unreadCount = getUnreadCount(userId);
-            messagingTemplate.convertAndSend("/topic/notifications/" + userId + "/count", unreadCount);
-        } catch (Exception e) {
-            // Log but don't fail - notification is still saved in DB
-            System.err.println("Failed to send real-time notification: " + e.getMessage());
+    private NotificationDTO createOrDigestNotification(User user, NotificationType type,
+            String title, String message,
+            String relatedEntityType, Long relatedEntityId,
+            String actionUrl,
+            IntFunction<String> digestTitle, IntFunction<String> digestMessage) {
+        if (digestWindowMs <= 0 || relatedEntityType == null || relatedEntityId == null) {
+            return createNotification(user, type, title, message, relatedEntityType, relatedEntityId, actionUrl);
+        }
+        List<Notification> open = notificationRepository.findOpenDigests(user.getId(), type,
+                relatedEntityType, relatedEntityId,
+                LocalDateTime.now().minusNanos(digestWindowMs * 1_000_000L), PageRequest.of(0, 1));
+        if (open.isEmpty()) {
+            return createNotification(user, type, title, message, relatedEntityType, relatedEntityId, actionUrl);
         }
 
-        // Trigger FCM push notification asynchronously/safely
-        try {
-            if (firebaseConfig.isFirebaseEnabled()) {
-                List<String> tokens = deviceTokenService.getTokensForUser(userId);
-                if (tokens != null && !tokens.isEmpty()) {
-                    com.google.firebase.messaging.Notification fcmNotification = 
-                            com.google.firebase.messaging.Notification.builder()
-                                    .setTitle(notification.getTitle())
-                                    .setBody(notification.getMessage())
-                                    .build();
-
-                    for (String token : tokens) {
-                        try {
-                            Message msg = Message.builder()
-                                    .setToken(token)
-                                    .setNotification(fcmNotification)
-                                    .putData("type", notification.getType() != null ? notification.getType().name() : "")
-                                    .putData("relatedEntityType", notification.getRelatedEntityType() != null ? notification.getRelatedEntityType() : "")
-                                    .putData("relatedEntityId", notification.getRelatedEntityId() != null ? notification.getRelatedEntityId().toString() : "")
-                                    .putData("actionUrl", notification.getActionUrl() != null ? notification.getActionUrl() : "")
-                                    .build();
-
-                            FirebaseMessaging.getInstance().sendAsync(msg);
-                        } catch (Exception e) {
-                            System.err.println("Failed to send FCM token to " + token + ": " + e.getMessage());
-                        }
-                    }
-                }
-            }
-        } catch (Exception e) {
-            System.err.println("Failed to broadcast FCM notifications: " + e.getMessage());
+        Notification digest = open.get(0);
+        if (digest.getEventCount() <= 1) {
+            // First time this notification becomes a digest: keep its own event
+            notificationEventRepository.save(new NotificationEvent(digest.getId(), digest.getTitle(),
+                    digest.getMessage()));
         }
+        notificationEventRepository.save(new NotificationEvent(digest.getId(), title, message));
+
+        int eventCount = Math.max(1, digest.getEventCount()) + 1;
+        digest.setEventCount(eventCount);
+        digest.setTitle(digestTitle.apply(eventCount));
+        digest.setMessage(digestMessage.apply(eventCount));
+        digest.setActionUrl(actionUrl);
+        digest = notificationRepository.save(digest);
+
+        NotificationDTO dto = new NotificationDTO(digest);
+        notificationDispatcher.dispatchUpdate(user.getId(), dto);
+        return dto;
     }
 
     /**
@@ -140,10 +143,10 @@ public class NotificationService {
     }
 
     /**
-     * Get unread count for a user
+     * Get unread count for a user (maintained counter, see UnreadNotificationCounter)
      */
     public long getUnreadCount(Long userId) {
-        return notificationRepository.countByUserIdAndReadFalse(userId);
+        return unreadCounter.get(userId);
     }
 
     /**
@@ -154,12 +157,15 @@ public class NotificationService {
         return notificationRepository.findById(notificationId)
                 .filter(n -> n.getUser().getId().equals(userId))
                 .map(n -> {
+                    boolean wasUnread = !n.isRead();
                     n.markAsRead();
                     notificationRepository.save(n);
+                    if (wasUnread) {
+                        unreadCounter.decrement(userId);
+                    }
 
-                    // Send updated count
-                    long unreadCount = getUnreadCount(userId);
-                    messagingTemplate.convertAndSend("/topic/notifications/" + userId + "/count", unreadCount);
+                    // Send updated count once the change is committed
+                    notificationDispatcher.dispatchUnreadCount(userId);
 
                     return true;
                 })
@@ -172,35 +178,31 @@ public class NotificationService {
     @Transactional
     public int markAllAsRead(Long userId) {
         int updated = notificationRepository.markAllAsReadByUserId(userId);
+        unreadCounter.reset(userId);
 
-        // Send updated count (0)
-        messagingTemplate.convertAndSend("/topic/notifications/" + userId + "/count", 0L);
+        // Send updated count (0) once the change is committed
+        notificationDispatcher.dispatchUnreadCount(userId);
 
         return updated;
     }
 
-    /**
-     * Cleanup old read notifications (to be called by scheduler)
-     */
-    @Transactional
-    public int cleanupOldNotifications(int daysToKeep) {
-        LocalDateTime cutoffDate = LocalDateTime.now().minusDays(daysToKeep);
-        return notificationRepository.deleteOldReadNotifications(cutoffDate);
-    }
-
     // ============ Helper methods for common notification scenarios ============
 
     /**
-     * Notify client when a talent applies to their project
+     * Notify client when a talent applies to their project (digested per
+     * project while unread)
      */
+    @Transactional
     public void notifyApplicationReceived(User client, String talentName, String projectTitle, Long projectId) {
-        createNotification(
+        createOrDigestNotification(
                 client,
                 NotificationType.APPLICATION_RECEIVED,
                 "New Application Received",
                 talentName + " has applied to your project: " + projectTitle,
                 "PROJECT", projectId,
-                "/dashboardu");
+                "/dashboardu",
+                count -> count + " New Applications",
+                count -> count + " talents have applied to your project: " + projectTitle);
     }
 
     /**
@@ -269,16 +271,21 @@ public class NotificationService {
     }
 
     /**
-     * Notify user when they receive a new chat message
+     * Notify user when they receive a new chat message (digested per sender
+     * while unread)
      */
+    @Transactional
     public void notifyNewMessage(User recipient, String senderName, String content, Long senderId) {
-        createNotification(
+        String preview = content.length() > 60 ? content.substring(0, 57) + "..." : content;
+        createOrDigestNotification(
                 recipient,
                 NotificationType.NEW_MESSAGE,
                 "Pesan Baru dari " + senderName,
-                content.length() > 60 ? content.substring(0, 57) + "..." : content,
+                preview,
                 "CHAT", senderId,
-                "/chat/" + senderId);
+                "/chat/" + senderId,
+                count -> count + " Pesan Baru dari " + senderName,
+                count -> preview);
     }
 }
 
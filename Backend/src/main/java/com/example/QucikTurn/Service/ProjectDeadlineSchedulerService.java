@@ -28,14 +28,20 @@ public class ProjectDeadlineSchedulerService {
     private final ProjectRepository projectRepo;
     private final ApplicationRepository applicationRepo;
     private final ActivityService activityService;
+    private final ProjectSpatialIndex spatialIndex;
+    private final ProjectSkillIndex skillIndex;
 
     public ProjectDeadlineSchedulerService(
             ProjectRepository projectRepo,
             ApplicationRepository applicationRepo,
-            ActivityService activityService) {
+            ActivityService activityService,
+            ProjectSpatialIndex spatialIndex,
+            ProjectSkillIndex skillIndex) {
         this.projectRepo = projectRepo;
         this.applicationRepo = applicationRepo;
         this.activityService = activityService;
+        this.spatialIndex = spatialIndex;
+        this.skillIndex = skillIndex;
     }
 
     /**
@@ -78,6 +84,8 @@ public class ProjectDeadlineSchedulerService {
         // Update project status
         project.setStatus(ProjectStatus.OVERDUE);
         projectRepo.save(project);
+        spatialIndex.evict(project.getId());
+        skillIndex.evict(project.getId());
 
         // Log activity for project owner (Client/UMKM)
         activityService.logActivity(
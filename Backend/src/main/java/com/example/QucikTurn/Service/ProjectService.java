@@ -7,8 +7,6 @@ import com.example.QucikTurn.Entity.enums.Role;
 import com.example.QucikTurn.Repository.ProjectRepository;
 import com.example.QucikTurn.Repository.UserRepository;
 import com.example.QucikTurn.dto.CreateProjectRequest;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -29,17 +27,21 @@ public class ProjectService {
     private final ProjectRepository projectRepo;
     private final UserRepository userRepo;
     private final ActivityService activityService;
+    private final ProjectSpatialIndex spatialIndex;
+    private final ProjectSkillIndex skillIndex;
 
     public ProjectService(ProjectRepository projectRepo, UserRepository userRepo,
-            ActivityService activityService) {
+            ActivityService activityService, ProjectSpatialIndex spatialIndex,
+            ProjectSkillIndex skillIndex) {
         this.projectRepo = projectRepo;
         this.userRepo = userRepo;
         this.activityService = activityService;
+        this.spatialIndex = spatialIndex;
+        this.skillIndex = skillIndex;
     }
 
     // --- UMKM: Post Project ---
     @Transactional
-    @CacheEvict(value = "openProjects", allEntries = true)
     public Project createProject(Long ownerId, CreateProjectRequest req) {
         Objects.requireNonNull(ownerId, "Owner ID cannot be null");
         User owner = userRepo.findById(ownerId)
@@ -75,6 +77,8 @@ public class ProjectService {
         p.setWorkMode(req.workMode());
 
         Project savedProject = projectRepo.save(p);
+        spatialIndex.upsert(savedProject);
+        skillIndex.upsert(savedProject);
 
         // Log activity
         activityService.logActivity(owner, ActivityService.TYPE_PROJECT_POSTED,
@@ -88,12 +92,6 @@ public class ProjectService {
         return projectRepo.findByOwnerId(ownerId);
     }
 
-    // --- GET ALL OPEN PROJECTS (For Browsing - Legacy) ---
-    @Cacheable(value = "openProjects")
-    public List<Project> getAllOpenProjects() {
-        return projectRepo.findByStatus(ProjectStatus.OPEN);
-    }
-
     // --- GET ALL PROJECTS (For Admin) ---
     public List<Project> getAllProjects() {
         return projectRepo.findAll();
@@ -107,7 +105,6 @@ public class ProjectService {
 
     // --- DELETE PROJECT ---
     @Transactional
-    @CacheEvict(value = "openProjects", allEntries = true)
     public void deleteProject(Long projectId, Long ownerId) {
         Project project = projectRepo.findById(projectId)
                 .orElseThrow(() -> new RuntimeException("Project not found"));
@@ -117,5 +114,7 @@ public class ProjectService {
         }
 
         projectRepo.delete(project);
+        spatialIndex.evict(projectId);
+        skillIndex.evict(projectId);
     }
 }
\ No newline at end of file
@@ -0,0 +1,555 @@
+package com.example.QucikTurn.Service;
+
+import com.example.QucikTurn.Entity.Project;
+import com.example.QucikTurn.Entity.enums.ProjectStatus;
+import com.example.QucikTurn.Repository.ProjectRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * In-memory skill catalog of OPEN projects used by
+ * {@link RecommendationService}.
+ *
+ * <p>
+ * Skill names are interned into integer ids once. Each project keeps its
+ * required skills as a bitset over those ids, and an inverted index maps each
+ * skill id to the projects that require it. A recommendation request only
+ * visits projects that share a skill with the user, have no required skills
+ * (neutral skill score), or sit in a category that matches the user's
+ * {@code bidang}; skill overlap is a bitwise AND plus popcount.
+ * </p>
+ *
+ * <p>
+ * Kept in sync the same way as {@link ProjectSpatialIndex}: rebuilt on startup
+ * and periodically, and updated after commit on create/delete, applicant count
+ * changes and OPEN -> ONGOING/OVERDUE transitions.
+ * </p>
+ */
+@Component
+public class ProjectSkillIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProjectSkillIndex.class);
+
+    private final ProjectRepository projectRepo;
+    private final boolean enabled;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Catalog catalog = new Catalog();
+    /**
+     * Incremental changes made while a rebuild reads the database, replayed onto
+     * its result before the swap: project id -> entry, or null if removed. Null
+     * when no rebuild is running. Guarded by the write lock.
+     */
+    private Map<Long, Entry> changesDuringRebuild;
+    private volatile boolean ready = false;
+    private final List<ChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+    public ProjectSkillIndex(ProjectRepository projectRepo,
+            @Value("${app.recommendation.index.enabled:true}") boolean enabled) {
+        this.projectRepo = projectRepo;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Receives the data needed to score one candidate project.
+     */
+    @FunctionalInterface
+    public interface CandidateVisitor {
+        /**
+         * @param projectId      project id
+         * @param overlap        number of user skills the project requires
+         * @param skillCount     number of distinct skills the project requires
+         * @param categoryScore  category score computed for the project's category
+         * @param applicantCount current applicant count (tie-break)
+         * @param createdAt      creation time as nanos since epoch (tie-break)
+         */
+        void visit(long projectId, int overlap, int skillCount, double categoryScore,
+                int applicantCount, long createdAt);
+    }
+
+    /**
+     * Notified after an incremental change has been applied to the index (not
+     * on full rebuilds), outside the index lock.
+     */
+    public interface ChangeListener {
+        /**
+         * An OPEN project was added or its indexed fields changed.
+         *
+         * @param skills             normalized required skills
+         * @param category           normalized category, may be null
+         * @param scoreInputsChanged false if the project was indexed before with
+         *                           the same skills and category (e.g. only its
+         *                           applicant count changed)
+         */
+        void projectUpserted(long projectId, Set<String> skills, String category, int applicantCount,
+                long createdAt, boolean scoreInputsChanged);
+
+        /**
+         * A project was deleted or left OPEN.
+         */
+        void projectRemoved(long projectId);
+    }
+
+    public void addListener(ChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * @return true once the index has been built and can answer queries
+     */
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * Periodic full rebuild so changes made on other nodes are picked up.
+     */
+    @Scheduled(fixedDelayString = "${app.recommendation.index.refresh-ms:300000}",
+            initialDelayString = "${app.recommendation.index.refresh-ms:300000}")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    /**
+     * Rebuild the whole catalog from the database and swap it in, after
+     * replaying the incremental changes applied in the meantime (the database
+     * read may predate them).
+     */
+    public synchronized void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild = new HashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            List<Project> projects = projectRepo.findByStatus(ProjectStatus.OPEN);
+            Catalog fresh = new Catalog();
+            for (Project p : projects) {
+                if (p.getId() != null) {
+                    fresh.put(Entry.of(p));
+                }
+            }
+
+            lock.writeLock().lock();
+            try {
+                changesDuringRebuild.forEach((id, entry) -> {
+                    if (entry != null) {
+                        fresh.put(entry);
+                    } else {
+                        fresh.remove(id);
+                    }
+                });
+                catalog = fresh;
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            logger.info("Project skill index rebuilt with {} projects and {} distinct skills",
+                    fresh.slotByProject.size(), fresh.skillIds.size());
+        } catch (Exception e) {
+            logger.warn("Failed to rebuild project skill index: {}", e.getMessage());
+        } finally {
+            lock.writeLock().lock();
+            try {
+                changesDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Index or re-index a project according to its current status; non-OPEN
+     * projects are removed.
+     */
+    public void upsert(Project project) {
+        if (project == null || project.getId() == null) {
+            return;
+        }
+        Long id = project.getId();
+        Entry entry = project.getStatus() == ProjectStatus.OPEN ? Entry.of(project) : null;
+        afterCommit(() -> {
+            Entry previous = null;
+            lock.writeLock().lock();
+            try {
+                if (entry != null) {
+                    previous = catalog.entry(id);
+                    catalog.put(entry);
+                } else {
+                    catalog.remove(id);
+                }
+                if (changesDuringRebuild != null) {
+                    changesDuringRebuild.put(id, entry);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            boolean scoreInputsChanged = entry != null && !entry.sameScoreInputs(previous);
+            for (ChangeListener listener : listeners) {
+                if (entry != null) {
+                    listener.projectUpserted(id, entry.skills(), entry.category(), entry.applicantCount(),
+                            entry.createdAt(), scoreInputsChanged);
+                } else {
+                    listener.projectRemoved(id);
+                }
+            }
+        });
+    }
+
+    /**
+     * Remove a project from the index (deleted or no longer OPEN).
+     */
+    public void evict(Long projectId) {
+        if (projectId == null) {
+            return;
+        }
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                catalog.remove(projectId);
+                if (changesDuringRebuild != null) {
+                    changesDuringRebuild.put(projectId, null);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            for (ChangeListener listener : listeners) {
+                listener.projectRemoved(projectId);
+            }
+        });
+    }
+
+    /**
+     * Visit candidate projects for a user.
+     *
+     * <p>
+     * Without {@code includeAll}, only projects that can score above zero are
+     * visited: those sharing at least one skill, those with no required skills,
+     * and those whose category gets a positive {@code categoryScorer} result.
+     * With {@code includeAll}, every indexed project is visited.
+     * </p>
+     *
+     * @param userSkills     normalized user skills (see
+     *                       {@link RecommendationService#parseSkills})
+     * @param categoryScorer scores a normalized project category; called once
+     *                       per distinct category
+     * @param includeAll     visit every project, not just positive candidates
+     * @param visitor        receives each candidate exactly once
+     */
+    public void visitCandidates(Set<String> userSkills, ToDoubleFunction<String> categoryScorer,
+            boolean includeAll, CandidateVisitor visitor) {
+        lock.readLock().lock();
+        try {
+            Catalog c = catalog;
+
+            // Category scores are computed per distinct category, not per project.
+            Map<String, Double> categoryScores = new HashMap<>();
+            for (String category : c.slotsByCategory.keySet()) {
+                categoryScores.put(category, categoryScorer.applyAsDouble(category));
+            }
+
+            long[] userBits = c.toBits(userSkills);
+
+            BitSet seen = new BitSet(c.size);
+            if (includeAll) {
+                for (int slot = 0; slot < c.size; slot++) {
+                    if (c.used[slot]) {
+                        seen.set(slot);
+                    }
+                }
+            } else {
+                for (String skill : userSkills) {
+                    Integer skillId = c.skillIds.get(skill);
+                    if (skillId != null && skillId < c.postings.size()) {
+                        c.postings.get(skillId).addTo(seen);
+                    }
+                }
+                c.skillless.addTo(seen);
+                for (Map.Entry<String, IntList> e : c.slotsByCategory.entrySet()) {
+                    if (categoryScores.get(e.getKey()) > 0) {
+                        e.getValue().addTo(seen);
+                    }
+                }
+            }
+
+            for (int slot = seen.nextSetBit(0); slot >= 0; slot = seen.nextSetBit(slot + 1)) {
+                int overlap = Catalog.overlap(userBits, c.skillBits[slot]);
+                String category = c.categories[slot];
+                double categoryScore = category == null ? 0.0 : categoryScores.get(category);
+                visitor.visit(c.projectIds[slot], overlap, c.skillCounts[slot], categoryScore,
+                        c.applicantCounts[slot], c.createdAt[slot]);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return number of indexed projects
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return catalog.slotByProject.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Convert a creation timestamp to the long used for tie-breaks.
+     */
+    static long createdAtKey(LocalDateTime createdAt) {
+        if (createdAt == null) {
+            return Long.MIN_VALUE;
+        }
+        return createdAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + createdAt.getNano();
+    }
+
+    /**
+     * Run the mutation after the surrounding transaction commits, or immediately
+     * if there is none.
+     */
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Immutable snapshot of the fields the index needs from a project, taken
+     * while the entity is still managed.
+     */
+    private record Entry(long projectId, Set<String> skills, String category, int applicantCount,
+            long createdAt) {
+        static Entry of(Project p) {
+            String category = p.getCategory() == null ? null : p.getCategory().toLowerCase().trim();
+            return new Entry(p.getId(),
+                    RecommendationService.parseSkills(p.getRequiredSkills()),
+                    category,
+                    p.getApplicantCount() != null ? p.getApplicantCount() : 0,
+                    createdAtKey(p.getCreatedAt()));
+        }
+
+        boolean sameScoreInputs(Entry other) {
+            return other != null && skills.equals(other.skills) && Objects.equals(category, other.category);
+        }
+    }
+
+    /**
+     * Slot-based storage. Each indexed project occupies one slot in the
+     * parallel arrays; freed slots are reused.
+     */
+    private static final class Catalog {
+        final Map<String, Integer> skillIds = new HashMap<>();
+        final List<IntList> postings = new ArrayList<>();
+        final Map<String, IntList> slotsByCategory = new HashMap<>();
+        final IntList skillless = new IntList();
+        final Map<Long, Integer> slotByProject = new HashMap<>();
+        final IntList freeSlots = new IntList();
+
+        long[] projectIds = new long[16];
+        long[][] skillBits = new long[16][];
+        int[] skillCounts = new int[16];
+        String[] categories = new String[16];
+        Entry[] entries = new Entry[16];
+        int[] applicantCounts = new int[16];
+        long[] createdAt = new long[16];
+        boolean[] used = new boolean[16];
+        int size;
+
+        void put(Entry e) {
+            remove(e.projectId());
+
+            int slot = freeSlots.isEmpty() ? size++ : freeSlots.removeLast();
+            ensureCapacity(slot + 1);
+
+            int[] ids = new int[e.skills().size()];
+            int n = 0;
+            for (String skill : e.skills()) {
+                ids[n++] = skillIds.computeIfAbsent(skill, s -> skillIds.size());
+            }
+            Arrays.sort(ids);
+            long[] bits = new long[ids.length == 0 ? 0 : (ids[ids.length - 1] >>> 6) + 1];
+            for (int id : ids) {
+                bits[id >>> 6] |= 1L << id;
+                while (postings.size() <= id) {
+                    postings.add(new IntList());
+                }
+                postings.get(id).add(slot);
+            }
+            if (ids.length == 0) {
+                skillless.add(slot);
+            }
+            if (e.category() != null) {
+                slotsByCategory.computeIfAbsent(e.category(), k -> new IntList()).add(slot);
+            }
+
+            projectIds[slot] = e.projectId();
+            skillBits[slot] = bits;
+            skillCounts[slot] = ids.length;
+            categories[slot] = e.category();
+            entries[slot] = e;
+            applicantCounts[slot] = e.applicantCount();
+            createdAt[slot] = e.createdAt();
+            used[slot] = true;
+            slotByProject.put(e.projectId(), slot);
+        }
+
+        void remove(long projectId) {
+            Integer slot = slotByProject.remove(projectId);
+            if (slot == null) {
+                return;
+            }
+            long[] bits = skillBits[slot];
+            for (int w = 0; w < bits.length; w++) {
+                long word = bits[w];
+                while (word != 0) {
+                    int id = (w << 6) + Long.numberOfTrailingZeros(word);
+                    postings.get(id).removeValue(slot);
+                    word &= word - 1;
+                }
+            }
+            if (skillCounts[slot] == 0) {
+                skillless.removeValue(slot);
+            }
+            String category = categories[slot];
+            if (category != null) {
+                IntList slots = slotsByCategory.get(category);
+                if (slots != null) {
+                    slots.removeValue(slot);
+                    if (slots.isEmpty()) {
+                        slotsByCategory.remove(category);
+                    }
+                }
+            }
+            skillBits[slot] = null;
+            categories[slot] = null;
+            entries[slot] = null;
+            used[slot] = false;
+            freeSlots.add(slot);
+        }
+
+        /**
+         * @return the indexed snapshot of the project, or null
+         */
+        Entry entry(long projectId) {
+            Integer slot = slotByProject.get(projectId);
+            return slot == null ? null : entries[slot];
+        }
+
+        /**
+         * Build a bitset over known skill ids; unknown skills cannot match any
+         * project and are dropped.
+         */
+        long[] toBits(Set<String> skills) {
+            long[] bits = new long[(skillIds.size() >>> 6) + 1];
+            for (String skill : skills) {
+                Integer id = skillIds.get(skill);
+                if (id != null) {
+                    bits[id >>> 6] |= 1L << id;
+                }
+            }
+            return bits;
+        }
+
+        static int overlap(long[] a, long[] b) {
+            int n = Math.min(a.length, b.length);
+            int count = 0;
+            for (int i = 0; i < n; i++) {
+                count += Long.bitCount(a[i] & b[i]);
+            }
+            return count;
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity <= projectIds.length) {
+                return;
+            }
+            int newLength = Math.max(capacity, projectIds.length * 2);
+            projectIds = Arrays.copyOf(projectIds, newLength);
+            skillBits = Arrays.copyOf(skillBits, newLength);
+            skillCounts = Arrays.copyOf(skillCounts, newLength);
+            categories = Arrays.copyOf(categories, newLength);
+            entries = Arrays.copyOf(entries, newLength);
+            applicantCounts = Arrays.copyOf(applicantCounts, newLength);
+            createdAt = Arrays.copyOf(createdAt, newLength);
+            used = Arrays.copyOf(used, newLength);
+        }
+    }
+
+    /**
+     * Minimal growable int list (unordered removal).
+     */
+    private static final class IntList {
+        int[] values = new int[4];
+        int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        void removeValue(int value) {
+            for (int i = 0; i < size; i++) {
+                if (values[i] == value) {
+                    values[i] = values[--size];
+                    return;
+                }
+            }
+        }
+
+        int removeLast() {
+            return values[--size];
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        void addTo(BitSet set) {
+            for (int i = 0; i < size; i++) {
+                set.set(values[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,404 @@
+package com.example.QucikTurn.Service;
+
+import com.example.QucikTurn.Entity.Project;
+import com.example.QucikTurn.Entity.enums.ProjectStatus;
+import com.example.QucikTurn.Repository.ProjectRepository;
+import com.example.QucikTurn.util.GeoUtils;
+import com.example.QucikTurn.util.TopK;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory uniform lat/lng grid of OPEN projects that have coordinates.
+ *
+ * <p>
+ * Each grid cell stores project ids and coordinates in primitive arrays, so a
+ * nearby query only visits the cells that intersect the search radius instead of
+ * loading every OPEN project from the database.
+ * </p>
+ *
+ * <p>
+ * The index is built on startup and kept in sync by
+ * {@link ProjectService#createProject}, {@link ProjectService#deleteProject}
+ * and the OPEN -> ONGOING/OVERDUE transitions. Mutations made inside a
+ * transaction are applied after commit. A periodic rebuild reconciles changes
+ * made by other backend replicas.
+ * </p>
+ */
+@Component
+public class ProjectSpatialIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProjectSpatialIndex.class);
+
+    /** Cell size in degrees (~11 km of latitude). */
+    static final double CELL_DEG = 0.1;
+    private static final int COLS = (int) Math.ceil(360 / CELL_DEG);
+
+    private static final ThreadLocal<double[]> SCRATCH = ThreadLocal.withInitial(() -> new double[64]);
+
+    private final ProjectRepository projectRepo;
+    private final boolean enabled;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<Long, Cell> cells = new HashMap<>();
+    private Map<Long, Long> cellByProject = new HashMap<>();
+    /**
+     * Incremental changes made while a rebuild reads the database, replayed onto
+     * its result before the swap: project id -> {lat, lng}, or null if removed.
+     * Null when no rebuild is running. Guarded by the write lock.
+     */
+    private Map<Long, double[]> changesDuringRebuild;
+    private volatile boolean ready = false;
+
+    public ProjectSpatialIndex(ProjectRepository projectRepo,
+            @Value("${app.nearby.index.enabled:true}") boolean enabled) {
+        this.projectRepo = projectRepo;
+        this.enabled = enabled;
+    }
+
+    /**
+     * @return true once the index has been built and can answer queries
+     */
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * Periodic full rebuild so changes made on other nodes are picked up.
+     */
+    @Scheduled(fixedDelayString = "${app.nearby.index.refresh-ms:300000}",
+            initialDelayString = "${app.nearby.index.refresh-ms:300000}")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    /**
+     * Rebuild the whole index from the database. The new grid is assembled
+     * without holding the lock and then swapped in, after replaying the
+     * incremental changes applied in the meantime (the database read may
+     * predate them).
+     */
+    public synchronized void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild = new HashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            List<Project> projects = projectRepo
+                    .findByStatusAndLatitudeIsNotNullAndLongitudeIsNotNull(ProjectStatus.OPEN);
+
+            Map<Long, Cell> newCells = new HashMap<>();
+            Map<Long, Long> newCellByProject = new HashMap<>();
+            for (Project p : projects) {
+                if (p.getId() == null || p.getLatitude() == null || p.getLongitude() == null) {
+                    continue;
+                }
+                long key = cellKey(p.getLatitude(), p.getLongitude());
+                newCells.computeIfAbsent(key, k -> new Cell())
+                        .add(p.getId(), p.getLatitude(), p.getLongitude());
+                newCellByProject.put(p.getId(), key);
+            }
+
+            lock.writeLock().lock();
+            try {
+                changesDuringRebuild.forEach((id, coords) -> {
+                    if (coords != null) {
+                        put(newCells, newCellByProject, id, coords[0], coords[1]);
+                    } else {
+                        remove(newCells, newCellByProject, id);
+                    }
+                });
+                cells = newCells;
+                cellByProject = newCellByProject;
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            logger.info("Project spatial index rebuilt with {} projects in {} cells",
+                    newCellByProject.size(), newCells.size());
+        } catch (Exception e) {
+            logger.warn("Failed to rebuild project spatial index: {}", e.getMessage());
+        } finally {
+            lock.writeLock().lock();
+            try {
+                changesDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Index or re-index a project according to its current status and
+     * coordinates. Non-OPEN projects and projects without coordinates are
+     * removed.
+     */
+    public void upsert(Project project) {
+        if (project == null || project.getId() == null) {
+            return;
+        }
+        Long id = project.getId();
+        Double lat = project.getLatitude();
+        Double lng = project.getLongitude();
+        boolean indexable = project.getStatus() == ProjectStatus.OPEN && lat != null && lng != null;
+
+        afterCommit(() -> {
+            if (indexable) {
+                put(id, lat, lng);
+            } else {
+                remove(id);
+            }
+        });
+    }
+
+    /**
+     * Remove a project from the index (deleted or no longer OPEN).
+     */
+    public void evict(Long projectId) {
+        if (projectId == null) {
+            return;
+        }
+        afterCommit(() -> remove(projectId));
+    }
+
+    /**
+     * Find all indexed projects within {@code radiusKm} of the given point.
+     *
+     * @return hits sorted nearest-first
+     */
+    public List<Hit> query(double lat, double lng, double radiusKm) {
+        return nearest(lat, lng, radiusKm, Integer.MAX_VALUE, Double.NEGATIVE_INFINITY, Long.MIN_VALUE);
+    }
+
+    /**
+     * Find the {@code limit} nearest indexed projects within {@code radiusKm}
+     * that come strictly after the keyset position
+     * {@code (afterDistanceKm, afterId)}. Selection uses a bounded heap, so only
+     * {@code limit} hits are ever retained.
+     *
+     * @return hits sorted by distance, then project id
+     */
+    public List<Hit> nearest(double lat, double lng, double radiusKm, int limit,
+            double afterDistanceKm, long afterId) {
+        GeoUtils.BoundingBox box = GeoUtils.boundingBox(lat, lng, radiusKm);
+
+        int rowMin = row(box.minLat());
+        int rowMax = row(box.maxLat());
+        // Columns are unwrapped here and taken modulo COLS below.
+        int colMin = (int) Math.floor((box.minLng() + 180) / CELL_DEG);
+        int colMax = (int) Math.floor((box.maxLng() + 180) / CELL_DEG);
+        if (colMax - colMin >= COLS - 1) {
+            colMin = 0;
+            colMax = COLS - 1;
+        }
+
+        TopK<Hit> top = new TopK<>(limit, Hit.ORDER);
+        lock.readLock().lock();
+        try {
+            for (int r = rowMin; r <= rowMax; r++) {
+                for (int c = colMin; c <= colMax; c++) {
+                    Cell cell = cells.get((long) r * COLS + Math.floorMod(c, COLS));
+                    if (cell == null) {
+                        continue;
+                    }
+                    double[] distances = scratch(cell.size);
+                    if (GeoUtils.haversineKmBatch(lat, lng, cell.latRad, cell.lngRad, cell.cosLat,
+                            0, cell.size, radiusKm, distances) == 0) {
+                        continue;
+                    }
+                    for (int i = 0; i < cell.size; i++) {
+                        double d = distances[i];
+                        if (d > radiusKm) {
+                            continue;
+                        }
+                        long id = cell.ids[i];
+                        if (d < afterDistanceKm || (d == afterDistanceKm && id <= afterId)) {
+                            continue;
+                        }
+                        // Skip the allocation when the heap is full and this hit cannot enter it.
+                        Hit worst = top.threshold();
+                        if (worst != null && (d > worst.distanceKm()
+                                || (d == worst.distanceKm() && id > worst.projectId()))) {
+                            continue;
+                        }
+                        top.offer(new Hit(id, d));
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return top.toSortedList();
+    }
+
+    /**
+     * @return number of indexed projects
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return cellByProject.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void put(long id, double lat, double lng) {
+        lock.writeLock().lock();
+        try {
+            put(cells, cellByProject, id, lat, lng);
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.put(id, new double[] { lat, lng });
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            remove(cells, cellByProject, id);
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.put(id, null);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void put(Map<Long, Cell> cells, Map<Long, Long> cellByProject, long id, double lat,
+            double lng) {
+        remove(cells, cellByProject, id);
+        long key = cellKey(lat, lng);
+        cells.computeIfAbsent(key, k -> new Cell()).add(id, lat, lng);
+        cellByProject.put(id, key);
+    }
+
+    private static void remove(Map<Long, Cell> cells, Map<Long, Long> cellByProject, long id) {
+        Long key = cellByProject.remove(id);
+        if (key == null) {
+            return;
+        }
+        Cell cell = cells.get(key);
+        if (cell != null && cell.remove(id) && cell.size == 0) {
+            cells.remove(key);
+        }
+    }
+
+    /**
+     * Run the mutation after the surrounding transaction commits (so rolled-back
+     * changes never reach the index), or immediately if there is none.
+     */
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static int row(double lat) {
+        return (int) Math.floor((Math.max(-90, Math.min(90, lat)) + 90) / CELL_DEG);
+    }
+
+    private static long cellKey(double lat, double lng) {
+        int col = Math.floorMod((int) Math.floor((lng + 180) / CELL_DEG), COLS);
+        return (long) row(lat) * COLS + col;
+    }
+
+    /**
+     * A project id matched by a query together with its distance.
+     */
+    public record Hit(long projectId, double distanceKm) {
+        static final Comparator<Hit> ORDER = Comparator
+                .comparingDouble(Hit::distanceKm)
+                .thenComparingLong(Hit::projectId);
+    }
+
+    /**
+     * Per-thread distance buffer reused across queries so scanning cells
+     * allocates nothing.
+     */
+    private static double[] scratch(int size) {
+        double[] buf = SCRATCH.get();
+        if (buf.length < size) {
+            buf = new double[Math.max(size, buf.length * 2)];
+            SCRATCH.set(buf);
+        }
+        return buf;
+    }
+
+    /**
+     * Grid cell backed by growable primitive arrays holding coordinates in
+     * radians plus the cached latitude cosine, ready for
+     * {@link GeoUtils#haversineKmBatch}. Removal swaps in the last element so the
+     * arrays stay dense.
+     */
+    private static final class Cell {
+        long[] ids = new long[4];
+        double[] latRad = new double[4];
+        double[] lngRad = new double[4];
+        double[] cosLat = new double[4];
+        int size;
+
+        void add(long id, double lat, double lng) {
+            if (size == ids.length) {
+                int newLength = size * 2;
+                ids = Arrays.copyOf(ids, newLength);
+                latRad = Arrays.copyOf(latRad, newLength);
+                lngRad = Arrays.copyOf(lngRad, newLength);
+                cosLat = Arrays.copyOf(cosLat, newLength);
+            }
+            ids[size] = id;
+            latRad[size] = Math.toRadians(lat);
+            lngRad[size] = Math.toRadians(lng);
+            cosLat[size] = Math.cos(latRad[size]);
+            size++;
+        }
+
+        boolean remove(long id) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    int last = --size;
+                    ids[i] = ids[last];
+                    latRad[i] = latRad[last];
+                    lngRad[i] = lngRad[last];
+                    cosLat[i] = cosLat[last];
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
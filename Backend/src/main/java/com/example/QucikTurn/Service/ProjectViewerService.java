@@ -2,23 +2,32 @@ package com.example.QucikTurn.Service;
 
 import com.example.QucikTurn.Entity.Application;
 import com.example.QucikTurn.Entity.Project;
-import com.example.QucikTurn.Entity.WorkSubmission;
 import com.example.QucikTurn.Entity.enums.ApplicationStatus;
 import com.example.QucikTurn.Entity.enums.ProjectStatus;
 import com.example.QucikTurn.Repository.ApplicationRepository;
 import com.example.QucikTurn.Repository.ProjectRepository;
 import com.example.QucikTurn.Repository.WorkSubmissionRepository;
+import com.example.QucikTurn.dto.CursorPage;
 import com.example.QucikTurn.dto.NearbyProjectResponse;
+import com.example.QucikTurn.dto.ProjectBrowseFilter;
+import com.example.QucikTurn.dto.ProjectBrowseItem;
 import com.example.QucikTurn.dto.ProjectWithStatusResponse;
 import com.example.QucikTurn.dto.UmkmProjectResponse;
+import com.example.QucikTurn.util.CursorCodec;
 import com.example.QucikTurn.util.GeoUtils;
+import com.example.QucikTurn.util.TopK;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 /**
@@ -32,27 +41,53 @@ public class ProjectViewerService {
     /** Safety cap on the search radius to avoid overly broad scans. */
     public static final double MAX_RADIUS_KM = 100.0;
 
+    /** Default and maximum page sizes for the nearby listing. */
+    public static final int DEFAULT_NEARBY_PAGE_SIZE = 20;
+    public static final int MAX_NEARBY_PAGE_SIZE = 100;
+
+    /** Default and maximum page sizes for the browse listing. */
+    public static final int DEFAULT_BROWSE_PAGE_SIZE = 20;
+    public static final int MAX_BROWSE_PAGE_SIZE = 100;
+
+    /** Keyset start for the first browse page: after every real createdAt. */
+    private static final LocalDateTime BROWSE_START = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    /** Maximum number of ids bound into a single {@code IN (...)} lookup. */
+    private static final int ID_BATCH_SIZE = 1000;
+
     private final ProjectRepository projectRepo;
     private final ApplicationRepository applicationRepo;
     private final WorkSubmissionRepository workSubmissionRepo;
+    private final ProjectSpatialIndex spatialIndex;
 
     public ProjectViewerService(ProjectRepository projectRepo,
             ApplicationRepository applicationRepo,
-            WorkSubmissionRepository workSubmissionRepo) {
+            WorkSubmissionRepository workSubmissionRepo,
+            ProjectSpatialIndex spatialIndex) {
         this.projectRepo = projectRepo;
         this.applicationRepo = applicationRepo;
         this.workSubmissionRepo = workSubmissionRepo;
+        this.spatialIndex = spatialIndex;
     }
 
     /**
-     * Get projects by owner (UMKM) with applicant count.
+     * Get projects by owner (UMKM) with applicant count. Counts for all of the
+     * owner's projects come from a single grouped query.
      */
     @Transactional(readOnly = true)
     public List<UmkmProjectResponse> getProjectsByOwnerWithApplicantCount(Long ownerId) {
         List<Project> projects = projectRepo.findByOwnerId(ownerId);
+        if (projects.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<Long, Long> countsByProject = new HashMap<>();
+        for (var row : applicationRepo.countApplicantsByOwnerId(ownerId)) {
+            countsByProject.put(row.getProjectId(), row.getApplicantCount());
+        }
 
         return projects.stream().map(p -> {
-            int applicantCount = applicationRepo.countByProjectId(p.getId());
+            int applicantCount = countsByProject.getOrDefault(p.getId(), 0L).intValue();
             return new UmkmProjectResponse(
                     p.getId(),
                     p.getTitle(),
@@ -74,21 +109,89 @@ public class ProjectViewerService {
     @Transactional(readOnly = true)
     public List<ProjectWithStatusResponse> getOpenProjectsWithStatus(Long studentId) {
         List<Project> projects = projectRepo.findByStatus(ProjectStatus.OPEN);
+        return toStatusResponses(projects, studentId);
+    }
 
-        return projects.stream().map(p -> {
-            String myStatus = null;
-            if (studentId != null) {
-                var app = applicationRepo.findByProjectIdAndStudentId(p.getId(), studentId);
-                if (app.isPresent()) {
-                    myStatus = app.get().getStatus().name();
-                }
+    /**
+     * Browse OPEN projects newest first, one page at a time.
+     *
+     * <p>
+     * Filtering, ordering and the page limit are applied in the database and
+     * rows are read straight into {@link ProjectBrowseItem} DTOs, so the cost
+     * of a request depends on the page size rather than the catalog size. For
+     * students, their application status on the page's projects is loaded in
+     * one extra query.
+     * </p>
+     *
+     * @param studentId student whose application status to include, or null
+     * @param limit     page size (capped at {@value #MAX_BROWSE_PAGE_SIZE})
+     * @param cursor    {@code nextCursor} of the previous page, or null for the
+     *                  first page
+     * @throws IllegalArgumentException if a parameter is out of range
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<ProjectBrowseItem> browseOpenProjects(ProjectBrowseFilter filter, Long studentId,
+            int limit, String cursor) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+        if (filter.minBudget() != null && filter.maxBudget() != null
+                && filter.minBudget().compareTo(filter.maxBudget()) > 0) {
+            throw new IllegalArgumentException("minBudget must not exceed maxBudget");
+        }
+        int pageSize = Math.min(limit, MAX_BROWSE_PAGE_SIZE);
+
+        // Keyset position: (createdAt, id) of the last item on the previous page.
+        LocalDateTime afterCreatedAt = BROWSE_START;
+        long afterId = Long.MAX_VALUE;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] parts = CursorCodec.decode(cursor, 2);
+            try {
+                afterCreatedAt = LocalDateTime.parse(parts[0]);
+                afterId = Long.parseLong(parts[1]);
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor");
             }
-            return mapToDTO(p, myStatus);
-        }).collect(Collectors.toList());
+        }
+
+        // Fetch one extra row to know whether another page exists.
+        List<ProjectBrowseItem> rows = projectRepo.browse(ProjectStatus.OPEN, filter.category(),
+                filter.workMode(), filter.complexity(), filter.minBudget(), filter.maxBudget(), filter.city(),
+                afterCreatedAt, afterId, PageRequest.of(0, pageSize + 1));
+        boolean hasMore = rows.size() > pageSize;
+        List<ProjectBrowseItem> items = hasMore ? rows.subList(0, pageSize) : rows;
+
+        if (studentId != null && !items.isEmpty()) {
+            Map<Long, String> myStatuses = new HashMap<>();
+            for (var app : applicationRepo.findStatusesByStudentIdAndProjectIds(studentId,
+                    items.stream().map(ProjectBrowseItem::id).toList())) {
+                myStatuses.put(app.getProjectId(), app.getStatus().name());
+            }
+            items = items.stream()
+                    .map(item -> item.withMyApplicationStatus(myStatuses.get(item.id())))
+                    .collect(Collectors.toList());
+        }
+
+        if (!hasMore) {
+            return CursorPage.last(items);
+        }
+        ProjectBrowseItem last = items.get(items.size() - 1);
+        return new CursorPage<>(items, CursorCodec.encode(last.createdAt(), last.id()), true);
+    }
+
+    /**
+     * Get the first page of OPEN projects near the given coordinates.
+     *
+     * @see #getNearbyProjects(double, double, double, int, String)
+     */
+    @Transactional(readOnly = true)
+    public List<NearbyProjectResponse> getNearbyProjects(double lat, double lng, double radiusKm) {
+        return getNearbyProjects(lat, lng, radiusKm, DEFAULT_NEARBY_PAGE_SIZE, null).items();
     }
 
     /**
-     * Get OPEN projects near the given coordinates within a radius (km).
+     * Get OPEN projects near the given coordinates within a radius (km), one
+     * page at a time.
      *
      * <p>
      * Behavior:
@@ -98,17 +201,27 @@ public class ProjectViewerService {
      * (projects without coordinates never appear here).</li>
      * <li>Distance is computed via the Haversine formula and projects beyond
      * {@code radiusKm} are filtered out.</li>
-     * <li>Results are sorted nearest-first and include {@code distanceKm}.</li>
+     * <li>Results are sorted nearest-first (ties by id) and include
+     * {@code distanceKm}.</li>
+     * <li>Candidates come from {@link ProjectSpatialIndex} once it is ready; until
+     * then they are prefiltered in the database by the radius' bounding box.</li>
+     * <li>Only the nearest {@code limit} candidates after the cursor are kept (in
+     * a bounded heap), so a request never sorts or maps more than one page.</li>
      * </ul>
      *
      * @param lat      user latitude, must be in [-90, 90]
      * @param lng      user longitude, must be in [-180, 180]
      * @param radiusKm search radius in km, must be positive (capped at
      *                 {@link #MAX_RADIUS_KM})
+     * @param limit    page size, must be positive (capped at
+     *                 {@link #MAX_NEARBY_PAGE_SIZE})
+     * @param cursor   {@code nextCursor} of the previous page, or null for the
+     *                 first page
      * @throws IllegalArgumentException if any parameter is out of range
      */
     @Transactional(readOnly = true)
-    public List<NearbyProjectResponse> getNearbyProjects(double lat, double lng, double radiusKm) {
+    public CursorPage<NearbyProjectResponse> getNearbyProjects(double lat, double lng, double radiusKm,
+            int limit, String cursor) {
         // --- Validation (clear messages surfaced as 400 by GlobalExceptionHandler) ---
         if (lat < -90 || lat > 90) {
             throw new IllegalArgumentException("lat must be between -90 and 90");
@@ -119,24 +232,121 @@ public class ProjectViewerService {
         if (radiusKm <= 0) {
             throw new IllegalArgumentException("radiusKm must be positive");
         }
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
 
         // Cap the radius to a safe maximum to avoid overly broad scans.
         double effectiveRadius = Math.min(radiusKm, MAX_RADIUS_KM);
+        int pageSize = Math.min(limit, MAX_NEARBY_PAGE_SIZE);
+
+        // Keyset position: (distanceKm, id) of the last item on the previous page.
+        double afterDistance = Double.NEGATIVE_INFINITY;
+        long afterId = Long.MIN_VALUE;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] parts = CursorCodec.decode(cursor, 2);
+            try {
+                afterDistance = Double.parseDouble(parts[0]);
+                afterId = Long.parseLong(parts[1]);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+
+        if (spatialIndex.isReady()) {
+            return getNearbyProjectsFromIndex(lat, lng, effectiveRadius, pageSize, afterDistance, afterId);
+        }
+
+        // Only read candidates inside the bounding box; if it crosses the
+        // antimeridian fall back to the latitude band.
+        GeoUtils.BoundingBox box = GeoUtils.boundingBox(lat, lng, effectiveRadius);
+        double minLng = box.crossesAntimeridian() ? -180 : box.minLng();
+        double maxLng = box.crossesAntimeridian() ? 180 : box.maxLng();
+        List<Project> candidates = projectRepo.findByStatusAndLatitudeBetweenAndLongitudeBetween(
+                ProjectStatus.OPEN, box.minLat(), box.maxLat(), minLng, maxLng);
+
+        // Keep one extra candidate to know whether another page exists.
+        TopK<NearbyCandidate> nearest = new TopK<>(pageSize + 1, NearbyCandidate.ORDER);
+        for (Project p : candidates) {
+            // Defensive guard in case any coordinate slipped through as null.
+            if (p.getLatitude() == null || p.getLongitude() == null) {
+                continue;
+            }
+            double distance = GeoUtils.haversineKm(lat, lng, p.getLatitude(), p.getLongitude());
+            if (distance <= effectiveRadius && isAfter(distance, p.getId(), afterDistance, afterId)) {
+                nearest.offer(new NearbyCandidate(p, distance));
+            }
+        }
+
+        List<NearbyCandidate> page = nearest.toSortedList();
+        boolean hasMore = page.size() > pageSize;
+        if (hasMore) {
+            page = page.subList(0, pageSize);
+        }
+
+        List<NearbyProjectResponse> items = page.stream()
+                .map(c -> mapToNearbyDTO(c.project(), c.distanceKm()))
+                .collect(Collectors.toList());
+        if (!hasMore) {
+            return CursorPage.last(items);
+        }
+        NearbyCandidate last = page.get(page.size() - 1);
+        return new CursorPage<>(items, CursorCodec.encode(last.distanceKm(), last.project().getId()), true);
+    }
 
-        List<Project> candidates = projectRepo
-                .findByStatusAndLatitudeIsNotNullAndLongitudeIsNotNull(ProjectStatus.OPEN);
+    /**
+     * Nearby lookup backed by the in-memory grid: only the ids on the requested
+     * page are loaded from the database.
+     */
+    private CursorPage<NearbyProjectResponse> getNearbyProjectsFromIndex(double lat, double lng, double radiusKm,
+            int pageSize, double afterDistance, long afterId) {
+        List<ProjectSpatialIndex.Hit> hits = spatialIndex.nearest(lat, lng, radiusKm, pageSize + 1,
+                afterDistance, afterId);
+        if (hits.isEmpty()) {
+            return CursorPage.last(List.of());
+        }
+        boolean hasMore = hits.size() > pageSize;
+        if (hasMore) {
+            hits = hits.subList(0, pageSize);
+        }
 
-        return candidates.stream()
-                // Defensive guard in case any coordinate slipped through as null.
-                .filter(p -> p.getLatitude() != null && p.getLongitude() != null)
-                .map(p -> {
-                    double distance = GeoUtils.haversineKm(lat, lng, p.getLatitude(), p.getLongitude());
-                    return Map.entry(p, distance);
+        Map<Long, Project> byId = projectRepo
+                .findAllById(hits.stream().map(ProjectSpatialIndex.Hit::projectId).toList())
+                .stream()
+                .collect(Collectors.toMap(Project::getId, p -> p));
+
+        // Hits are already sorted; skip anything deleted or closed since indexing.
+        List<NearbyProjectResponse> items = hits.stream()
+                .filter(hit -> {
+                    Project p = byId.get(hit.projectId());
+                    return p != null && p.getStatus() == ProjectStatus.OPEN;
                 })
-                .filter(entry -> entry.getValue() <= effectiveRadius)
-                .sorted(Comparator.comparingDouble(Map.Entry::getValue))
-                .map(entry -> mapToNearbyDTO(entry.getKey(), entry.getValue()))
+                .map(hit -> mapToNearbyDTO(byId.get(hit.projectId()), hit.distanceKm()))
                 .collect(Collectors.toList());
+        if (!hasMore) {
+            return CursorPage.last(items);
+        }
+        ProjectSpatialIndex.Hit last = hits.get(hits.size() - 1);
+        return new CursorPage<>(items, CursorCodec.encode(last.distanceKm(), last.projectId()), true);
+    }
+
+    /**
+     * Keyset predicate: is (distance, id) strictly after the cursor position?
+     */
+    private static boolean isAfter(double distance, Long id, double afterDistance, long afterId) {
+        if (distance != afterDistance) {
+            return distance > afterDistance;
+        }
+        return id != null && id > afterId;
+    }
+
+    /**
+     * Project with its computed distance, ordered nearest-first then by id.
+     */
+    private record NearbyCandidate(Project project, double distanceKm) {
+        static final Comparator<NearbyCandidate> ORDER = Comparator
+                .comparingDouble(NearbyCandidate::distanceKm)
+                .thenComparing(c -> c.project().getId(), Comparator.nullsLast(Comparator.naturalOrder()));
     }
 
     /**
@@ -167,14 +377,7 @@ public class ProjectViewerService {
     @Transactional(readOnly = true)
     public List<ProjectWithStatusResponse> getProjectsByStudent(Long studentId) {
         List<Project> projects = projectRepo.findProjectsByStudentId(studentId);
-
-        return projects.stream().map(p -> {
-            String myStatus = applicationRepo.findByProjectIdAndStudentId(p.getId(), studentId)
-                    .map(app -> app.getStatus().name())
-                    .orElse(null);
-
-            return mapToDTO(p, myStatus);
-        }).collect(Collectors.toList());
+        return toStatusResponses(projects, studentId);
     }
 
     /**
@@ -205,15 +408,48 @@ public class ProjectViewerService {
         return briefData;
     }
 
+    /**
+     * Map a list of projects to DTOs with a constant number of queries: the
+     * student's application statuses and the latest submission of every project
+     * are each loaded in one batch (per {@value #ID_BATCH_SIZE} ids) instead of
+     * once per project.
+     */
+    private List<ProjectWithStatusResponse> toStatusResponses(List<Project> projects, Long studentId) {
+        List<Long> ids = projects.stream()
+                .map(Project::getId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toList());
+
+        Map<Long, String> myStatuses = new HashMap<>();
+        Map<Long, WorkSubmissionRepository.LatestSubmission> latestSubmissions = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += ID_BATCH_SIZE) {
+            List<Long> batch = ids.subList(from, Math.min(from + ID_BATCH_SIZE, ids.size()));
+            if (studentId != null) {
+                for (var app : applicationRepo.findStatusesByStudentIdAndProjectIds(studentId, batch)) {
+                    myStatuses.put(app.getProjectId(), app.getStatus().name());
+                }
+            }
+            for (var submission : workSubmissionRepo.findLatestByProjectIds(batch)) {
+                // Same submittedAt on two submissions: keep the one inserted last.
+                latestSubmissions.merge(submission.getProjectId(), submission,
+                        (a, b) -> a.getId() >= b.getId() ? a : b);
+            }
+        }
+
+        return projects.stream()
+                .map(p -> mapToDTO(p, myStatuses.get(p.getId()), latestSubmissions.get(p.getId())))
+                .collect(Collectors.toList());
+    }
+
     /**
      * Helper: Map Project entity to DTO.
      */
-    private ProjectWithStatusResponse mapToDTO(Project p, String myStatus) {
-        List<WorkSubmission> submissions = workSubmissionRepo.findByProjectIdOrderBySubmittedAtDesc(p.getId());
+    private ProjectWithStatusResponse mapToDTO(Project p, String myStatus,
+            WorkSubmissionRepository.LatestSubmission latest) {
         String latestSubmissionStatus = null;
         String latestSubmissionFeedback = null;
-        if (!submissions.isEmpty()) {
-            WorkSubmission latest = submissions.get(0);
+        if (latest != null) {
             latestSubmissionStatus = latest.getStatus();
             latestSubmissionFeedback = latest.getFeedback();
         }
@@ -249,15 +485,6 @@ public class ProjectViewerService {
      */
     @Transactional(readOnly = true)
     public List<ProjectWithStatusResponse> convertToStatusResponse(List<Project> projects, Long studentId) {
-        return projects.stream().map(p -> {
-            String myStatus = null;
-            if (studentId != null) {
-                var app = applicationRepo.findByProjectIdAndStudentId(p.getId(), studentId);
-                if (app.isPresent()) {
-                    myStatus = app.get().getStatus().name();
-                }
-            }
-            return mapToDTO(p, myStatus);
-        }).collect(Collectors.toList());
+        return toStatusResponses(projects, studentId);
     }
 }
@@ -0,0 +1,44 @@
+package com.example.QucikTurn.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Sends a push notification to a batch of device tokens. FCM in production
+ * (FcmPushNotificationSender); tests use a recording fake.
+ */
+public interface PushNotificationSender {
+
+    /** Most tokens one multicast may address (FCM limit). */
+    int MAX_TOKENS_PER_BATCH = 500;
+
+    /**
+     * A push notification: what the device shows plus data for the app.
+     */
+    record PushMessage(String title, String body, Map<String, String> data) {
+    }
+
+    /**
+     * Outcome of one batch: how many devices accepted the message and which
+     * tokens FCM reported as no longer valid (to be deleted).
+     */
+    record SendResult(int successCount, List<String> invalidTokens) {
+
+        public static final SendResult NONE = new SendResult(0, List.of());
+    }
+
+    /**
+     * Whether pushes can be sent at all (e.g. Firebase credentials configured).
+     */
+    boolean isEnabled();
+
+    /**
+     * Start sending the message to at most {@link #MAX_TOKENS_PER_BATCH}
+     * tokens without blocking the caller.
+     *
+     * @return completes with the devices the message was accepted for and the
+     *         tokens found invalid ({@link SendResult#NONE} if the send failed)
+     */
+    CompletableFuture<SendResult> send(List<String> tokens, PushMessage message);
+}
@@ -4,33 +4,63 @@ import com.example.QucikTurn.Entity.Project;
 import com.example.QucikTurn.Entity.User;
 import com.example.QucikTurn.Entity.enums.ProjectStatus;
 import com.example.QucikTurn.Repository.ProjectRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 /**
  * Recommendation Service using Content-Based Filtering (KNN-like approach).
- * 
+ *
  * Algorithm: Weighted Jaccard Similarity
  * - Calculates similarity between User skills/preferences and Project requirements.
  * - Scores are based on:
  *   1. Skill Match (High Weight - 0.7): How many user skills match project required skills
  *   2. Category Match (Medium Weight - 0.3): Does user's preferred category match project category
- * 
- * Projects are sorted by score and top K are returned.
+ *
+ * The top K projects are selected with a bounded heap rather than sorting
+ * every scored project.
+ *
+ * Candidates come from {@link ProjectSkillIndex} when it is ready, so only
+ * projects that can score above zero are visited; otherwise every open project
+ * is scanned.
+ *
+ * Each user's ranked project ids are cached (Caffeine, see
+ * {@code app.recommendation.cache.spec}). The cache listens to
+ * {@link ProjectSkillIndex} changes: a new or updated project is inserted into
+ * the cached rankings it belongs in, and only rankings that contain a removed
+ * project are dropped. Profile changes evict the user's entry via
+ * {@link #evictUser}.
  */
 @Service
-public class RecommendationService {
+public class RecommendationService implements ProjectSkillIndex.ChangeListener {
 
     private static final double WEIGHT_SKILLS = 0.7;
     private static final double WEIGHT_CATEGORY = 0.3;
     private static final int DEFAULT_LIMIT = 10;
+    private static final Pattern CATEGORY_WORD_SEPARATOR = Pattern.compile("[\\s/,]+");
 
     private final ProjectRepository projectRepo;
+    private final ProjectSkillIndex skillIndex;
 
-    public RecommendationService(ProjectRepository projectRepo) {
+    /** Ranked project ids per user id; null when caching is disabled. */
+    private final Cache<Long, CachedRanking> rankingCache;
+    /** Bumped on every project change so rankings computed across a change are not cached. */
+    private final AtomicLong projectChanges = new AtomicLong();
+
+    public RecommendationService(ProjectRepository projectRepo, ProjectSkillIndex skillIndex,
+            @Value("${app.recommendation.cache.spec:maximumSize=10000,expireAfterWrite=600s}") String cacheSpec) {
         this.projectRepo = projectRepo;
+        this.skillIndex = skillIndex;
+        this.rankingCache = cacheSpec == null || cacheSpec.isBlank()
+                ? null
+                : Caffeine.from(cacheSpec).build();
+        skillIndex.addListener(this);
     }
 
     /**
@@ -44,46 +74,51 @@ public class RecommendationService {
         if (user == null) {
             return Collections.emptyList();
         }
-
-        // Get all open projects
-        List<Project> openProjects = projectRepo.findByStatus(ProjectStatus.OPEN);
-        
-        if (openProjects.isEmpty()) {
-            return Collections.emptyList();
-        }
+        int k = limit > 0 ? limit : DEFAULT_LIMIT;
 
         // Parse user's skills into a Set for efficient lookup
         Set<String> userSkills = parseSkills(user.getSkills());
         String userCategory = user.getBidang(); // User's preferred category/field
+        String userCategoryLower = userCategory != null ? userCategory.toLowerCase().trim() : null;
 
-        // Calculate scores for each project
-        List<ScoredProject> scoredProjects = new ArrayList<>();
-        for (Project project : openProjects) {
-            double score = calculateScore(project, userSkills, userCategory);
-            scoredProjects.add(new ScoredProject(project, score));
-        }
-
-        // Sort by score descending, then by applicant count (social proof), then by date
-        scoredProjects.sort((a, b) -> {
-            int scoreCompare = Double.compare(b.score, a.score);
-            if (scoreCompare != 0) return scoreCompare;
-            
-            // Secondary sort: more applicants = more popular
-            int applicantCompare = Integer.compare(
-                b.project.getApplicantCount() != null ? b.project.getApplicantCount() : 0,
-                a.project.getApplicantCount() != null ? a.project.getApplicantCount() : 0
-            );
-            if (applicantCompare != 0) return applicantCompare;
-            
-            // Tertiary sort: newer projects first
-            return b.project.getCreatedAt().compareTo(a.project.getCreatedAt());
-        });
-
-        // Return top K projects
-        return scoredProjects.stream()
-                .limit(limit > 0 ? limit : DEFAULT_LIMIT)
-                .map(sp -> sp.project)
-                .collect(Collectors.toList());
+        Long userId = rankingCache != null ? user.getId() : null;
+        if (userId != null) {
+            CachedRanking cached = rankingCache.getIfPresent(userId);
+            if (cached != null && cached.matches(userSkills, userCategoryLower) && cached.covers(k)) {
+                long[] ids = cached.topIds(k);
+                List<Project> projects = loadInOrder(ids);
+                if (projects.size() == ids.length) {
+                    return projects;
+                }
+                // A cached project closed without the change reaching this node.
+                rankingCache.invalidate(userId);
+            }
+        }
+
+        long changesBefore = projectChanges.get();
+        List<Project> result;
+        Ranking ranking;
+        if (!skillIndex.isReady()) {
+            List<Project> openProjects = projectRepo.findByStatus(ProjectStatus.OPEN);
+            ranking = rankByFullScan(openProjects, userSkills, userCategoryLower, k);
+            result = new ArrayList<>(ranking.size());
+            for (int position : ranking.refs()) {
+                result.add(openProjects.get(position));
+            }
+        } else {
+            ranking = rankFromIndex(userSkills, userCategoryLower, k);
+            result = loadInOrder(ranking.ids());
+        }
+
+        if (userId != null) {
+            rankingCache.put(userId, new CachedRanking(userSkills, userCategoryLower, k, ranking));
+            // A project change raced with this computation; the change may already
+            // have been applied to the entries, so drop ours rather than keep a stale one.
+            if (projectChanges.get() != changesBefore) {
+                rankingCache.invalidate(userId);
+            }
+        }
+        return result;
     }
 
     /**
@@ -93,76 +128,242 @@ public class RecommendationService {
         return getRecommendationsForUser(user, DEFAULT_LIMIT);
     }
 
+    /**
+     * Drop a user's cached ranking, e.g. after their skills or bidang changed.
+     */
+    public void evictUser(Long userId) {
+        if (rankingCache != null && userId != null) {
+            rankingCache.invalidate(userId);
+        }
+    }
+
+    /**
+     * Insert a new or updated project into every cached ranking it now belongs
+     * in. Rankings that already contain it are repositioned when its rank did
+     * not get worse and dropped otherwise.
+     *
+     * <p>
+     * Runs on every apply (applicant count change), so rankings the project
+     * cannot enter, or already holds with the same values, are only checked,
+     * not rewritten. When only the applicant count changed, a ranking that
+     * holds the project reuses its stored score, and category words are split
+     * once per call and once per cached user instead of per entry.
+     * </p>
+     */
+    @Override
+    public void projectUpserted(long projectId, Set<String> skills, String category, int applicantCount,
+            long createdAt, boolean scoreInputsChanged) {
+        projectChanges.incrementAndGet();
+        if (rankingCache == null) {
+            return;
+        }
+        String[] categoryWords = category != null ? categoryWords(category) : null;
+        for (Map.Entry<Long, CachedRanking> entry : rankingCache.asMap().entrySet()) {
+            double score = scoreFor(entry.getValue(), projectId, scoreInputsChanged, skills, category,
+                    categoryWords);
+            if (!entry.getValue().affectedBy(projectId, score, applicantCount, createdAt)) {
+                continue;
+            }
+            rankingCache.asMap().computeIfPresent(entry.getKey(), (id, cached) -> cached.withUpsert(projectId,
+                    scoreFor(cached, projectId, scoreInputsChanged, skills, category, categoryWords),
+                    applicantCount, createdAt));
+        }
+    }
+
+    private static double scoreFor(CachedRanking cached, long projectId, boolean scoreInputsChanged,
+            Set<String> skills, String category, String[] categoryWords) {
+        if (!scoreInputsChanged) {
+            int existing = cached.ranking().indexOf(projectId);
+            if (existing >= 0) {
+                return cached.ranking().scores()[existing];
+            }
+        }
+        int overlap = 0;
+        for (String skill : skills) {
+            if (cached.userSkills().contains(skill)) {
+                overlap++;
+            }
+        }
+        double categoryScore = category != null
+                ? categoryScore(category, categoryWords, cached.userCategory(), cached.userCategoryWords())
+                : 0.0;
+        return score(overlap, skills.size(), cached.userSkills().isEmpty(), categoryScore);
+    }
+
+    /**
+     * Drop only the cached rankings that contain the removed project; the
+     * others are still exact.
+     */
+    @Override
+    public void projectRemoved(long projectId) {
+        projectChanges.incrementAndGet();
+        if (rankingCache == null) {
+            return;
+        }
+        rankingCache.asMap().values().removeIf(cached -> cached.ranking().indexOf(projectId) >= 0);
+    }
+
+    private Ranking rankFromIndex(Set<String> userSkills, String userCategoryLower, int k) {
+        RankedHeap top = new RankedHeap(k);
+        boolean userSkillsEmpty = userSkills.isEmpty();
+        ProjectSkillIndex.CandidateVisitor collect = (projectId, overlap, skillCount, categoryScore,
+                applicantCount, createdAt) -> top.offer(
+                        score(overlap, skillCount, userSkillsEmpty, categoryScore),
+                        applicantCount, createdAt, projectId, -1);
+
+        skillIndex.visitCandidates(userSkills, category -> categoryScore(category, userCategoryLower), false, collect);
+        if (top.size() < k) {
+            // Not enough positive matches: zero-score projects fill the rest, as before.
+            top.clear();
+            skillIndex.visitCandidates(userSkills, category -> categoryScore(category, userCategoryLower), true,
+                    collect);
+        }
+        return top.drainBestFirst();
+    }
+
+    /**
+     * Fallback used until {@link ProjectSkillIndex} is built: score every open
+     * project loaded from the database. {@link Ranking#refs()} holds positions
+     * in {@code openProjects}.
+     */
+    private Ranking rankByFullScan(List<Project> openProjects, Set<String> userSkills, String userCategoryLower,
+            int k) {
+        RankedHeap top = new RankedHeap(k);
+        for (int i = 0; i < openProjects.size(); i++) {
+            Project project = openProjects.get(i);
+            double score = calculateScore(project, userSkills, userCategoryLower);
+            top.offer(score,
+                    project.getApplicantCount() != null ? project.getApplicantCount() : 0,
+                    ProjectSkillIndex.createdAtKey(project.getCreatedAt()),
+                    project.getId() != null ? project.getId() : Long.MIN_VALUE,
+                    i);
+        }
+        return top.drainBestFirst();
+    }
+
+    /**
+     * Load projects by id preserving the ranking order, dropping any that were
+     * deleted or closed since they were indexed.
+     */
+    private List<Project> loadInOrder(long[] ids) {
+        if (ids.length == 0) {
+            return Collections.emptyList();
+        }
+        List<Long> idList = Arrays.stream(ids).boxed().collect(Collectors.toList());
+        Map<Long, Project> byId = projectRepo.findAllById(idList).stream()
+                .collect(Collectors.toMap(Project::getId, p -> p));
+        return idList.stream()
+                .map(byId::get)
+                .filter(p -> p != null && p.getStatus() == ProjectStatus.OPEN)
+                .collect(Collectors.toList());
+    }
+
     /**
      * Calculate recommendation score for a project based on user profile.
      * Uses a weighted sum of skill match and category match.
      *
-     * @param project      The project to score
-     * @param userSkills   Set of user's skills (lowercase, trimmed)
-     * @param userCategory User's preferred category
+     * @param project           The project to score
+     * @param userSkills        Set of user's skills (lowercase, trimmed)
+     * @param userCategoryLower User's preferred category (lowercase, trimmed)
      * @return Score between 0.0 and 1.0
      */
-    private double calculateScore(Project project, Set<String> userSkills, String userCategory) {
-        double skillScore = 0.0;
-        double categoryScore = 0.0;
-
-        // --- Skill Match (Jaccard-like coefficient) ---
+    private double calculateScore(Project project, Set<String> userSkills, String userCategoryLower) {
         Set<String> projectSkills = parseSkills(project.getRequiredSkills());
-        
+
+        int overlap = 0;
         if (!projectSkills.isEmpty() && !userSkills.isEmpty()) {
-            // Calculate intersection
-            Set<String> intersection = new HashSet<>(userSkills);
-            intersection.retainAll(projectSkills);
-            
-            // Jaccard coefficient: |A ∩ B| / |A ∪ B|
-            // Modified: We prioritize user having the project's required skills
-            // So we use: |intersection| / |projectSkills|
-            skillScore = (double) intersection.size() / projectSkills.size();
-        } else if (projectSkills.isEmpty()) {
+            for (String skill : projectSkills) {
+                if (userSkills.contains(skill)) {
+                    overlap++;
+                }
+            }
+        }
+
+        double categoryScore = project.getCategory() != null
+                ? categoryScore(project.getCategory().toLowerCase().trim(), userCategoryLower)
+                : 0.0;
+        return score(overlap, projectSkills.size(), userSkills.isEmpty(), categoryScore);
+    }
+
+    /**
+     * Weighted sum of skill match and category match.
+     *
+     * <p>
+     * Skill match is |intersection| / |projectSkills|: we prioritize the user
+     * having the project's required skills. A project with no required skills
+     * gets a neutral 0.5.
+     * </p>
+     */
+    private static double score(int overlap, int projectSkillCount, boolean userSkillsEmpty, double categoryScore) {
+        double skillScore = 0.0;
+        if (projectSkillCount > 0 && !userSkillsEmpty) {
+            skillScore = (double) overlap / projectSkillCount;
+        } else if (projectSkillCount == 0) {
             // If project has no required skills, give neutral score
             skillScore = 0.5;
         }
+        return (skillScore * WEIGHT_SKILLS) + (categoryScore * WEIGHT_CATEGORY);
+    }
 
-        // --- Category Match ---
-        if (userCategory != null && !userCategory.isBlank() && project.getCategory() != null) {
-            String projectCategory = project.getCategory().toLowerCase().trim();
-            String userCategoryLower = userCategory.toLowerCase().trim();
-            
-            if (projectCategory.contains(userCategoryLower) || userCategoryLower.contains(projectCategory)) {
-                categoryScore = 1.0;
-            } else {
-                // Partial match: check for keyword overlap
-                String[] projectWords = projectCategory.split("[\\s/,]+");
-                String[] userWords = userCategoryLower.split("[\\s/,]+");
-                
-                for (String pw : projectWords) {
-                    for (String uw : userWords) {
-                        if (pw.equals(uw) || pw.contains(uw) || uw.contains(pw)) {
-                            categoryScore = 0.5;
-                            break;
-                        }
-                    }
-                    if (categoryScore > 0) break;
+    /**
+     * Category match between a project's category and the user's preferred
+     * category, both already lowercased and trimmed.
+     *
+     * @return 1.0 for a containment match, 0.5 for keyword overlap, else 0.0
+     */
+    private static double categoryScore(String projectCategory, String userCategoryLower) {
+        if (userCategoryLower == null || userCategoryLower.isBlank()) {
+            return 0.0;
+        }
+        return categoryScore(projectCategory, categoryWords(projectCategory), userCategoryLower,
+                categoryWords(userCategoryLower));
+    }
+
+    /**
+     * {@link #categoryScore(String, String)} with both categories already split
+     * by {@link #categoryWords}.
+     */
+    private static double categoryScore(String projectCategory, String[] projectWords, String userCategoryLower,
+            String[] userWords) {
+        if (userCategoryLower == null || userCategoryLower.isBlank()) {
+            return 0.0;
+        }
+        if (projectCategory.contains(userCategoryLower) || userCategoryLower.contains(projectCategory)) {
+            return 1.0;
+        }
+
+        // Partial match: check for keyword overlap
+        for (String pw : projectWords) {
+            for (String uw : userWords) {
+                if (pw.equals(uw) || pw.contains(uw) || uw.contains(pw)) {
+                    return 0.5;
                 }
             }
         }
+        return 0.0;
+    }
 
-        // Weighted sum
-        return (skillScore * WEIGHT_SKILLS) + (categoryScore * WEIGHT_CATEGORY);
+    /**
+     * Words of a normalized category, for the partial match in
+     * {@link #categoryScore}.
+     */
+    private static String[] categoryWords(String category) {
+        return category == null ? new String[0] : CATEGORY_WORD_SEPARATOR.split(category);
     }
 
     /**
      * Parse comma-separated skills string into a normalized Set.
      * Normalizes by: lowercase, trimming whitespace.
+     * Shared with {@link ProjectSkillIndex} so both sides normalize identically.
      *
      * @param skillsStr Comma-separated skills (e.g., "Java, React, Node.js")
      * @return Set of normalized skill strings
      */
-    private Set<String> parseSkills(String skillsStr) {
+    static Set<String> parseSkills(String skillsStr) {
         if (skillsStr == null || skillsStr.isBlank()) {
             return Collections.emptySet();
         }
-        
+
         return Arrays.stream(skillsStr.split(","))
                 .map(String::trim)
                 .map(String::toLowerCase)
@@ -171,15 +372,292 @@ public class RecommendationService {
     }
 
     /**
-     * Internal class to hold project with its calculated score.
+     * Ranking order: score descending, then applicant count (social proof),
+     * then newer first, and finally higher id first so exact ties rank the same
+     * on the indexed and full-scan paths.
+     *
+     * @return negative if the first project ranks before the second
      */
-    private static class ScoredProject {
-        final Project project;
-        final double score;
+    static int compareRank(double score1, int applicants1, long createdAt1, long id1,
+            double score2, int applicants2, long createdAt2, long id2) {
+        int c = Double.compare(score2, score1);
+        if (c != 0) {
+            return c;
+        }
+        c = Integer.compare(applicants2, applicants1);
+        if (c != 0) {
+            return c;
+        }
+        c = Long.compare(createdAt2, createdAt1);
+        if (c != 0) {
+            return c;
+        }
+        return Long.compare(id2, id1);
+    }
+
+    /**
+     * Bounded top-K selection over primitive score arrays.
+     *
+     * <p>
+     * A binary heap whose root is the worst of the K projects kept so far, so
+     * ranking N candidates costs O(N log K) instead of sorting all N, and
+     * offering a candidate allocates nothing. {@code ref} is an opaque
+     * caller-side position carried along with each entry.
+     * </p>
+     */
+    static final class RankedHeap {
+        private final int k;
+        private int size;
+        private double[] scores;
+        private int[] applicants;
+        private long[] createdAt;
+        private long[] ids;
+        private int[] refs;
+
+        RankedHeap(int k) {
+            this.k = k;
+            int capacity = Math.min(k, 64);
+            scores = new double[capacity];
+            applicants = new int[capacity];
+            createdAt = new long[capacity];
+            ids = new long[capacity];
+            refs = new int[capacity];
+        }
+
+        int size() {
+            return size;
+        }
+
+        void clear() {
+            size = 0;
+        }
+
+        void offer(double score, int applicantCount, long created, long id, int ref) {
+            if (size < k) {
+                if (size == scores.length) {
+                    grow();
+                }
+                set(size, score, applicantCount, created, id, ref);
+                siftUp(size++);
+            } else if (compareRank(score, applicantCount, created, id,
+                    scores[0], applicants[0], createdAt[0], ids[0]) < 0) {
+                set(0, score, applicantCount, created, id, ref);
+                siftDown(0);
+            }
+        }
+
+        /**
+         * Empty the heap into a {@link Ranking}, best first.
+         */
+        Ranking drainBestFirst() {
+            Ranking ranking = new Ranking(new long[size], new double[size], new int[size], new long[size],
+                    new int[size]);
+            while (size > 0) {
+                int last = --size;
+                ranking.ids()[last] = ids[0];
+                ranking.scores()[last] = scores[0];
+                ranking.applicants()[last] = applicants[0];
+                ranking.createdAt()[last] = createdAt[0];
+                ranking.refs()[last] = refs[0];
+                move(last, 0);
+                siftDown(0);
+            }
+            return ranking;
+        }
+
+        /** True if entry i ranks after entry j, i.e. belongs nearer the root. */
+        private boolean worse(int i, int j) {
+            return compareRank(scores[i], applicants[i], createdAt[i], ids[i],
+                    scores[j], applicants[j], createdAt[j], ids[j]) > 0;
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!worse(i, parent)) {
+                    break;
+                }
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int left = 2 * i + 1;
+                if (left >= size) {
+                    return;
+                }
+                int worst = left + 1 < size && worse(left + 1, left) ? left + 1 : left;
+                if (!worse(worst, i)) {
+                    return;
+                }
+                swap(i, worst);
+                i = worst;
+            }
+        }
+
+        private void set(int i, double score, int applicantCount, long created, long id, int ref) {
+            scores[i] = score;
+            applicants[i] = applicantCount;
+            createdAt[i] = created;
+            ids[i] = id;
+            refs[i] = ref;
+        }
+
+        private void move(int from, int to) {
+            set(to, scores[from], applicants[from], createdAt[from], ids[from], refs[from]);
+        }
+
+        private void swap(int i, int j) {
+            double score = scores[i];
+            int applicantCount = applicants[i];
+            long created = createdAt[i];
+            long id = ids[i];
+            int ref = refs[i];
+            move(j, i);
+            set(j, score, applicantCount, created, id, ref);
+        }
 
-        ScoredProject(Project project, double score) {
-            this.project = project;
-            this.score = score;
+        private void grow() {
+            int capacity = Math.min(k, scores.length * 2);
+            scores = Arrays.copyOf(scores, capacity);
+            applicants = Arrays.copyOf(applicants, capacity);
+            createdAt = Arrays.copyOf(createdAt, capacity);
+            ids = Arrays.copyOf(ids, capacity);
+            refs = Arrays.copyOf(refs, capacity);
+        }
+    }
+
+    /**
+     * Ranked projects, best first, as parallel primitive arrays.
+     */
+    record Ranking(long[] ids, double[] scores, int[] applicants, long[] createdAt, int[] refs) {
+        int size() {
+            return ids.length;
+        }
+
+        Ranking copy() {
+            return new Ranking(ids.clone(), scores.clone(), applicants.clone(), createdAt.clone(), refs.clone());
+        }
+
+        int indexOf(long projectId) {
+            for (int i = 0; i < ids.length; i++) {
+                if (ids[i] == projectId) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * A user's cached ranking together with the profile it was computed for.
+     * When fewer than {@code k} projects are ranked, the ranking holds every
+     * open project. The ranking is never modified once cached; changes build a
+     * new one, since other threads read it without locking.
+     */
+    private record CachedRanking(Set<String> userSkills, String userCategory, String[] userCategoryWords, int k,
+            Ranking ranking) {
+
+        CachedRanking(Set<String> userSkills, String userCategory, int k, Ranking ranking) {
+            this(userSkills, userCategory, categoryWords(userCategory), k, ranking);
+        }
+
+        boolean matches(Set<String> skills, String category) {
+            return userSkills.equals(skills) && Objects.equals(userCategory, category);
+        }
+
+        boolean covers(int limit) {
+            return limit <= k || ranking.size() < k;
+        }
+
+        long[] topIds(int limit) {
+            return Arrays.copyOf(ranking.ids(), Math.min(limit, ranking.size()));
+        }
+
+        /**
+         * @return false if {@link #withUpsert} would leave this ranking as it is:
+         *         the project is ranked with exactly these values, or is not
+         *         ranked and does not beat the last of a full ranking
+         */
+        boolean affectedBy(long projectId, double score, int applicantCount, long created) {
+            Ranking r = ranking;
+            int existing = r.indexOf(projectId);
+            if (existing >= 0) {
+                return score != r.scores()[existing] || applicantCount != r.applicants()[existing]
+                        || created != r.createdAt()[existing];
+            }
+            if (r.size() < k) {
+                return true;
+            }
+            int last = r.size() - 1;
+            return compareRank(score, applicantCount, created, projectId,
+                    r.scores()[last], r.applicants()[last], r.createdAt()[last], r.ids()[last]) < 0;
+        }
+
+        /**
+         * @return the ranking with the project inserted at its place, this
+         *         ranking if it does not make the cut, or null when the entry can
+         *         no longer be maintained exactly and must be recomputed
+         */
+        CachedRanking withUpsert(long projectId, double score, int applicantCount, long created) {
+            Ranking r = ranking;
+            int existing = r.indexOf(projectId);
+            if (existing >= 0 && compareRank(score, applicantCount, created, projectId,
+                    r.scores()[existing], r.applicants()[existing], r.createdAt()[existing], projectId) > 0) {
+                // Ranked worse than before: it may now belong below entries we do not have.
+                return null;
+            }
+
+            int kept = existing >= 0 ? r.size() - 1 : r.size();
+            int position = 0;
+            for (int i = 0; i < r.size(); i++) {
+                if (i == existing) {
+                    continue;
+                }
+                if (compareRank(score, applicantCount, created, projectId,
+                        r.scores()[i], r.applicants()[i], r.createdAt()[i], r.ids()[i]) < 0) {
+                    break;
+                }
+                position++;
+            }
+            if (position >= k) {
+                return this;
+            }
+            if (position == existing) {
+                // Same place (e.g. one more applicant): only the values change
+                Ranking next = r.copy();
+                next.scores()[existing] = score;
+                next.applicants()[existing] = applicantCount;
+                next.createdAt()[existing] = created;
+                return new CachedRanking(userSkills, userCategory, userCategoryWords, k, next);
+            }
+
+            int n = Math.min(kept + 1, k);
+            Ranking next = new Ranking(new long[n], new double[n], new int[n], new long[n], new int[n]);
+            int out = 0;
+            for (int i = 0; i <= r.size() && out < n; i++) {
+                if (out == position) {
+                    next.ids()[out] = projectId;
+                    next.scores()[out] = score;
+                    next.applicants()[out] = applicantCount;
+                    next.createdAt()[out] = created;
+                    out++;
+                    if (out == n) {
+                        break;
+                    }
+                }
+                if (i == r.size() || i == existing) {
+                    continue;
+                }
+                next.ids()[out] = r.ids()[i];
+                next.scores()[out] = r.scores()[i];
+                next.applicants()[out] = r.applicants()[i];
+                next.createdAt()[out] = r.createdAt()[i];
+                out++;
+            }
+            return new CachedRanking(userSkills, userCategory, userCategoryWords, k, next);
         }
     }
 }
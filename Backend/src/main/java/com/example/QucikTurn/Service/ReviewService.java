@@ -9,6 +9,7 @@ import com.example.QucikTurn.Repository.ContractRepository;
 import com.example.QucikTurn.Repository.ProjectRepository;
 import com.example.QucikTurn.Repository.ReviewRepository;
 import com.example.QucikTurn.Repository.UserRepository;
+import com.example.QucikTurn.Security.TokenAuthenticationCache;
 import com.example.QucikTurn.dto.ReviewRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -27,6 +28,8 @@ public class ReviewService {
     private ContractRepository contractRepository; // We need this to find the student!
     @Autowired
     private NotificationService notificationService;
+    @Autowired
+    private TokenAuthenticationCache authCache;
 
     @Transactional
     public void addReview(Long projectId, ReviewRequest request, String reviewerEmail) {
@@ -97,6 +100,7 @@ public class ReviewService {
         user.setAverageRating(newAvg);
         user.setTotalReviews(currentCount + 1);
         userRepository.save(user);
+        authCache.evictUser(user.getId());
     }
 
     /**
@@ -0,0 +1,166 @@
+package com.example.QucikTurn.Service;
+
+import com.example.QucikTurn.Entity.NotificationUnreadCounter;
+import com.example.QucikTurn.Repository.NotificationRepository;
+import com.example.QucikTurn.Repository.NotificationUnreadCounterRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-user unread notification count, maintained instead of counted.
+ *
+ * <p>
+ * The count lives in {@code notification_unread_counters} and is adjusted in
+ * the same transaction that creates or reads notifications, so the badge
+ * endpoint and the count pushed with every notification are a primary key
+ * lookup (or a Caffeine hit, see {@code app.notifications.unread-counter.cache-spec})
+ * instead of a COUNT over the user's notifications. A user without a counter
+ * row (e.g. notifications created before it existed) is counted once and
+ * seeded. A periodic job corrects any drift against the real count.
+ * </p>
+ */
+@Component
+public class UnreadNotificationCounter {
+
+    private static final Logger logger = LoggerFactory.getLogger(UnreadNotificationCounter.class);
+
+    private final NotificationUnreadCounterRepository counterRepository;
+    private final NotificationRepository notificationRepository;
+    private final Cache<Long, Long> cache; // null when disabled
+
+    public UnreadNotificationCounter(NotificationUnreadCounterRepository counterRepository,
+            NotificationRepository notificationRepository,
+            @Value("${app.notifications.unread-counter.cache-spec:maximumSize=10000,expireAfterWrite=30s}") String cacheSpec) {
+        this.counterRepository = counterRepository;
+        this.notificationRepository = notificationRepository;
+        this.cache = cacheSpec == null || cacheSpec.isBlank()
+                ? null
+                : Caffeine.from(cacheSpec).build();
+    }
+
+    /**
+     * Current unread count of the user.
+     */
+    public long get(Long userId) {
+        if (cache == null) {
+            return load(userId);
+        }
+        return cache.get(userId, this::load);
+    }
+
+    /**
+     * A notification was created for the user.
+     */
+    public void increment(Long userId) {
+        adjust(userId, 1);
+    }
+
+    /**
+     * One of the user's unread notifications was read.
+     */
+    public void decrement(Long userId) {
+        adjust(userId, -1);
+    }
+
+    /**
+     * All of the user's notifications were read.
+     */
+    public void reset(Long userId) {
+        counterRepository.setCount(userId, 0);
+        evict(userId);
+    }
+
+    /**
+     * Correct counters that drifted from the real unread count (e.g. after a
+     * manual data fix). Notifications created while this runs may leave a
+     * counter off by one until the next run.
+     *
+     * @return number of counters corrected
+     */
+    @Scheduled(fixedDelayString = "${app.notifications.unread-counter.reconcile-ms:3600000}",
+            initialDelayString = "${app.notifications.unread-counter.reconcile-ms:3600000}")
+    @Transactional
+    public int reconcile() {
+        Map<Long, Long> actual = new HashMap<>();
+        for (Object[] row : notificationRepository.countUnreadGroupedByUser()) {
+            actual.put((Long) row[0], ((Number) row[1]).longValue());
+        }
+        Map<Long, Long> stored = new HashMap<>();
+        for (NotificationUnreadCounter counter : counterRepository.findByUnreadCountGreaterThan(0)) {
+            stored.put(counter.getUserId(), counter.getUnreadCount());
+        }
+
+        int corrected = 0;
+        for (Map.Entry<Long, Long> entry : actual.entrySet()) {
+            if (!entry.getValue().equals(stored.get(entry.getKey()))) {
+                counterRepository.setCount(entry.getKey(), entry.getValue());
+                evict(entry.getKey());
+                corrected++;
+            }
+        }
+        for (Long userId : stored.keySet()) {
+            if (!actual.containsKey(userId)) {
+                counterRepository.setCount(userId, 0);
+                evict(userId);
+                corrected++;
+            }
+        }
+        if (corrected > 0) {
+            logger.info("Reconciled {} unread notification counters", corrected);
+        }
+        return corrected;
+    }
+
+    /**
+     * Apply the change, or seed the counter from the real count (which already
+     * includes the change) if the user has none yet.
+     */
+    private void adjust(Long userId, long delta) {
+        if (counterRepository.existsById(userId)) {
+            counterRepository.addToCount(userId, delta);
+        } else {
+            counterRepository.setCount(userId, notificationRepository.countByUserIdAndReadFalse(userId));
+        }
+        evict(userId);
+    }
+
+    private long load(Long userId) {
+        return counterRepository.findById(userId)
+                .map(NotificationUnreadCounter::getUnreadCount)
+                .orElseGet(() -> {
+                    long count = notificationRepository.countByUserIdAndReadFalse(userId);
+                    counterRepository.setCount(userId, count);
+                    return count;
+                });
+    }
+
+    /**
+     * Forget the cached count now and again once the surrounding transaction
+     * commits (so a concurrent read cannot re-cache the old value).
+     */
+    private void evict(Long userId) {
+        if (cache == null) {
+            return;
+        }
+        cache.invalidate(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(userId);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.QucikTurn.Service;
+
+import org.springframework.messaging.simp.user.SimpUser;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.stereotype.Service;
+
+/**
+ * Who is connected over WebSocket right now.
+ * <p>
+ * Backed by Spring's STOMP session registry, keyed by user ID (see
+ * WebSocketAuthenticationToken). With the broker relay enabled the registry is
+ * shared between instances, so a session on another replica counts too.
+ */
+@Service
+public class UserPresenceService {
+
+    private final SimpUserRegistry userRegistry;
+
+    public UserPresenceService(SimpUserRegistry userRegistry) {
+        this.userRegistry = userRegistry;
+    }
+
+    /**
+     * Whether the user has at least one live WebSocket session.
+     */
+    public boolean isOnline(Long userId) {
+        if (userId == null) {
+            return false;
+        }
+        SimpUser user = userRegistry.getUser(String.valueOf(userId));
+        return user != null && user.hasSessions();
+    }
+
+    /**
+     * Number of users with a live WebSocket session.
+     */
+    public int onlineUserCount() {
+        return userRegistry.getUserCount();
+    }
+}
@@ -4,6 +4,7 @@ import com.example.QucikTurn.Entity.User;
 import com.example.QucikTurn.Entity.enums.Role;
 import com.example.QucikTurn.Entity.enums.AccountStatus;
 import com.example.QucikTurn.Repository.UserRepository;
+import com.example.QucikTurn.Security.TokenAuthenticationCache;
 import com.example.QucikTurn.dto.PublicProfileResponse;
 import com.example.QucikTurn.dto.UpdateProfileRequest;
 import com.example.QucikTurn.dto.UserSearchResponse;
@@ -20,9 +21,16 @@ import java.util.stream.Collectors;
 public class UserService {
 
     private final UserRepository userRepo;
+    private final RecommendationService recommendationSvc;
+    private final TokenAuthenticationCache authCache;
+    private final ChatPermissionService chatPermissionService;
 
-    public UserService(UserRepository userRepo) {
+    public UserService(UserRepository userRepo, RecommendationService recommendationSvc,
+            TokenAuthenticationCache authCache, ChatPermissionService chatPermissionService) {
         this.userRepo = userRepo;
+        this.recommendationSvc = recommendationSvc;
+        this.authCache = authCache;
+        this.chatPermissionService = chatPermissionService;
     }
 
     @Transactional
@@ -70,6 +78,10 @@ public class UserService {
         if (req.businessWebsite() != null)
             user.setBusinessWebsite(req.businessWebsite());
 
+        if (req.skills() != null)
+            recommendationSvc.evictUser(userId); // skills drive recommendations
+        authCache.evictUser(userId);
+
         return userRepo.save(user);
     }
 
@@ -136,6 +148,7 @@ public class UserService {
         User user = userRepo.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         user.setUsername(newUsername);
+        authCache.evictUser(userId);
         return userRepo.save(user);
     }
 
@@ -147,13 +160,19 @@ public class UserService {
         User user = userRepo.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         user.setBidang(bidang);
+        recommendationSvc.evictUser(userId);
+        authCache.evictUser(userId);
         return userRepo.save(user);
     }
 
     // --- ADMIN ACTIONS ---
 
+    @Transactional
     public void deleteUser(Long id) {
         userRepo.deleteById(id);
+        authCache.evictUser(id);
+        recommendationSvc.evictUser(id);
+        chatPermissionService.evictUser(id); // cached "may chat" answers naming the deleted user
     }
 
     public List<User> getAllUsers() {
@@ -168,6 +187,7 @@ public class UserService {
         User user = userRepo.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         user.setActive(false);
+        authCache.evictUser(userId);
         return userRepo.save(user);
     }
 
@@ -179,6 +199,7 @@ public class UserService {
         User user = userRepo.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         user.setActive(true);
+        authCache.evictUser(userId);
         return userRepo.save(user);
     }
 
@@ -190,6 +211,7 @@ public class UserService {
         User user = userRepo.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         user.setActive(!user.isEnabled());
+        authCache.evictUser(userId);
         return userRepo.save(user);
     }
 
@@ -244,6 +266,9 @@ public class UserService {
         }
 
         user = userRepo.saveAndFlush(user);
+        if (!isNewUser) {
+            authCache.evictUser(user.getId());
+        }
         return new OAuth2UserProcessingResult(user, isNewUser);
     }
 }
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.example.QucikTurn.dto;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing.
+ *
+ * <p>
+ * {@code nextCursor} is an opaque token to pass back as the {@code cursor}
+ * request parameter to fetch the following page; it is {@code null} on the
+ * last page.
+ * </p>
+ */
+public record CursorPage<T>(
+        List<T> items,
+        String nextCursor,
+        boolean hasMore) {
+
+    public static <T> CursorPage<T> last(List<T> items) {
+        return new CursorPage<>(items, null, false);
+    }
+}
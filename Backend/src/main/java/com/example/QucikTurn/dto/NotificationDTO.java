@@ -16,6 +16,7 @@ public class NotificationDTO {
     private String relatedEntityType;
     private Long relatedEntityId;
     private String actionUrl;
+    private int eventCount = 1; // events summarized by this notification
     private LocalDateTime createdAt;
     private LocalDateTime readAt;
     private String timeAgo; // Human-readable time like "2 hours ago"
@@ -32,6 +33,7 @@ public class NotificationDTO {
         this.relatedEntityType = notification.getRelatedEntityType();
         this.relatedEntityId = notification.getRelatedEntityId();
         this.actionUrl = notification.getActionUrl();
+        this.eventCount = Math.max(1, notification.getEventCount());
         this.createdAt = notification.getCreatedAt();
         this.readAt = notification.getReadAt();
         this.timeAgo = calculateTimeAgo(notification.getCreatedAt());
@@ -130,6 +132,14 @@ public class NotificationDTO {
         this.actionUrl = actionUrl;
     }
 
+    public int getEventCount() {
+        return eventCount;
+    }
+
+    public void setEventCount(int eventCount) {
+        this.eventCount = eventCount;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
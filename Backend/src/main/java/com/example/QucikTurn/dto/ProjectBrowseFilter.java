@@ -0,0 +1,27 @@
+package com.example.QucikTurn.dto;
+
+import com.example.QucikTurn.Entity.enums.ProjectComplexity;
+import com.example.QucikTurn.Entity.enums.WorkMode;
+import java.math.BigDecimal;
+
+/**
+ * Optional server-side filters of the project browse listing. A null field
+ * means "no filter"; blank strings are normalized to null.
+ */
+public record ProjectBrowseFilter(
+        String category,
+        WorkMode workMode,
+        ProjectComplexity complexity,
+        BigDecimal minBudget,
+        BigDecimal maxBudget,
+        String city) {
+
+    public ProjectBrowseFilter {
+        category = category == null || category.isBlank() ? null : category.trim();
+        city = city == null || city.isBlank() ? null : city.trim();
+    }
+
+    public static ProjectBrowseFilter none() {
+        return new ProjectBrowseFilter(null, null, null, null, null, null);
+    }
+}
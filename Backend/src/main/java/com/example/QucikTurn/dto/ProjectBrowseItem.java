@@ -0,0 +1,55 @@
+package com.example.QucikTurn.dto;
+
+import com.example.QucikTurn.Entity.enums.ProjectComplexity;
+import com.example.QucikTurn.Entity.enums.WorkMode;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * One card of the paginated project browse listing.
+ *
+ * <p>
+ * Built directly by a JPQL constructor expression, so no {@code Project} or
+ * {@code User} entity is loaded. Owner data is flattened to the fields a card
+ * shows. {@code myApplicationStatus} is filled in afterwards for students and
+ * is null otherwise.
+ * </p>
+ */
+public record ProjectBrowseItem(
+        Long id,
+        String title,
+        String description,
+        String category,
+        BigDecimal budget,
+        LocalDate deadline,
+        String requiredSkills,
+        String estimatedDuration,
+        ProjectComplexity complexity,
+        WorkMode workMode,
+        String city,
+        Integer applicantCount,
+        LocalDateTime createdAt,
+        Long ownerId,
+        String ownerName,
+        Double ownerAverageRating,
+        String myApplicationStatus // PENDING, APPROVED, REJECTED, or null
+) {
+
+    /**
+     * Constructor used by the repository query (no application status yet).
+     */
+    public ProjectBrowseItem(Long id, String title, String description, String category, BigDecimal budget,
+            LocalDate deadline, String requiredSkills, String estimatedDuration, ProjectComplexity complexity,
+            WorkMode workMode, String city, Integer applicantCount, LocalDateTime createdAt, Long ownerId,
+            String ownerName, Double ownerAverageRating) {
+        this(id, title, description, category, budget, deadline, requiredSkills, estimatedDuration, complexity,
+                workMode, city, applicantCount, createdAt, ownerId, ownerName, ownerAverageRating, null);
+    }
+
+    public ProjectBrowseItem withMyApplicationStatus(String status) {
+        return new ProjectBrowseItem(id, title, description, category, budget, deadline, requiredSkills,
+                estimatedDuration, complexity, workMode, city, applicantCount, createdAt, ownerId, ownerName,
+                ownerAverageRating, status);
+    }
+}
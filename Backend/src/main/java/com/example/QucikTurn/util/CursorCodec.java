@@ -0,0 +1,56 @@
+package com.example.QucikTurn.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Encodes keyset-pagination positions into opaque, URL-safe cursor strings.
+ *
+ * <p>
+ * A cursor is just the sort-key values of the last row on a page joined with
+ * {@code '|'} and Base64url-encoded, so clients cannot depend on its format.
+ * </p>
+ */
+public final class CursorCodec {
+
+    private static final String SEPARATOR = "|";
+
+    private CursorCodec() {
+        // Utility class - prevent instantiation
+    }
+
+    /**
+     * @param parts sort-key values of the last row, in sort order
+     * @return opaque cursor string
+     */
+    public static String encode(Object... parts) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < parts.length; i++) {
+            if (i > 0) {
+                sb.append(SEPARATOR);
+            }
+            sb.append(parts[i]);
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param cursor       cursor produced by {@link #encode}
+     * @param expectedParts number of values the caller expects
+     * @return the decoded values as strings
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public static String[] decode(String cursor, int expectedParts) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != expectedParts) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return parts;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
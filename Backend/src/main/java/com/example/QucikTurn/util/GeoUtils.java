@@ -16,6 +16,20 @@ public final class GeoUtils {
      */
     private static final double EARTH_RADIUS_KM = 6371.0088;
 
+    /**
+     * Length of one degree of latitude in kilometers (constant on a sphere).
+     */
+    public static final double KM_PER_DEGREE_LAT = Math.PI * EARTH_RADIUS_KM / 180.0;
+
+    /**
+     * Safety factor applied to the radius for the equirectangular pre-check in
+     * {@link #haversineKmBatch}, so approximation error never rejects a point
+     * that is actually inside the radius.
+     */
+    private static final double EQUIRECT_SLACK = 1.25;
+
+    private static final double HALF_PI = Math.PI / 2;
+
     private GeoUtils() {
         // Utility class - prevent instantiation
     }
@@ -43,6 +57,105 @@ public final class GeoUtils {
         return EARTH_RADIUS_KM * c;
     }
 
+    /**
+     * Convert decimal degrees to radians element-wise.
+     *
+     * @param degrees input values in decimal degrees
+     * @param out     destination array (may be {@code degrees} itself)
+     */
+    public static void toRadians(double[] degrees, double[] out) {
+        for (int i = 0; i < degrees.length; i++) {
+            out[i] = Math.toRadians(degrees[i]);
+        }
+    }
+
+    /**
+     * Compute the cosine of each latitude (in radians) so it can be reused by
+     * {@link #haversineKmBatch}.
+     *
+     * @param latRad latitudes in radians
+     * @param out    destination array
+     */
+    public static void cosines(double[] latRad, double[] out) {
+        for (int i = 0; i < latRad.length; i++) {
+            out[i] = Math.cos(latRad[i]);
+        }
+    }
+
+    /**
+     * Batch Haversine from one origin to the points {@code [from, to)} of a
+     * primitive point set, writing each distance (km) into {@code out}.
+     *
+     * <p>
+     * The point set must be pre-converted with {@link #toRadians} and
+     * {@link #cosines}. Points that are clearly outside {@code radiusKm} are
+     * rejected with a cheap equirectangular estimate before the exact formula
+     * and get {@link Double#POSITIVE_INFINITY}; exact distances above the radius
+     * are also reported as infinity. The loop allocates nothing.
+     * </p>
+     *
+     * @param lat      origin latitude in decimal degrees
+     * @param lng      origin longitude in decimal degrees
+     * @param latRad   point latitudes in radians
+     * @param lngRad   point longitudes in radians
+     * @param cosLat   cosines of the point latitudes
+     * @param from     first index (inclusive)
+     * @param to       last index (exclusive)
+     * @param radiusKm maximum distance of interest in km
+     * @param out      destination for distances, indexed like the inputs
+     * @return number of points within {@code radiusKm}
+     */
+    public static int haversineKmBatch(double lat, double lng,
+            double[] latRad, double[] lngRad, double[] cosLat,
+            int from, int to, double radiusKm, double[] out) {
+        double lat1 = Math.toRadians(lat);
+        double lng1 = Math.toRadians(lng);
+        double cosLat1 = Math.cos(lat1);
+        double radiusRad = radiusKm / EARTH_RADIUS_KM;
+        // Equirectangular error stays well below this slack for radii we use.
+        double precheckLimit = radiusRad * EQUIRECT_SLACK;
+        double precheckLimitSq = precheckLimit * precheckLimit;
+
+        int within = 0;
+        for (int i = from; i < to; i++) {
+            double dLat = latRad[i] - lat1;
+            double dLng = lngRad[i] - lng1;
+            if (dLng > Math.PI) {
+                dLng -= 2 * Math.PI;
+            } else if (dLng < -Math.PI) {
+                dLng += 2 * Math.PI;
+            }
+
+            // Cheap reject: latitude difference alone is a lower bound, then an
+            // equirectangular estimate using the mean of the two cosines. The
+            // estimate is only trusted below 90 degrees of longitude; wider
+            // spans (near the poles) go straight to the exact formula.
+            if (Math.abs(dLat) > radiusRad) {
+                out[i] = Double.POSITIVE_INFINITY;
+                continue;
+            }
+            if (Math.abs(dLng) < HALF_PI) {
+                double x = dLng * 0.5 * (cosLat1 + cosLat[i]);
+                if (x * x + dLat * dLat > precheckLimitSq) {
+                    out[i] = Double.POSITIVE_INFINITY;
+                    continue;
+                }
+            }
+
+            double sinLat = Math.sin(dLat * 0.5);
+            double sinLng = Math.sin(dLng * 0.5);
+            double a = sinLat * sinLat + cosLat1 * cosLat[i] * sinLng * sinLng;
+            double d = EARTH_RADIUS_KM * 2 * Math.asin(Math.sqrt(Math.min(1.0, a)));
+            if (d <= radiusKm) {
+                out[i] = d;
+                within++;
+            } else {
+                out[i] = Double.POSITIVE_INFINITY;
+            }
+        }
+        return within;
+    }
+
     /**
      * Round a value to 2 decimal places (e.g., for displaying distance in km).
      *
@@ -52,4 +165,51 @@ public final class GeoUtils {
     public static double roundToTwoDecimals(double value) {
         return Math.round(value * 100.0) / 100.0;
     }
+
+    /**
+     * Compute the latitude/longitude box that fully contains the circle of
+     * {@code radiusKm} around the given point.
+     *
+     * <p>
+     * Latitudes are clamped to [-90, 90]. Longitudes are <b>not</b> wrapped, so
+     * {@code minLng} may be below -180 or {@code maxLng} above 180 when the
+     * circle crosses the antimeridian; callers decide how to handle that. When
+     * the circle reaches a pole the box spans every longitude.
+     * </p>
+     *
+     * @param lat      center latitude in decimal degrees
+     * @param lng      center longitude in decimal degrees
+     * @param radiusKm radius in kilometers
+     * @return the enclosing bounding box
+     */
+    public static BoundingBox boundingBox(double lat, double lng, double radiusKm) {
+        double dLat = radiusKm / KM_PER_DEGREE_LAT;
+        double minLat = lat - dLat;
+        double maxLat = lat + dLat;
+
+        if (minLat <= -90 || maxLat >= 90) {
+            return new BoundingBox(Math.max(minLat, -90), Math.min(maxLat, 90), -180, 180);
+        }
+
+        // Widest longitude span is at the latitude edge closest to a pole.
+        double maxAbsLat = Math.max(Math.abs(minLat), Math.abs(maxLat));
+        double dLng = dLat / Math.cos(Math.toRadians(maxAbsLat));
+        if (dLng >= 180) {
+            return new BoundingBox(minLat, maxLat, -180, 180);
+        }
+        return new BoundingBox(minLat, maxLat, lng - dLng, lng + dLng);
+    }
+
+    /**
+     * Axis-aligned latitude/longitude box in decimal degrees.
+     */
+    public record BoundingBox(double minLat, double maxLat, double minLng, double maxLng) {
+
+        /**
+         * @return true if the box extends past the +/-180 longitude line
+         */
+        public boolean crossesAntimeridian() {
+            return minLng < -180 || maxLng > 180;
+        }
+    }
 }
@@ -0,0 +1,76 @@
+package com.example.QucikTurn.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Bounded top-K selection.
+ *
+ * <p>
+ * Keeps only the {@code k} best elements seen so far (according to
+ * {@code order}, best first) in a heap whose root is the current worst
+ * element, so selecting K out of N costs O(N log K) time and O(K) memory
+ * instead of sorting all N.
+ * </p>
+ */
+public final class TopK<T> {
+
+    private final int k;
+    private final Comparator<? super T> order;
+    private final PriorityQueue<T> heap;
+
+    /**
+     * @param k     maximum number of elements to keep, must be positive
+     * @param order ordering where "smaller" means better
+     */
+    public TopK(int k, Comparator<? super T> order) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("k must be positive");
+        }
+        this.k = k;
+        this.order = order;
+        // Reversed so the root is the worst element currently kept.
+        this.heap = new PriorityQueue<>(Math.min(k, 1024) + 1, order.reversed());
+    }
+
+    /**
+     * Offer a candidate; it is kept only if it beats the current worst.
+     *
+     * @return true if the element was kept
+     */
+    public boolean offer(T element) {
+        if (heap.size() < k) {
+            heap.add(element);
+            return true;
+        }
+        if (order.compare(element, heap.peek()) < 0) {
+            heap.poll();
+            heap.add(element);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return the worst element currently kept, or null if fewer than k
+     *         elements have been offered (so anything would be accepted)
+     */
+    public T threshold() {
+        return heap.size() < k ? null : heap.peek();
+    }
+
+    public int size() {
+        return heap.size();
+    }
+
+    /**
+     * @return the kept elements, best first
+     */
+    public List<T> toSortedList() {
+        List<T> result = new ArrayList<>(heap);
+        result.sort(order);
+        return result;
+    }
+}
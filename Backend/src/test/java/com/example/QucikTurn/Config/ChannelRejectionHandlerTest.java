@@ -0,0 +1,92 @@
+package com.example.QucikTurn.Config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHandlingRunnable;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link ChannelRejectionHandler}.
+ */
+class ChannelRejectionHandlerTest {
+
+    private static MessageHandlingRunnable inboundTask(String userId) {
+        Message<String> message = MessageBuilder.withPayload("{}")
+                .setHeader(SimpMessageHeaderAccessor.USER_HEADER,
+                        new UsernamePasswordAuthenticationToken(userId, null))
+                .build();
+        MessageHandlingRunnable task = mock(MessageHandlingRunnable.class);
+        doReturn(message).when(task).getMessage();
+        return task;
+    }
+
+    @Test
+    void rejectedInboundMessageIsCountedAndReportedToItsSender() {
+        SimpMessagingTemplate template = mock(SimpMessagingTemplate.class);
+        ChannelRejectionHandler handler = new ChannelRejectionHandler("inbound", () -> template);
+
+        handler.rejectedExecution(inboundTask("7"), null);
+
+        assertEquals(1, handler.rejectedCount());
+        verify(template).convertAndSendToUser(eq("7"), eq("/queue/errors"), anyString());
+    }
+
+    @Test
+    void withoutATemplateTheRejectionIsOnlyCounted() {
+        ChannelRejectionHandler handler = new ChannelRejectionHandler("outbound", null);
+
+        handler.rejectedExecution(inboundTask("7"), null);
+        handler.rejectedExecution(() -> { }, null);
+
+        assertEquals(2, handler.rejectedCount());
+    }
+
+    @Test
+    void failedReportDoesNotEscapeTheExecutor() {
+        SimpMessagingTemplate template = mock(SimpMessagingTemplate.class);
+        doThrow(new IllegalStateException("broker down"))
+                .when(template).convertAndSendToUser(anyString(), anyString(), any(Object.class));
+        ChannelRejectionHandler handler = new ChannelRejectionHandler("inbound", () -> template);
+
+        assertDoesNotThrow(() -> handler.rejectedExecution(inboundTask("7"), null));
+        assertEquals(1, handler.rejectedCount());
+    }
+
+    @Test
+    void fullBoundedQueueGoesThroughTheHandler() throws InterruptedException {
+        ChannelRejectionHandler handler = new ChannelRejectionHandler("inbound", null);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(1), handler);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            Runnable blocked = () -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            };
+            executor.execute(blocked); // running
+            executor.execute(blocked); // queued
+            executor.execute(blocked); // rejected
+
+            assertEquals(1, handler.rejectedCount());
+        } finally {
+            release.countDown();
+            executor.shutdown();
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.QucikTurn.Config;
+
+import org.springframework.messaging.converter.StringMessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Load harness for the STOMP endpoint: opens many sessions as one user, sends
+ * chat messages from one of them and measures the fan-out. Every message is
+ * echoed to all sessions of the sender on /user/queue/messages, so each send
+ * is delivered {@code sessions} times.
+ *
+ * <p>
+ * Not a unit test. Start the backend, then run from the Backend directory:
+ * {@code mvn -q test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.example.QucikTurn.Config.WebSocketLoadHarness
+ * -Dws.token=<JWT> -Dws.recipientId=<user with an active contract>}
+ * </p>
+ *
+ * <p>
+ * Optional: {@code -Dws.url} (default ws://localhost:8080/ws-raw),
+ * {@code -Dws.sessions} (1000), {@code -Dws.messages} (100),
+ * {@code -Dws.timeoutSeconds} (120). The messages are real chat messages and
+ * are persisted. Thousands of sessions need a raised open-files limit
+ * ({@code ulimit -n}).
+ * </p>
+ */
+public class WebSocketLoadHarness {
+
+    private static final Pattern LOAD_CONTENT = Pattern.compile("\"content\":\"load:(\\d+):(\\d+)\"");
+    private static final int CONNECT_BATCH = 200;
+
+    public static void main(String[] args) throws Exception {
+        String url = System.getProperty("ws.url", "ws://localhost:8080/ws-raw");
+        String token = System.getProperty("ws.token");
+        String recipientId = System.getProperty("ws.recipientId");
+        int sessions = Integer.getInteger("ws.sessions", 1000);
+        int messages = Integer.getInteger("ws.messages", 100);
+        int timeoutSeconds = Integer.getInteger("ws.timeoutSeconds", 120);
+        if (token == null || recipientId == null) {
+            throw new IllegalArgumentException("ws.token and ws.recipientId are required");
+        }
+
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(4);
+        scheduler.setThreadNamePrefix("ws-load-heartbeat-");
+        scheduler.initialize();
+
+        WebSocketStompClient client = new WebSocketStompClient(new StandardWebSocketClient());
+        client.setMessageConverter(new StringMessageConverter());
+        client.setTaskScheduler(scheduler);
+        client.setDefaultHeartbeat(new long[] { 10_000, 10_000 });
+
+        long[] latencies = new long[sessions * messages];
+        AtomicInteger delivered = new AtomicInteger();
+        StompFrameHandler handler = new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return String.class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                Matcher m = LOAD_CONTENT.matcher((String) payload);
+                if (m.find()) {
+                    int i = delivered.getAndIncrement();
+                    if (i < latencies.length) {
+                        latencies[i] = System.nanoTime() - Long.parseLong(m.group(2));
+                    }
+                }
+            }
+        };
+
+        StompHeaders connectHeaders = new StompHeaders();
+        connectHeaders.add("Authorization", "Bearer " + token);
+
+        // Connect
+        long connectStart = System.nanoTime();
+        List<StompSession> connected = new ArrayList<>(sessions);
+        for (int from = 0; from < sessions; from += CONNECT_BATCH) {
+            List<CompletableFuture<StompSession>> batch = new ArrayList<>();
+            for (int i = from; i < Math.min(sessions, from + CONNECT_BATCH); i++) {
+                // One simulated client address per session, as RateLimitingFilter limits
+                // handshakes per IP
+                WebSocketHttpHeaders handshakeHeaders = new WebSocketHttpHeaders();
+                handshakeHeaders.add("X-Forwarded-For", "10.0." + (i / 250) + "." + (i % 250 + 1));
+                batch.add(client.connectAsync(url, handshakeHeaders, connectHeaders,
+                        new StompSessionHandlerAdapter() {
+                        }));
+            }
+            for (CompletableFuture<StompSession> future : batch) {
+                try {
+                    StompSession session = future.get(30, TimeUnit.SECONDS);
+                    session.subscribe("/user/queue/messages", handler);
+                    connected.add(session);
+                } catch (Exception e) {
+                    System.err.println("Connect failed: " + e.getMessage());
+                }
+            }
+        }
+        long connectMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - connectStart);
+        System.out.printf("Connected %d/%d sessions in %d ms%n", connected.size(), sessions, connectMs);
+        if (connected.isEmpty()) {
+            scheduler.shutdown();
+            return;
+        }
+        Thread.sleep(2_000); // let the SUBSCRIBE frames reach the broker
+
+        // Send
+        int expected = connected.size() * messages;
+        StompSession sender = connected.get(0);
+        StompHeaders sendHeaders = new StompHeaders();
+        sendHeaders.setDestination("/app/chat.sendMessage");
+        sendHeaders.set("content-type", "application/json");
+        long sendStart = System.nanoTime();
+        for (int i = 0; i < messages; i++) {
+            sender.send(sendHeaders, "{\"recipientId\":" + recipientId
+                    + ",\"content\":\"load:" + i + ":" + System.nanoTime() + "\"}");
+        }
+
+        long deadline = sendStart + TimeUnit.SECONDS.toNanos(timeoutSeconds);
+        while (delivered.get() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        long elapsedNanos = System.nanoTime() - sendStart;
+
+        // Report
+        int received = Math.min(delivered.get(), expected);
+        long[] sorted = Arrays.copyOf(latencies, received);
+        Arrays.sort(sorted);
+        System.out.printf("Delivered %d/%d messages in %d ms (%.0f msg/s)%n", received, expected,
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos), received / (elapsedNanos / 1e9));
+        if (received > 0) {
+            System.out.printf("Latency ms: p50=%.1f p99=%.1f max=%.1f%n",
+                    percentile(sorted, 0.50), percentile(sorted, 0.99), sorted[received - 1] / 1e6);
+        }
+
+        for (StompSession session : connected) {
+            session.disconnect();
+        }
+        client.stop();
+        scheduler.shutdown();
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        int i = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, i)] / 1e6;
+    }
+}
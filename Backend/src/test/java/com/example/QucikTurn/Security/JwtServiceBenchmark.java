@@ -0,0 +1,75 @@
+package com.example.QucikTurn.Security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.security.Key;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark: bearer token verification throughput per thread.
+ *
+ * <ul>
+ * <li>{@code usernameThenValidRebuildingParser} - the previous request path:
+ * {@code username} then {@code valid}, each building a new parser (two
+ * parses and two HMAC checks)</li>
+ * <li>{@code parseRebuildingParser} - one parse, new parser per call</li>
+ * <li>{@code parseAndValidate} - one parse with the prebuilt parser</li>
+ * </ul>
+ *
+ * <p>
+ * Not a unit test. Run from the Backend directory with:
+ * {@code mvn -q test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.example.QucikTurn.Security.JwtServiceBenchmark}
+ * </p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtServiceBenchmark {
+
+    private static final String SECRET = "benchmark-secret-benchmark-secret-benchmark";
+
+    private JwtService jwtService;
+    private Key key;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService(SECRET, 3600);
+        key = Keys.hmacShaKeyFor(SECRET.getBytes());
+        token = jwtService.generateToken("student@quickturn.id", Map.of("uid", 42L, "role", "MAHASISWA"));
+    }
+
+    @Benchmark
+    public boolean usernameThenValidRebuildingParser() {
+        String username = Jwts.parserBuilder().setSigningKey(key).build()
+                .parseClaimsJws(token).getBody().getSubject();
+        return username.equals(Jwts.parserBuilder().setSigningKey(key).build()
+                .parseClaimsJws(token).getBody().getSubject());
+    }
+
+    @Benchmark
+    public String parseRebuildingParser() {
+        return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody().getSubject();
+    }
+
+    @Benchmark
+    public JwtService.VerifiedToken parseAndValidate() {
+        return jwtService.parseAndValidate(token);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtServiceBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
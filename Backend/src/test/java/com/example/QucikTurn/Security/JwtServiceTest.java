@@ -0,0 +1,50 @@
+package com.example.QucikTurn.Security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for token verification in {@link JwtService}.
+ */
+class JwtServiceTest {
+
+    private static final String SECRET = "test-secret-test-secret-test-secret-42";
+
+    private final JwtService jwtService = new JwtService(SECRET, 3600);
+
+    @Test
+    void parseAndValidateReadsSubjectRoleAndExpiry() {
+        String token = jwtService.generateToken("a@x.id", Map.of("uid", 7L, "role", "UMKM"));
+
+        JwtService.VerifiedToken verified = jwtService.parseAndValidate(token);
+
+        assertNotNull(verified);
+        assertEquals("a@x.id", verified.subject());
+        assertEquals("UMKM", verified.role());
+        assertTrue(verified.expiresAt().isAfter(Instant.now().plusSeconds(3500)));
+        assertTrue(jwtService.valid(token, "a@x.id"));
+        assertFalse(jwtService.valid(token, "b@x.id"));
+    }
+
+    @Test
+    void tamperedOrForeignTokensAreRejected() {
+        String token = jwtService.generateToken("a@x.id", Map.of("role", "UMKM"));
+        String foreign = new JwtService("another-secret-another-secret-another-1", 3600)
+                .generateToken("a@x.id", Map.of("role", "ADMIN"));
+
+        assertNull(jwtService.parseAndValidate(token.substring(0, token.length() - 2) + "xx"));
+        assertNull(jwtService.parseAndValidate(foreign));
+        assertNull(jwtService.parseAndValidate("not-a-token"));
+    }
+
+    @Test
+    void expiredTokenIsRejected() {
+        String token = new JwtService(SECRET, -60).generateToken("a@x.id", Map.of("role", "UMKM"));
+
+        assertNull(jwtService.parseAndValidate(token));
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.QucikTurn.Security;
+
+import com.example.QucikTurn.Entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link TokenAuthenticationCache}.
+ */
+class TokenAuthenticationCacheTest {
+
+    private JwtService jwtService;
+    private UserDetailsService userDetailsService;
+    private TokenAuthenticationCache cache;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = mock(JwtService.class);
+        userDetailsService = mock(UserDetailsService.class);
+        cache = new TokenAuthenticationCache(jwtService, userDetailsService, "maximumSize=100");
+    }
+
+    private User issue(String token, long userId, String email, Instant expiresAt) {
+        when(jwtService.parseAndValidate(token))
+                .thenReturn(new JwtService.VerifiedToken(email, "MAHASISWA", expiresAt));
+        User user = new User();
+        ReflectionTestUtils.setField(user, "id", userId);
+        user.setEmail(email);
+        when(userDetailsService.loadUserByUsername(email)).thenReturn(user);
+        return user;
+    }
+
+    @Test
+    void tokenIsVerifiedAndItsUserLoadedOnce() {
+        User user = issue("t1", 7, "a@x.id", Instant.now().plusSeconds(3600));
+
+        assertEquals(user.getId(), cache.resolve("t1").getId());
+        assertEquals(user.getId(), cache.resolve("t1").getId());
+
+        verify(jwtService, times(1)).parseAndValidate("t1");
+        verify(userDetailsService, times(1)).loadUserByUsername(anyString());
+    }
+
+    @Test
+    void everyRequestGetsItsOwnCopyOfTheUser() {
+        issue("t1", 7, "a@x.id", Instant.now().plusSeconds(3600));
+
+        User first = cache.resolve("t1");
+        first.setBidang("Design");
+        User second = cache.resolve("t1");
+
+        assertNotSame(first, second);
+        assertNull(second.getBidang());
+        assertEquals("a@x.id", second.getEmail());
+    }
+
+    @Test
+    void invalidTokenResolvesToNobody() {
+        when(jwtService.parseAndValidate("bad")).thenReturn(null);
+
+        assertNull(cache.resolve("bad"));
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    void entryIsNotUsedPastTheTokenExpiry() {
+        issue("t1", 7, "a@x.id", Instant.now().minusSeconds(1));
+
+        cache.resolve("t1");
+        cache.resolve("t1");
+
+        verify(jwtService, times(2)).parseAndValidate("t1");
+    }
+
+    @Test
+    void evictingAUserDropsOnlyTheirTokens() {
+        issue("t1", 7, "a@x.id", Instant.now().plusSeconds(3600));
+        issue("t2", 7, "a@x.id", Instant.now().plusSeconds(3600));
+        issue("t3", 8, "b@x.id", Instant.now().plusSeconds(3600));
+        cache.resolve("t1");
+        cache.resolve("t2");
+        cache.resolve("t3");
+        clearInvocations(jwtService);
+
+        cache.evictUser(7L);
+        cache.resolve("t1");
+        cache.resolve("t2");
+        cache.resolve("t3");
+
+        verify(jwtService, times(2)).parseAndValidate(anyString());
+        verify(jwtService, never()).parseAndValidate("t3");
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.QucikTurn.Service;
+
+import com.example.QucikTurn.Entity.enums.ApplicationStatus;
+import com.example.QucikTurn.Repository.ApplicationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the cached chat contract check of
+ * {@link ChatPermissionService}.
+ */
+class ChatPermissionServiceTest {
+
+    private ApplicationRepository applicationRepo;
+    private ChatPermissionService service;
+
+    @BeforeEach
+    void setUp() {
+        applicationRepo = mock(ApplicationRepository.class);
+        service = new ChatPermissionService(applicationRepo, "maximumSize=100");
+    }
+
+    private void contract(long userId1, long userId2, boolean exists) {
+        when(applicationRepo.existsContractBetween(userId1, userId2, ApplicationStatus.APPROVED)).thenReturn(exists);
+        when(applicationRepo.existsContractBetween(userId2, userId1, ApplicationStatus.APPROVED)).thenReturn(exists);
+    }
+
+    @Test
+    void answerIsCachedPerPairInEitherDirection() {
+        contract(3, 7, true);
+
+        assertTrue(service.hasActiveContract(3L, 7L));
+        assertTrue(service.hasActiveContract(7L, 3L));
+        assertTrue(service.hasActiveContract(3L, 7L));
+
+        verify(applicationRepo, times(1)).existsContractBetween(anyLong(), anyLong(), any());
+    }
+
+    @Test
+    void acceptingAnApplicantEvictsThePair() {
+        contract(3, 7, false);
+        assertFalse(service.hasActiveContract(3L, 7L));
+
+        contract(3, 7, true);
+        assertFalse(service.hasActiveContract(3L, 7L)); // still cached
+        service.evict(7L, 3L);
+
+        assertTrue(service.hasActiveContract(3L, 7L));
+    }
+
+    @Test
+    void deletingAUserEvictsOnlyTheirPairs() {
+        contract(3, 7, true);
+        contract(3, 17, true);
+        contract(4, 5, true);
+        service.hasActiveContract(3L, 7L);
+        service.hasActiveContract(17L, 3L);
+        service.hasActiveContract(4L, 5L);
+        clearInvocations(applicationRepo);
+
+        service.evictUser(7L);
+        service.hasActiveContract(3L, 7L);
+        service.hasActiveContract(3L, 17L);
+        service.hasActiveContract(4L, 5L);
+
+        verify(applicationRepo, times(1)).existsContractBetween(anyLong(), anyLong(), any());
+    }
+
+    @Test
+    void missingUserHasNoContract() {
+        assertFalse(service.hasActiveContract(null, 7L));
+        verifyNoInteractions(applicationRepo);
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.QucikTurn.Service;
+
+import com.example.QucikTurn.Entity.mongo.ChatMessage;
+import com.example.QucikTurn.dto.ChatMessageDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link ChatPersistencePipeline}. The writer thread is not
+ * started; batches are written with {@code drainOnce()}.
+ */
+class ChatPersistencePipelineTest {
+
+    private MongoTemplate mongoTemplate;
+    private ChatService chatService;
+    private SimpMessagingTemplate messagingTemplate;
+    private ChatPersistencePipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        chatService = mock(ChatService.class);
+        messagingTemplate = mock(SimpMessagingTemplate.class);
+        pipeline = new ChatPersistencePipeline(mongoTemplate, chatService, messagingTemplate, true, 3, 2, 0);
+    }
+
+    private ChatMessage message(String id, long senderId, long recipientId) {
+        ChatMessage m = new ChatMessage(senderId, recipientId, "msg " + id);
+        m.setId(id);
+        return m;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<List<String>> insertedBatches() {
+        ArgumentCaptor<Collection<ChatMessage>> batches = ArgumentCaptor.forClass(Collection.class);
+        verify(mongoTemplate, atLeastOnce()).insert(batches.capture(), eq(ChatMessage.class));
+        List<List<String>> ids = new ArrayList<>();
+        for (Collection<ChatMessage> batch : batches.getAllValues()) {
+            ids.add(batch.stream().map(ChatMessage::getId).toList());
+        }
+        return ids;
+    }
+
+    @Test
+    void queuedMessagesAreInsertedInBatchesInSendOrder() {
+        pipeline.submit(message("a", 1, 2));
+        pipeline.submit(message("b", 2, 1));
+        pipeline.submit(message("c", 1, 2));
+        assertEquals(3, pipeline.queueDepth());
+
+        assertEquals(2, pipeline.drainOnce());
+        assertEquals(1, pipeline.drainOnce());
+        assertEquals(0, pipeline.drainOnce());
+
+        assertEquals(List.of(List.of("a", "b"), List.of("c")), insertedBatches());
+        verify(chatService, times(2)).recordSaved(anyList());
+        verifyNoInteractions(messagingTemplate);
+    }
+
+    @Test
+    void fullQueueRejectsTheMessage() {
+        pipeline.submit(message("a", 1, 2));
+        pipeline.submit(message("b", 1, 2));
+        pipeline.submit(message("c", 1, 2));
+
+        assertThrows(RuntimeException.class, () -> pipeline.submit(message("d", 1, 2)));
+        assertEquals(0, pipeline.remainingCapacity());
+    }
+
+    @Test
+    void failedMessagesAreReportedToTheirSender() {
+        when(mongoTemplate.insert(anyCollection(), eq(ChatMessage.class))).thenThrow(new RuntimeException("down"));
+        ChatMessage ok = message("a", 1, 2);
+        ChatMessage failing = message("b", 5, 1);
+        when(mongoTemplate.save(failing)).thenThrow(new RuntimeException("still down"));
+        pipeline.submit(ok);
+        pipeline.submit(failing);
+
+        pipeline.drainOnce();
+
+        verify(chatService).recordSaved(List.of(ok));
+        ArgumentCaptor<ChatMessageDTO> error = ArgumentCaptor.forClass(ChatMessageDTO.class);
+        verify(messagingTemplate).convertAndSendToUser(eq("5"), eq("/queue/errors"), error.capture());
+        assertEquals("b", error.getValue().getId());
+    }
+
+    @Test
+    void disabledPipelinePersistsOnTheCallingThread() {
+        ChatPersistencePipeline sync = new ChatPersistencePipeline(mongoTemplate, chatService, messagingTemplate,
+                false, 3, 2, 0);
+
+        sync.submit(message("a", 1, 2));
+
+        assertEquals(0, sync.queueDepth());
+        assertEquals(List.of(List.of("a")), insertedBatches());
+    }
+}
@@ -0,0 +1,298 @@
+package com.example.QucikTurn.Service;
+
+import com.example.QucikTurn.Entity.User;
+import com.example.QucikTurn.Entity.enums.ApplicationStatus;
+import com.example.QucikTurn.Entity.mongo.ChatMessage;
+import com.example.QucikTurn.Entity.mongo.Conversation;
+import com.example.QucikTurn.Repository.ApplicationRepository;
+import com.example.QucikTurn.Repository.ChatMessageRepository;
+import com.example.QucikTurn.Repository.ConversationRepository;
+import com.example.QucikTurn.Repository.UserRepository;
+import com.example.QucikTurn.dto.ChatResponseDTO;
+import com.example.QucikTurn.dto.CursorPage;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the conversation summaries (contacts list) maintained by
+ * {@link ChatService}, the conversationId-keyed cursor history, and bulk
+ * mark-as-read.
+ */
+class ChatServiceConversationTest {
+
+    private static final long STUDENT_ID = 3L;
+    private static final long UMKM_ID = 7L;
+
+    private ChatMessageRepository chatMessageRepo;
+    private ApplicationRepository applicationRepo;
+    private ConversationRepository conversationRepo;
+    private MongoTemplate mongoTemplate;
+    private SimpMessagingTemplate messagingTemplate;
+    private UserRepository userRepo;
+    private NotificationService notificationService;
+    private ChatService service;
+
+    @BeforeEach
+    void setUp() {
+        chatMessageRepo = mock(ChatMessageRepository.class);
+        applicationRepo = mock(ApplicationRepository.class);
+        conversationRepo = mock(ConversationRepository.class);
+        mongoTemplate = mock(MongoTemplate.class);
+        messagingTemplate = mock(SimpMessagingTemplate.class);
+        userRepo = mock(UserRepository.class);
+        notificationService = mock(NotificationService.class);
+        when(chatMessageRepo.insert(any(ChatMessage.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        service = new ChatService();
+        ReflectionTestUtils.setField(service, "chatMessageRepository", chatMessageRepo);
+        ReflectionTestUtils.setField(service, "userRepository", userRepo);
+        ReflectionTestUtils.setField(service, "chatPermissionService", new ChatPermissionService(applicationRepo, ""));
+        ReflectionTestUtils.setField(service, "notificationService", notificationService);
+        ReflectionTestUtils.setField(service, "conversationRepository", conversationRepo);
+        ReflectionTestUtils.setField(service, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(service, "messagingTemplate", messagingTemplate);
+    }
+
+    private void approvedContract() {
+        when(applicationRepo.existsContractBetween(anyLong(), anyLong(), eq(ApplicationStatus.APPROVED)))
+                .thenReturn(true);
+    }
+
+    private Conversation conversation(long userA, long userB, long unreadForA, LocalDateTime lastMessageAt) {
+        Conversation c = new Conversation();
+        c.setId(Conversation.idFor(userA, userB));
+        c.setParticipants(List.of(Math.min(userA, userB), Math.max(userA, userB)));
+        c.getUnreadCounts().put(String.valueOf(userA), unreadForA);
+        c.setLastMessageAt(lastMessageAt);
+        return c;
+    }
+
+    private ChatMessage message(long senderId, long recipientId, String content, boolean read) {
+        ChatMessage m = new ChatMessage(senderId, recipientId, content);
+        m.setRead(read);
+        return m;
+    }
+
+    private void markedCount(long modified) {
+        UpdateResult result = mock(UpdateResult.class);
+        when(result.getModifiedCount()).thenReturn(modified);
+        when(mongoTemplate.updateMulti(any(Query.class), any(Update.class), eq(ChatMessage.class))).thenReturn(result);
+    }
+
+    private ChatMessage stored(int minutesAgo) {
+        ChatMessage m = message(UMKM_ID, STUDENT_ID, "msg " + minutesAgo, true);
+        m.setId(new ObjectId().toHexString());
+        m.setTimestamp(LocalDateTime.of(2025, 1, 1, 12, 0).minusMinutes(minutesAgo));
+        return m;
+    }
+
+    @Test
+    void conversationIdIsIndependentOfDirection() {
+        assertEquals("3_7", Conversation.idFor(STUDENT_ID, UMKM_ID));
+        assertEquals("3_7", Conversation.idFor(UMKM_ID, STUDENT_ID));
+    }
+
+    @Test
+    void savingAMessageUpsertsTheSummaryAtomically() {
+        approvedContract();
+        BulkOperations bulk = mock(BulkOperations.class);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.ORDERED, Conversation.class)).thenReturn(bulk);
+
+        service.saveMessage(UMKM_ID, STUDENT_ID, "Halo");
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(bulk).upsert(query.capture(), update.capture());
+        verify(bulk).execute();
+        assertEquals("3_7", query.getValue().getQueryObject().get("_id"));
+        Document inc = (Document) update.getValue().getUpdateObject().get("$inc");
+        assertEquals(1, inc.get("unreadCounts." + STUDENT_ID));
+        Document set = (Document) update.getValue().getUpdateObject().get("$set");
+        assertEquals("Halo", set.get("lastMessagePreview"));
+    }
+
+    @Test
+    void oneFailedNotificationDoesNotDropTheRestOfTheBatch() {
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.ORDERED, Conversation.class))
+                .thenReturn(mock(BulkOperations.class));
+        User umkm = user(UMKM_ID, "Toko");
+        User student = user(STUDENT_ID, "Budi");
+        when(userRepo.findAllById(any())).thenReturn(List.of(umkm, student));
+        doThrow(new RuntimeException("Lock wait timeout")).doNothing()
+                .when(notificationService).notifyNewMessage(any(User.class), anyString(), anyString(), anyLong());
+
+        service.recordSaved(List.of(message(UMKM_ID, STUDENT_ID, "one", false),
+                message(UMKM_ID, STUDENT_ID, "two", false)));
+
+        verify(notificationService).notifyNewMessage(student, "Toko", "two", UMKM_ID);
+    }
+
+    private User user(long id, String nama) {
+        User user = new User();
+        ReflectionTestUtils.setField(user, "id", id);
+        user.setNama(nama);
+        return user;
+    }
+
+    @Test
+    void summariesAreKeyedByTheOtherParticipant() {
+        LocalDateTime now = LocalDateTime.now();
+        when(conversationRepo.findByParticipantsOrderByLastMessageAtDesc(STUDENT_ID)).thenReturn(List.of(
+                conversation(STUDENT_ID, UMKM_ID, 2, now),
+                conversation(STUDENT_ID, 1L, 0, now.minusDays(1))));
+
+        Map<Long, Conversation> summaries = service.getConversationSummaries(STUDENT_ID);
+
+        assertEquals(List.of(UMKM_ID, 1L), new ArrayList<>(summaries.keySet()));
+        assertEquals(2, summaries.get(UMKM_ID).unreadCountFor(STUDENT_ID));
+        assertEquals(0, summaries.get(UMKM_ID).unreadCountFor(UMKM_ID));
+        verifyNoInteractions(chatMessageRepo);
+    }
+
+    @Test
+    void rebuildDerivesSummariesFromMessageHistory() {
+        when(mongoTemplate.stream(any(Query.class), eq(ChatMessage.class))).thenReturn(Stream.of(
+                message(STUDENT_ID, UMKM_ID, "first", true),
+                message(UMKM_ID, STUDENT_ID, "second", false),
+                message(UMKM_ID, STUDENT_ID, "", false)));
+
+        assertEquals(1, service.rebuildConversationSummaries());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Iterable<Conversation>> saved = ArgumentCaptor.forClass(Iterable.class);
+        verify(conversationRepo).saveAll(saved.capture());
+        Conversation c = saved.getValue().iterator().next();
+        assertEquals(List.of(STUDENT_ID, UMKM_ID), c.getParticipants());
+        assertEquals(2, c.unreadCountFor(STUDENT_ID));
+        assertEquals(0, c.unreadCountFor(UMKM_ID));
+        assertEquals(UMKM_ID, c.getLastMessageSenderId());
+    }
+
+    @Test
+    void newMessagesCarryTheirConversationId() {
+        assertEquals("3_7", message(UMKM_ID, STUDENT_ID, "Halo", false).getConversationId());
+    }
+
+    @Test
+    void cursorHistoryPagesBackwardsWithoutCounting() {
+        approvedContract();
+        List<ChatMessage> newest = List.of(stored(0), stored(1), stored(2)); // limit 2 plus the look-ahead
+        when(chatMessageRepo.findLatestInConversation(eq("3_7"), any(Pageable.class))).thenReturn(newest);
+
+        CursorPage<ChatResponseDTO> page = service.getChatHistoryBefore(STUDENT_ID, UMKM_ID, 2, null);
+
+        assertEquals(2, page.items().size());
+        assertEquals(newest.get(0).getId(), page.items().get(0).getMessageId());
+        assertTrue(page.hasMore());
+
+        ChatMessage oldest = stored(3);
+        when(chatMessageRepo.findInConversationBefore(eq("3_7"), any(), any(), any(Pageable.class)))
+                .thenReturn(List.of(oldest));
+        CursorPage<ChatResponseDTO> older = service.getChatHistoryBefore(STUDENT_ID, UMKM_ID, 2, page.nextCursor());
+
+        assertFalse(older.hasMore());
+        assertNull(older.nextCursor());
+        verify(chatMessageRepo).findInConversationBefore(eq("3_7"), eq(newest.get(1).getTimestamp()),
+                eq(new ObjectId(newest.get(1).getId())), any(Pageable.class));
+        verify(chatMessageRepo, never()).count();
+        verify(chatMessageRepo, never()).findByConversationId(anyString(), any(Pageable.class));
+    }
+
+    @Test
+    void invalidHistoryCursorIsRejected() {
+        approvedContract();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> service.getChatHistoryBefore(STUDENT_ID, UMKM_ID, 20, "bm90LWEtY3Vyc29y"));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.getChatHistoryBefore(STUDENT_ID, UMKM_ID, 0, null));
+    }
+
+    @Test
+    void markAsReadIsOneMultiUpdateAndPushesTheUnreadCount() {
+        markedCount(4);
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(Conversation.class))).thenReturn(conversation(STUDENT_ID, UMKM_ID, 0, LocalDateTime.now()));
+
+        assertEquals(4, service.markMessagesAsRead(STUDENT_ID, UMKM_ID));
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).updateMulti(query.capture(), any(Update.class), eq(ChatMessage.class));
+        assertEquals(false, query.getValue().getQueryObject().get("isRead"));
+        verify(messagingTemplate).convertAndSendToUser(eq(String.valueOf(STUDENT_ID)), eq("/queue/messages"),
+                eq(Map.of("type", "UNREAD_COUNT", "senderId", UMKM_ID, "unreadCount", 0L)));
+        verifyNoInteractions(chatMessageRepo);
+    }
+
+    @Test
+    void markAsReadUpToAMessageRecountsTheCounter() {
+        markedCount(2);
+        when(mongoTemplate.count(any(Query.class), eq(ChatMessage.class))).thenReturn(3L);
+        String upTo = new ObjectId().toHexString();
+
+        service.markMessagesAsRead(STUDENT_ID, UMKM_ID, upTo);
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).updateMulti(query.capture(), any(Update.class), eq(ChatMessage.class));
+        assertEquals(new Document("$lte", new ObjectId(upTo)), query.getValue().getQueryObject().get("_id"));
+        ArgumentCaptor<Update> counter = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).findAndModify(any(Query.class), counter.capture(), any(FindAndModifyOptions.class),
+                eq(Conversation.class));
+        Document set = (Document) counter.getValue().getUpdateObject().get("$set");
+        assertEquals(3L, set.get("unreadCounts." + STUDENT_ID));
+    }
+
+    @Test
+    void messageReadBeforeItsSummaryUpdateIsRecounted() {
+        BulkOperations bulk = mock(BulkOperations.class);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.ORDERED, Conversation.class)).thenReturn(bulk);
+        ChatMessage saved = message(UMKM_ID, STUDENT_ID, "Halo", false);
+        saved.setId(new ObjectId().toHexString());
+        when(mongoTemplate.find(any(Query.class), eq(ChatMessage.class)))
+                .thenReturn(List.of(message(UMKM_ID, STUDENT_ID, "Halo", true)));
+
+        service.recordSaved(List.of(saved));
+
+        InOrder order = inOrder(bulk, mongoTemplate);
+        order.verify(bulk).execute();
+        ArgumentCaptor<Update> counter = ArgumentCaptor.forClass(Update.class);
+        order.verify(mongoTemplate).findAndModify(any(Query.class), counter.capture(),
+                any(FindAndModifyOptions.class), eq(Conversation.class));
+        Document set = (Document) counter.getValue().getUpdateObject().get("$set");
+        assertEquals(0L, set.get("unreadCounts." + STUDENT_ID));
+    }
+
+    @Test
+    void markAsReadWithNothingUnreadPushesNothing() {
+        markedCount(0);
+
+        assertEquals(0, service.markMessagesAsRead(STUDENT_ID, UMKM_ID));
+
+        verify(mongoTemplate, never()).findAndModify(any(Query.class), any(Update.class),
+                any(FindAndModifyOptions.class), eq(Conversation.class));
+        verifyNoInteractions(messagingTemplate);
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.QucikTurn.Service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link DataRetentionService} against a mocked JDBC template.
+ */
+class DataRetentionServiceTest {
+
+    private NamedParameterJdbcTemplate jdbc;
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        jdbc = mock(NamedParameterJdbcTemplate.class);
+        registry = new SimpleMeterRegistry();
+        when(jdbc.queryForList(anyString(), any(SqlParameterSource.class), eq(Long.class))).thenReturn(List.of());
+    }
+
+    private DataRetentionService service(int activityDays, int chunkSize) {
+        return new DataRetentionService(jdbc, registry, true, chunkSize, 0, 30, activityDays, 24, 24);
+    }
+
+    private DataRetentionService service(int activityDays) {
+        return service(activityDays, 1000);
+    }
+
+    @SafeVarargs
+    private void chunks(String table, List<Long>... chunks) {
+        var stub = when(jdbc.queryForList(contains("FROM " + table + " WHERE"), any(SqlParameterSource.class),
+                eq(Long.class)));
+        for (List<Long> chunk : chunks) {
+            stub = stub.thenReturn(chunk);
+        }
+        stub.thenReturn(List.of());
+    }
+
+    @Test
+    void deletesExactlyTheSelectedIdsChunkByChunk() {
+        chunks("activities", List.of(3L, 900L), List.of(5_000_000L));
+        when(jdbc.update(startsWith("DELETE FROM activities"), any(SqlParameterSource.class)))
+                .thenReturn(2, 1);
+
+        Map<String, Long> purged = service(365, 2).purgeAll();
+
+        assertEquals(3L, purged.get("activities"));
+        ArgumentCaptor<MapSqlParameterSource> selects = ArgumentCaptor.forClass(MapSqlParameterSource.class);
+        verify(jdbc, times(2)).queryForList(contains("FROM activities"), selects.capture(), eq(Long.class));
+        assertEquals(List.of(0L, 900L),
+                selects.getAllValues().stream().map(p -> p.getValue("lastId")).toList());
+        ArgumentCaptor<MapSqlParameterSource> deletes = ArgumentCaptor.forClass(MapSqlParameterSource.class);
+        verify(jdbc, times(2)).update(startsWith("DELETE FROM activities"), deletes.capture());
+        assertEquals(List.of(List.of(3L, 900L), List.of(5_000_000L)),
+                deletes.getAllValues().stream().map(p -> p.getValue("ids")).toList());
+    }
+
+    @Test
+    void emptyFullChunkEndsThePurge() {
+        chunks("activities", List.of(1L, 2L));
+        when(jdbc.update(startsWith("DELETE FROM activities"), any(SqlParameterSource.class))).thenReturn(2);
+
+        service(365, 2).purgeAll();
+
+        verify(jdbc, times(2)).queryForList(contains("FROM activities"), any(SqlParameterSource.class),
+                eq(Long.class));
+        verify(jdbc, times(1)).update(startsWith("DELETE FROM activities"), any(SqlParameterSource.class));
+    }
+
+    @Test
+    void digestEventsAreDeletedBeforeTheirNotifications() {
+        chunks("notifications", List.of(10L, 20L));
+
+        service(365).purgeAll();
+
+        InOrder order = inOrder(jdbc);
+        order.verify(jdbc).update(startsWith("DELETE e FROM notification_events"), any(SqlParameterSource.class));
+        order.verify(jdbc).update(startsWith("DELETE FROM notifications"), any(SqlParameterSource.class));
+    }
+
+    @Test
+    void nothingPurgeableMeansNoDeletes() {
+        Map<String, Long> purged = service(365).purgeAll();
+
+        assertEquals(Map.of("notifications", 0L, "activities", 0L, "password_reset_token", 0L,
+                "email_verification_token", 0L), purged);
+        verify(jdbc, never()).update(anyString(), any(SqlParameterSource.class));
+    }
+
+    @Test
+    void nonPositiveRetentionDisablesThePolicy() {
+        Map<String, Long> purged = service(0).purgeAll();
+
+        assertFalse(purged.containsKey("activities"));
+        verify(jdbc, never()).queryForList(contains("FROM activities"), any(SqlParameterSource.class),
+                eq(Long.class));
+    }
+
+    @Test
+    void rowsPurgedPerRunAreRecorded() {
+        when(jdbc.queryForList(contains("FROM email_verification_token"), any(SqlParameterSource.class),
+                eq(Long.class))).thenReturn(List.of(5L, 6L));
+        when(jdbc.update(startsWith("DELETE FROM email_verification_token"), any(SqlParameterSource.class)))
+                .thenReturn(2);
+
+        DataRetentionService service = service(365);
+        service.purgeAll();
+        service.purgeAll();
+
+        var summary = registry.get("retention.rows.purged").tag("table", "email_verification_token").summary();
+        assertEquals(2, summary.count());
+        assertEquals(4.0, summary.totalAmount());
+    }
+}
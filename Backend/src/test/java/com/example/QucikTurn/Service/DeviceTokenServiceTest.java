@@ -0,0 +1,83 @@
+package com.example.QucikTurn.Service;
+
+import com.example.QucikTurn.Entity.DeviceToken;
+import com.example.QucikTurn.Entity.User;
+import com.example.QucikTurn.Repository.DeviceTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the token cache of {@link DeviceTokenService}.
+ */
+class DeviceTokenServiceTest {
+
+    private static final long USER_ID = 7L;
+
+    private DeviceTokenRepository repo;
+    private DeviceTokenService service;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        repo = mock(DeviceTokenRepository.class);
+        service = new DeviceTokenService(repo, "maximumSize=100");
+        user = new User();
+        ReflectionTestUtils.setField(user, "id", USER_ID);
+        when(repo.findByUserId(USER_ID)).thenReturn(List.of(new DeviceToken(user, "device-a")));
+    }
+
+    @Test
+    void tokensAreReadOnceThenFromCache() {
+        assertEquals(List.of("device-a"), service.getTokensForUser(USER_ID));
+        assertEquals(List.of("device-a"), service.getTokensForUser(USER_ID));
+
+        verify(repo, times(1)).findByUserId(USER_ID);
+    }
+
+    @Test
+    void registeringANewTokenEvicts() {
+        service.getTokensForUser(USER_ID);
+        when(repo.findByUserIdAndToken(USER_ID, "device-b")).thenReturn(Optional.empty());
+
+        service.registerToken(user, "device-b");
+        service.getTokensForUser(USER_ID);
+
+        verify(repo).save(any(DeviceToken.class));
+        verify(repo, times(2)).findByUserId(USER_ID);
+    }
+
+    @Test
+    void reRegisteringAKnownTokenKeepsTheCache() {
+        service.getTokensForUser(USER_ID);
+        when(repo.findByUserIdAndToken(USER_ID, "device-a"))
+                .thenReturn(Optional.of(new DeviceToken(user, "device-a")));
+
+        service.registerToken(user, "device-a");
+        service.getTokensForUser(USER_ID);
+
+        verify(repo, never()).save(any(DeviceToken.class));
+        verify(repo, times(1)).findByUserId(USER_ID);
+    }
+
+    @Test
+    void removingTokensEvicts() {
+        service.getTokensForUser(USER_ID);
+
+        service.removeTokens(USER_ID, List.of("device-a"));
+        service.getTokensForUser(USER_ID);
+        service.removeAllTokens(USER_ID);
+        service.getTokensForUser(USER_ID);
+
+        verify(repo).deleteByUserIdAndTokenIn(USER_ID, List.of("device-a"));
+        verify(repo).deleteByUserId(USER_ID);
+        verify(repo, times(3)).findByUserId(USER_ID);
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.QucikTurn.Service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * {@link PushNotificationSender} for tests: records every batch instead of
+ * calling FCM and reports every device as delivered, except tokens marked
+ * invalid. Results are immediate unless held back with {@link #hold()}.
+ */
+class FakePushNotificationSender implements PushNotificationSender {
+
+    record Sent(List<String> tokens, PushMessage message) {
+    }
+
+    private final List<Sent> sent = new ArrayList<>();
+    private final Set<String> invalid = new HashSet<>();
+    private final List<Runnable> held = new ArrayList<>();
+    private boolean enabled = true;
+    private boolean holding;
+
+    void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    void markInvalid(String token) {
+        invalid.add(token);
+    }
+
+    List<Sent> sent() {
+        return sent;
+    }
+
+    /**
+     * Leave results of later sends pending until {@link #release()}, like a slow
+     * FCM round trip.
+     */
+    synchronized void hold() {
+        holding = true;
+    }
+
+    synchronized void release() {
+        holding = false;
+        held.forEach(Runnable::run);
+        held.clear();
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public synchronized CompletableFuture<SendResult> send(List<String> tokens, PushMessage message) {
+        if (tokens.size() > MAX_TOKENS_PER_BATCH) {
+            throw new IllegalArgumentException("Batch too large: " + tokens.size());
+        }
+        sent.add(new Sent(List.copyOf(tokens), message));
+        List<String> rejected = tokens.stream().filter(invalid::contains).toList();
+        SendResult result = new SendResult(tokens.size() - rejected.size(), rejected);
+        if (!holding) {
+            return CompletableFuture.completedFuture(result);
+        }
+        CompletableFuture<SendResult> pending = new CompletableFuture<>();
+        held.add(() -> pending.complete(result));
+        return pending;
+    }
+}
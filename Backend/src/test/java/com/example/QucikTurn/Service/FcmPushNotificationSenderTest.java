@@ -0,0 +1,43 @@
+package com.example.QucikTurn.Service;
+
+import com.google.firebase.messaging.MessagingErrorCode;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for which FCM results condemn a device token.
+ */
+class FcmPushNotificationSenderTest {
+
+    private static final List<String> TOKENS = List.of("a", "b", "c");
+
+    @Test
+    void unregisteredTokensAreInvalid() {
+        assertEquals(List.of("b"), FcmPushNotificationSender.invalidTokens(TOKENS,
+                Arrays.asList(null, MessagingErrorCode.UNREGISTERED, MessagingErrorCode.UNAVAILABLE)));
+    }
+
+    @Test
+    void invalidArgumentCondemnsATokenWhenOthersGetThrough() {
+        assertEquals(List.of("a", "c"), FcmPushNotificationSender.invalidTokens(TOKENS,
+                Arrays.asList(MessagingErrorCode.INVALID_ARGUMENT, null, MessagingErrorCode.INVALID_ARGUMENT)));
+    }
+
+    @Test
+    void invalidArgumentForTheWholeBatchBlamesTheMessage() {
+        assertEquals(List.of(), FcmPushNotificationSender.invalidTokens(TOKENS,
+                Arrays.asList(MessagingErrorCode.INVALID_ARGUMENT, MessagingErrorCode.INVALID_ARGUMENT,
+                        MessagingErrorCode.INVALID_ARGUMENT)));
+    }
+
+    @Test
+    void transientFailuresKeepTheTokens() {
+        assertEquals(List.of(), FcmPushNotificationSender.invalidTokens(TOKENS,
+                Arrays.asList(MessagingErrorCode.UNAVAILABLE, MessagingErrorCode.INTERNAL,
+                        MessagingErrorCode.QUOTA_EXCEEDED)));
+    }
+}
@@ -0,0 +1,229 @@
+package com.example.QucikTurn.Service;
+
+import com.example.QucikTurn.Entity.enums.NotificationType;
+import com.example.QucikTurn.dto.NotificationDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link NotificationDispatcher} with a fake push sender.
+ */
+class NotificationDispatcherTest {
+
+    private static final long USER_ID = 7L;
+
+    private UnreadNotificationCounter unreadCounter;
+    private SimpMessagingTemplate messagingTemplate;
+    private DeviceTokenService deviceTokenService;
+    private UserPresenceService presence;
+    private FakePushNotificationSender pushSender;
+
+    @BeforeEach
+    void setUp() {
+        unreadCounter = mock(UnreadNotificationCounter.class);
+        messagingTemplate = mock(SimpMessagingTemplate.class);
+        deviceTokenService = mock(DeviceTokenService.class);
+        presence = mock(UserPresenceService.class);
+        pushSender = new FakePushNotificationSender();
+        when(deviceTokenService.getTokensForUser(USER_ID)).thenReturn(List.of("device-a", "device-b"));
+        when(unreadCounter.get(USER_ID)).thenReturn(3L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private NotificationDispatcher dispatcher(boolean async, long windowMs) {
+        return new NotificationDispatcher(unreadCounter, messagingTemplate, deviceTokenService, presence,
+                pushSender, async, 1, windowMs);
+    }
+
+    private NotificationDTO notification(String title) {
+        NotificationDTO dto = new NotificationDTO();
+        dto.setType(NotificationType.APPLICATION_RECEIVED);
+        dto.setTitle(title);
+        dto.setMessage("body of " + title);
+        dto.setActionUrl("/dashboardu");
+        return dto;
+    }
+
+    @Test
+    void nothingIsSentBeforeTheTransactionCommits() {
+        NotificationDispatcher dispatcher = dispatcher(false, 0);
+        TransactionSynchronizationManager.initSynchronization();
+
+        dispatcher.dispatch(USER_ID, notification("A"));
+        verifyNoInteractions(messagingTemplate);
+
+        for (TransactionSynchronization sync : TransactionSynchronizationManager.getSynchronizations()) {
+            sync.afterCommit();
+        }
+        verify(messagingTemplate).convertAndSendToUser(eq("7"), eq("/queue/notifications"), any(NotificationDTO.class));
+        verify(messagingTemplate).convertAndSendToUser("7", "/queue/notifications/count", 3L);
+        assertEquals(1, pushSender.sent().size());
+        assertEquals("A", pushSender.sent().get(0).message().title());
+    }
+
+    @Test
+    void burstForOneUserSharesOneCountAndOneSummaryPush() {
+        NotificationDispatcher dispatcher = dispatcher(true, 60_000);
+        dispatcher.dispatch(USER_ID, notification("A"));
+        dispatcher.dispatch(USER_ID, notification("B"));
+        dispatcher.dispatch(USER_ID, notification("C"));
+        verifyNoInteractions(messagingTemplate);
+
+        dispatcher.flush(USER_ID);
+
+        verify(messagingTemplate, times(3))
+                .convertAndSendToUser(eq("7"), eq("/queue/notifications"), any(NotificationDTO.class));
+        verify(unreadCounter, times(1)).get(USER_ID);
+        assertEquals(1, pushSender.sent().size());
+        PushNotificationSender.PushMessage push = pushSender.sent().get(0).message();
+        assertEquals("3 notifikasi baru", push.title());
+        assertEquals("C", push.body());
+        assertEquals("3", push.data().get("count"));
+        dispatcher.stop();
+    }
+
+    @Test
+    void digestUpdatesReplaceTheirEarlierVersionAndAreNotPushedAgain() {
+        NotificationDispatcher dispatcher = dispatcher(true, 60_000);
+        NotificationDTO first = notification("New Application Received");
+        first.setId(1L);
+        NotificationDTO digest = notification("2 New Applications");
+        digest.setId(1L);
+
+        dispatcher.dispatch(USER_ID, first);
+        dispatcher.dispatchUpdate(USER_ID, digest);
+        dispatcher.flush(USER_ID);
+
+        verify(messagingTemplate, times(1)).convertAndSendToUser("7", "/queue/notifications", digest);
+        verify(messagingTemplate, never()).convertAndSendToUser("7", "/queue/notifications", first);
+        assertEquals(1, pushSender.sent().size());
+        assertEquals("2 New Applications", pushSender.sent().get(0).message().title());
+        dispatcher.stop();
+    }
+
+    @Test
+    void digestUpdateAloneIsNotPushed() {
+        NotificationDTO digest = notification("3 New Applications");
+        digest.setId(1L);
+
+        dispatcher(false, 0).dispatchUpdate(USER_ID, digest);
+
+        verify(messagingTemplate).convertAndSendToUser("7", "/queue/notifications", digest);
+        verify(messagingTemplate).convertAndSendToUser("7", "/queue/notifications/count", 3L);
+        assertTrue(pushSender.sent().isEmpty());
+    }
+
+    @Test
+    void onlineUserGetsNoPush() {
+        when(presence.isOnline(USER_ID)).thenReturn(true);
+
+        dispatcher(false, 0).dispatch(USER_ID, notification("A"));
+
+        verify(messagingTemplate).convertAndSendToUser(eq("7"), eq("/queue/notifications"), any(NotificationDTO.class));
+        assertTrue(pushSender.sent().isEmpty());
+        verifyNoInteractions(deviceTokenService);
+    }
+
+    @Test
+    void tokensAreSentInBatchesOfAtMost500() {
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < 1200; i++) {
+            tokens.add("device-" + i);
+        }
+        when(deviceTokenService.getTokensForUser(USER_ID)).thenReturn(tokens);
+
+        dispatcher(false, 0).dispatch(USER_ID, notification("A"));
+
+        assertEquals(List.of(500, 500, 200),
+                pushSender.sent().stream().map(sent -> sent.tokens().size()).toList());
+    }
+
+    @Test
+    void invalidTokensAreRemoved() {
+        pushSender.markInvalid("device-b");
+
+        dispatcher(false, 0).dispatch(USER_ID, notification("A"));
+
+        verify(deviceTokenService).removeTokens(USER_ID, List.of("device-b"));
+    }
+
+    @Test
+    void deliveryDoesNotWaitForThePushResult() {
+        pushSender.markInvalid("device-b");
+        pushSender.hold();
+
+        dispatcher(false, 0).dispatch(USER_ID, notification("A"));
+
+        verify(messagingTemplate).convertAndSendToUser(eq("7"), eq("/queue/notifications"), any(NotificationDTO.class));
+        verify(deviceTokenService, never()).removeTokens(anyLong(), anyCollection());
+
+        pushSender.release();
+        verify(deviceTokenService).removeTokens(USER_ID, List.of("device-b"));
+    }
+
+    @Test
+    void nothingIsRemovedWhenEveryTokenIsValid() {
+        dispatcher(false, 0).dispatch(USER_ID, notification("A"));
+
+        verify(deviceTokenService, never()).removeTokens(anyLong(), anyCollection());
+    }
+
+    @Test
+    void stopDeliversWhatIsStillPending() {
+        NotificationDispatcher dispatcher = dispatcher(true, 60_000);
+        dispatcher.dispatch(USER_ID, notification("A"));
+
+        dispatcher.stop();
+
+        assertEquals(1, pushSender.sent().size());
+    }
+
+    @Test
+    void unreadCountIsSentOnlyAfterCommit() {
+        NotificationDispatcher dispatcher = dispatcher(false, 0);
+        TransactionSynchronizationManager.initSynchronization();
+
+        dispatcher.dispatchUnreadCount(USER_ID);
+        verifyNoInteractions(messagingTemplate);
+
+        for (TransactionSynchronization sync : TransactionSynchronizationManager.getSynchronizations()) {
+            sync.afterCommit();
+        }
+        verify(messagingTemplate).convertAndSendToUser("7", "/queue/notifications/count", 3L);
+        verify(messagingTemplate, never())
+                .convertAndSendToUser(eq("7"), eq("/queue/notifications"), any(NotificationDTO.class));
+        assertTrue(pushSender.sent().isEmpty());
+    }
+
+    @Test
+    void unreadCountJoinsThePendingBurst() {
+        NotificationDispatcher dispatcher = dispatcher(true, 60_000);
+        dispatcher.dispatch(USER_ID, notification("A"));
+        dispatcher.dispatchUnreadCount(USER_ID);
+
+        dispatcher.flush(USER_ID);
+
+        verify(messagingTemplate, times(1))
+                .convertAndSendToUser(eq("7"), eq("/queue/notifications"), any(NotificationDTO.class));
+        verify(messagingTemplate, times(1)).convertAndSendToUser("7", "/queue/notifications/count", 3L);
+        assertEquals(1, pushSender.sent().size());
+        dispatcher.stop();
+    }
+}
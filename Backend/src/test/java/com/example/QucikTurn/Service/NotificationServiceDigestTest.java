@@ -0,0 +1,129 @@
+package com.example.QucikTurn.Service;
+
+import com.example.QucikTurn.Entity.Notification;
+import com.example.QucikTurn.Entity.NotificationEvent;
+import com.example.QucikTurn.Entity.User;
+import com.example.QucikTurn.Entity.enums.NotificationType;
+import com.example.QucikTurn.Repository.NotificationEventRepository;
+import com.example.QucikTurn.Repository.NotificationRepository;
+import com.example.QucikTurn.dto.NotificationDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for digesting repeated notifications in {@link NotificationService}.
+ */
+class NotificationServiceDigestTest {
+
+    private static final long CLIENT_ID = 7L;
+    private static final long PROJECT_ID = 42L;
+
+    private NotificationRepository notificationRepo;
+    private NotificationEventRepository eventRepo;
+    private NotificationDispatcher dispatcher;
+    private UnreadNotificationCounter unreadCounter;
+    private User client;
+
+    @BeforeEach
+    void setUp() {
+        notificationRepo = mock(NotificationRepository.class);
+        eventRepo = mock(NotificationEventRepository.class);
+        dispatcher = mock(NotificationDispatcher.class);
+        unreadCounter = mock(UnreadNotificationCounter.class);
+        client = new User();
+        ReflectionTestUtils.setField(client, "id", CLIENT_ID);
+        when(notificationRepo.save(any(Notification.class))).thenAnswer(inv -> {
+            Notification n = inv.getArgument(0);
+            if (n.getId() == null) {
+                n.setId(100L);
+            }
+            return n;
+        });
+    }
+
+    private NotificationService service(long digestWindowMs) {
+        return new NotificationService(notificationRepo, dispatcher, unreadCounter, eventRepo, digestWindowMs);
+    }
+
+    private void openDigest(Notification digest) {
+        when(notificationRepo.findOpenDigests(eq(CLIENT_ID), eq(NotificationType.APPLICATION_RECEIVED),
+                eq("PROJECT"), eq(PROJECT_ID), any(), any())).thenReturn(List.of(digest));
+    }
+
+    private Notification existing(int eventCount) {
+        Notification n = new Notification(client, NotificationType.APPLICATION_RECEIVED,
+                "New Application Received", "Andi has applied to your project: Logo", "PROJECT", PROJECT_ID,
+                "/dashboardu");
+        n.setId(100L);
+        n.setEventCount(eventCount);
+        return n;
+    }
+
+    @Test
+    void firstEventCreatesAnOrdinaryNotification() {
+        service(600_000).notifyApplicationReceived(client, "Andi", "Logo", PROJECT_ID);
+
+        verify(notificationRepo).save(any(Notification.class));
+        verify(unreadCounter).increment(CLIENT_ID);
+        verify(dispatcher).dispatch(eq(CLIENT_ID), any(NotificationDTO.class));
+        verifyNoInteractions(eventRepo);
+    }
+
+    @Test
+    void secondEventTurnsTheNotificationIntoADigest() {
+        openDigest(existing(1));
+
+        service(600_000).notifyApplicationReceived(client, "Budi", "Logo", PROJECT_ID);
+
+        ArgumentCaptor<NotificationEvent> events = ArgumentCaptor.forClass(NotificationEvent.class);
+        verify(eventRepo, times(2)).save(events.capture());
+        assertEquals("Andi has applied to your project: Logo", events.getAllValues().get(0).getMessage());
+        assertEquals("Budi has applied to your project: Logo", events.getAllValues().get(1).getMessage());
+
+        ArgumentCaptor<NotificationDTO> dto = ArgumentCaptor.forClass(NotificationDTO.class);
+        verify(dispatcher).dispatchUpdate(eq(CLIENT_ID), dto.capture());
+        assertEquals("2 New Applications", dto.getValue().getTitle());
+        assertEquals(2, dto.getValue().getEventCount());
+        verify(dispatcher, never()).dispatch(anyLong(), any());
+        verify(unreadCounter, never()).increment(anyLong());
+    }
+
+    @Test
+    void laterEventsOnlyAddTheirOwnEvent() {
+        openDigest(existing(11));
+
+        service(600_000).notifyApplicationReceived(client, "Citra", "Logo", PROJECT_ID);
+
+        verify(eventRepo, times(1)).save(any(NotificationEvent.class));
+        ArgumentCaptor<NotificationDTO> dto = ArgumentCaptor.forClass(NotificationDTO.class);
+        verify(dispatcher).dispatchUpdate(eq(CLIENT_ID), dto.capture());
+        assertEquals("12 talents have applied to your project: Logo", dto.getValue().getMessage());
+    }
+
+    @Test
+    void zeroWindowNeverDigests() {
+        openDigest(existing(1));
+
+        service(0).notifyApplicationReceived(client, "Budi", "Logo", PROJECT_ID);
+
+        verify(notificationRepo, never()).findOpenDigests(anyLong(), any(), any(), any(), any(), any());
+        verify(dispatcher).dispatch(eq(CLIENT_ID), any(NotificationDTO.class));
+        verifyNoInteractions(eventRepo);
+    }
+
+    @Test
+    void markAllAsReadSendsTheCountThroughTheDispatcher() {
+        service(600_000).markAllAsRead(CLIENT_ID);
+
+        verify(unreadCounter).reset(CLIENT_ID);
+        verify(dispatcher).dispatchUnreadCount(CLIENT_ID);
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.QucikTurn.Service;
+
+import com.example.QucikTurn.Entity.Project;
+import com.example.QucikTurn.Entity.enums.ProjectStatus;
+import com.example.QucikTurn.Repository.ProjectRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link ProjectSpatialIndex}: building from the repository,
+ * radius queries across cell boundaries, and incremental add/remove.
+ */
+class ProjectSpatialIndexTest {
+
+    private ProjectRepository projectRepo;
+    private ProjectSpatialIndex index;
+
+    // Reference location: Bandung city center
+    private static final double USER_LAT = -6.9000;
+    private static final double USER_LNG = 107.6000;
+
+    @BeforeEach
+    void setUp() {
+        projectRepo = mock(ProjectRepository.class);
+        index = new ProjectSpatialIndex(projectRepo, true);
+    }
+
+    private Project project(long id, ProjectStatus status, Double lat, Double lng) {
+        Project p = new Project();
+        ReflectionTestUtils.setField(p, "id", id);
+        p.setStatus(status);
+        p.setLatitude(lat);
+        p.setLongitude(lng);
+        return p;
+    }
+
+    @Test
+    void notReadyUntilBuilt() {
+        assertFalse(index.isReady());
+        when(projectRepo.findByStatusAndLatitudeIsNotNullAndLongitudeIsNotNull(ProjectStatus.OPEN))
+                .thenReturn(List.of());
+
+        index.rebuild();
+
+        assertTrue(index.isReady());
+    }
+
+    @Test
+    void disabledIndexIsNeverReady() {
+        ProjectSpatialIndex disabled = new ProjectSpatialIndex(projectRepo, false);
+        disabled.rebuild();
+
+        assertFalse(disabled.isReady());
+        verifyNoInteractions(projectRepo);
+    }
+
+    @Test
+    void queryReturnsOnlyProjectsInRadiusSortedNearestFirst() {
+        when(projectRepo.findByStatusAndLatitudeIsNotNullAndLongitudeIsNotNull(ProjectStatus.OPEN))
+                .thenReturn(List.of(
+                        project(1, ProjectStatus.OPEN, -6.9700, 107.6700), // ~10 km
+                        project(2, ProjectStatus.OPEN, -6.9010, 107.6010), // very close
+                        project(3, ProjectStatus.OPEN, -6.2000, 106.8000), // Jakarta, ~120 km
+                        project(4, ProjectStatus.OPEN, -6.9300, 107.6300))); // a few km
+        index.rebuild();
+
+        List<ProjectSpatialIndex.Hit> hits = index.query(USER_LAT, USER_LNG, 25.0);
+
+        assertEquals(List.of(2L, 4L, 1L), hits.stream().map(ProjectSpatialIndex.Hit::projectId).toList());
+        assertTrue(hits.get(0).distanceKm() <= hits.get(1).distanceKm());
+    }
+
+    @Test
+    void queryFindsProjectsInNeighbouringCells() {
+        // Just across a 0.1 degree cell boundary from the user.
+        when(projectRepo.findByStatusAndLatitudeIsNotNullAndLongitudeIsNotNull(ProjectStatus.OPEN))
+                .thenReturn(List.of(project(1, ProjectStatus.OPEN, -6.8990, 107.5990)));
+        index.rebuild();
+
+        assertEquals(1, index.query(-6.9001, 107.6001, 1.0).size());
+    }
+
+    @Test
+    void queryWrapsAcrossAntimeridian() {
+        when(projectRepo.findByStatusAndLatitudeIsNotNullAndLongitudeIsNotNull(ProjectStatus.OPEN))
+                .thenReturn(List.of(project(1, ProjectStatus.OPEN, -17.0, -179.95)));
+        index.rebuild();
+
+        assertEquals(1, index.query(-17.0, 179.95, 20.0).size());
+    }
+
+    @Test
+    void upsertAndEvictKeepIndexInSync() {
+        when(projectRepo.findByStatusAndLatitudeIsNotNullAndLongitudeIsNotNull(ProjectStatus.OPEN))
+                .thenReturn(List.of());
+        index.rebuild();
+
+        Project p = project(7, ProjectStatus.OPEN, -6.9050, 107.6050);
+        index.upsert(p);
+        assertEquals(1, index.query(USER_LAT, USER_LNG, 5.0).size());
+
+        // Moving out of OPEN removes it from the index.
+        p.setStatus(ProjectStatus.ONGOING);
+        index.upsert(p);
+        assertTrue(index.query(USER_LAT, USER_LNG, 5.0).isEmpty());
+
+        index.upsert(project(8, ProjectStatus.OPEN, -6.9050, 107.6050));
+        index.evict(8L);
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void changesAppliedWhileRebuildingAreNotLost() {
+        Project created = project(7, ProjectStatus.OPEN, -6.9050, 107.6050);
+        when(projectRepo.findByStatusAndLatitudeIsNotNullAndLongitudeIsNotNull(ProjectStatus.OPEN))
+                .thenReturn(List.of(project(1, ProjectStatus.OPEN, -6.9010, 107.6010)))
+                .thenAnswer(inv -> {
+                    // Committed after the snapshot below was read
+                    index.upsert(created);
+                    index.evict(1L);
+                    return List.of(project(1, ProjectStatus.OPEN, -6.9010, 107.6010));
+                });
+        index.rebuild();
+
+        index.rebuild();
+
+        assertEquals(List.of(7L), index.query(USER_LAT, USER_LNG, 5.0).stream()
+                .map(ProjectSpatialIndex.Hit::projectId).toList());
+    }
+
+    @Test
+    void projectsWithoutCoordinatesAreNotIndexed() {
+        index.upsert(project(1, ProjectStatus.OPEN, null, 107.6));
+        index.upsert(project(2, ProjectStatus.OPEN, -6.9, null));
+
+        assertEquals(0, index.size());
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.QucikTurn.Service;
+
+import com.example.QucikTurn.Entity.enums.ApplicationStatus;
+import com.example.QucikTurn.Entity.enums.ProjectStatus;
+import com.example.QucikTurn.Repository.ApplicationRepository;
+import com.example.QucikTurn.Repository.ProjectRepository;
+import com.example.QucikTurn.Repository.WorkSubmissionRepository;
+import com.example.QucikTurn.dto.CursorPage;
+import com.example.QucikTurn.dto.ProjectBrowseFilter;
+import com.example.QucikTurn.dto.ProjectBrowseItem;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the keyset-paginated browse listing of
+ * {@link ProjectViewerService}.
+ */
+class ProjectViewerServiceBrowseTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 3, 1, 10, 0);
+
+    private ProjectRepository projectRepo;
+    private ApplicationRepository applicationRepo;
+    private ProjectViewerService service;
+
+    @BeforeEach
+    void setUp() {
+        projectRepo = mock(ProjectRepository.class);
+        applicationRepo = mock(ApplicationRepository.class);
+        service = new ProjectViewerService(projectRepo, applicationRepo, mock(WorkSubmissionRepository.class),
+                new ProjectSpatialIndex(projectRepo, true));
+    }
+
+    private ProjectBrowseItem item(long id) {
+        return new ProjectBrowseItem(id, "Project " + id, null, "Design", BigDecimal.TEN, null, null, null,
+                null, null, null, 0, NOW.minusMinutes(id), 9L, "Owner", null);
+    }
+
+    private List<ProjectBrowseItem> items(long fromId, int count) {
+        List<ProjectBrowseItem> items = new ArrayList<>();
+        for (long id = fromId; id < fromId + count; id++) {
+            items.add(item(id));
+        }
+        return items;
+    }
+
+    private void stubBrowse(List<ProjectBrowseItem> rows) {
+        when(projectRepo.browse(eq(ProjectStatus.OPEN), any(), any(), any(), any(), any(), any(), any(), any(),
+                any(Pageable.class))).thenReturn(rows);
+    }
+
+    @Test
+    void fullPageReturnsCursorOfLastItem() {
+        stubBrowse(items(1, 3)); // limit 2 plus the look-ahead row
+
+        CursorPage<ProjectBrowseItem> page = service.browseOpenProjects(ProjectBrowseFilter.none(), null, 2, null);
+
+        assertEquals(List.of(1L, 2L), page.items().stream().map(ProjectBrowseItem::id).toList());
+        assertTrue(page.hasMore());
+        verify(projectRepo).browse(eq(ProjectStatus.OPEN), isNull(), isNull(), isNull(), isNull(), isNull(),
+                isNull(), any(), eq(Long.MAX_VALUE), eq(PageRequest.of(0, 3)));
+
+        stubBrowse(items(3, 1));
+        CursorPage<ProjectBrowseItem> next = service.browseOpenProjects(ProjectBrowseFilter.none(), null, 2,
+                page.nextCursor());
+
+        assertFalse(next.hasMore());
+        assertNull(next.nextCursor());
+        verify(projectRepo).browse(eq(ProjectStatus.OPEN), isNull(), isNull(), isNull(), isNull(), isNull(),
+                isNull(), eq(NOW.minusMinutes(2)), eq(2L), any(Pageable.class));
+    }
+
+    @Test
+    void studentStatusesAreFilledWithOneQuery() {
+        stubBrowse(items(1, 2));
+        ApplicationRepository.ProjectApplicationStatus row = mock(ApplicationRepository.ProjectApplicationStatus.class);
+        when(row.getProjectId()).thenReturn(2L);
+        when(row.getStatus()).thenReturn(ApplicationStatus.APPROVED);
+        when(applicationRepo.findStatusesByStudentIdAndProjectIds(eq(5L), anyCollection())).thenReturn(List.of(row));
+
+        List<ProjectBrowseItem> result = service.browseOpenProjects(ProjectBrowseFilter.none(), 5L, 20, null).items();
+
+        assertNull(result.get(0).myApplicationStatus());
+        assertEquals("APPROVED", result.get(1).myApplicationStatus());
+        verify(applicationRepo, times(1)).findStatusesByStudentIdAndProjectIds(eq(5L), anyCollection());
+    }
+
+    @Test
+    void rejectsInvalidInput() {
+        ProjectBrowseFilter inverted = new ProjectBrowseFilter(null, null, null, BigDecimal.TEN, BigDecimal.ONE, null);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> service.browseOpenProjects(inverted, null, 20, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.browseOpenProjects(ProjectBrowseFilter.none(), null, 0, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.browseOpenProjects(ProjectBrowseFilter.none(), null, 20, "not-a-cursor"));
+        verifyNoInteractions(projectRepo);
+    }
+}
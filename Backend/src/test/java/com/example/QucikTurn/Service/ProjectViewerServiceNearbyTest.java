@@ -6,9 +6,11 @@ import com.example.QucikTurn.Entity.enums.ProjectStatus;
 import com.example.QucikTurn.Repository.ApplicationRepository;
 import com.example.QucikTurn.Repository.ProjectRepository;
 import com.example.QucikTurn.Repository.WorkSubmissionRepository;
+import com.example.QucikTurn.dto.CursorPage;
 import com.example.QucikTurn.dto.NearbyProjectResponse;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -16,6 +18,7 @@ import java.util.Arrays;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 /**
@@ -41,7 +44,9 @@ class ProjectViewerServiceNearbyTest {
         projectRepo = mock(ProjectRepository.class);
         ApplicationRepository applicationRepo = mock(ApplicationRepository.class);
         WorkSubmissionRepository workSubmissionRepo = mock(WorkSubmissionRepository.class);
-        service = new ProjectViewerService(projectRepo, applicationRepo, workSubmissionRepo);
+        // Index is never built here, so the service falls back to scanning candidates.
+        ProjectSpatialIndex spatialIndex = new ProjectSpatialIndex(projectRepo, true);
+        service = new ProjectViewerService(projectRepo, applicationRepo, workSubmissionRepo, spatialIndex);
     }
 
     private User owner(String name) {
@@ -68,7 +73,8 @@ class ProjectViewerServiceNearbyTest {
     void filtersOutProjectsBeyondRadius() {
         Project near = project("Near", -6.9100, 107.6100); // ~1.5 km away
         Project far = project("Far", -6.2000, 106.8000); // Jakarta, ~120 km away
-        when(projectRepo.findByStatusAndLatitudeIsNotNullAndLongitudeIsNotNull(ProjectStatus.OPEN))
+        when(projectRepo.findByStatusAndLatitudeBetweenAndLongitudeBetween(
+                eq(ProjectStatus.OPEN), anyDouble(), anyDouble(), anyDouble(), anyDouble()))
                 .thenReturn(Arrays.asList(near, far));
 
         List<NearbyProjectResponse> result = service.getNearbyProjects(USER_LAT, USER_LNG, 10.0);
@@ -82,7 +88,8 @@ class ProjectViewerServiceNearbyTest {
         Project closest = project("Closest", -6.9010, 107.6010); // very close
         Project middle = project("Middle", -6.9300, 107.6300); // a few km
         Project farButInRange = project("FarInRange", -6.9700, 107.6700); // farther, still < 25km
-        when(projectRepo.findByStatusAndLatitudeIsNotNullAndLongitudeIsNotNull(ProjectStatus.OPEN))
+        when(projectRepo.findByStatusAndLatitudeBetweenAndLongitudeBetween(
+                eq(ProjectStatus.OPEN), anyDouble(), anyDouble(), anyDouble(), anyDouble()))
                 .thenReturn(Arrays.asList(farButInRange, middle, closest));
 
         List<NearbyProjectResponse> result = service.getNearbyProjects(USER_LAT, USER_LNG, 25.0);
@@ -101,7 +108,8 @@ class ProjectViewerServiceNearbyTest {
         Project withCoords = project("HasCoords", -6.9050, 107.6050);
         Project noLat = project("NoLat", null, 107.6050);
         Project noLng = project("NoLng", -6.9050, null);
-        when(projectRepo.findByStatusAndLatitudeIsNotNullAndLongitudeIsNotNull(ProjectStatus.OPEN))
+        when(projectRepo.findByStatusAndLatitudeBetweenAndLongitudeBetween(
+                eq(ProjectStatus.OPEN), anyDouble(), anyDouble(), anyDouble(), anyDouble()))
                 .thenReturn(Arrays.asList(withCoords, noLat, noLng));
 
         List<NearbyProjectResponse> result = service.getNearbyProjects(USER_LAT, USER_LNG, 25.0);
@@ -113,7 +121,8 @@ class ProjectViewerServiceNearbyTest {
     @Test
     void includesRoundedDistanceAndOwnerInfo() {
         Project near = project("Near", -6.9100, 107.6100);
-        when(projectRepo.findByStatusAndLatitudeIsNotNullAndLongitudeIsNotNull(ProjectStatus.OPEN))
+        when(projectRepo.findByStatusAndLatitudeBetweenAndLongitudeBetween(
+                eq(ProjectStatus.OPEN), anyDouble(), anyDouble(), anyDouble(), anyDouble()))
                 .thenReturn(List.of(near));
 
         List<NearbyProjectResponse> result = service.getNearbyProjects(USER_LAT, USER_LNG, 10.0);
@@ -127,6 +136,58 @@ class ProjectViewerServiceNearbyTest {
         assertEquals("OPEN", dto.status());
     }
 
+    @Test
+    void queriesRepositoryWithBoundingBoxOfRadius() {
+        when(projectRepo.findByStatusAndLatitudeBetweenAndLongitudeBetween(
+                eq(ProjectStatus.OPEN), anyDouble(), anyDouble(), anyDouble(), anyDouble()))
+                .thenReturn(List.of());
+
+        service.getNearbyProjects(USER_LAT, USER_LNG, 10.0);
+
+        // 10 km is ~0.09 degrees of latitude (and slightly more longitude here).
+        verify(projectRepo).findByStatusAndLatitudeBetweenAndLongitudeBetween(
+                eq(ProjectStatus.OPEN),
+                doubleThat(v -> Math.abs(v - (USER_LAT - 0.0899)) < 0.001),
+                doubleThat(v -> Math.abs(v - (USER_LAT + 0.0899)) < 0.001),
+                doubleThat(v -> v < USER_LNG - 0.0899 && v > USER_LNG - 0.1),
+                doubleThat(v -> v > USER_LNG + 0.0899 && v < USER_LNG + 0.1));
+        verify(projectRepo, never()).findByStatusAndLatitudeIsNotNullAndLongitudeIsNotNull(any());
+    }
+
+    @Test
+    void paginatesWithCursorNearestFirst() {
+        Project closest = project("Closest", -6.9010, 107.6010);
+        Project middle = project("Middle", -6.9300, 107.6300);
+        Project farButInRange = project("FarInRange", -6.9700, 107.6700);
+        ReflectionTestUtils.setField(closest, "id", 1L);
+        ReflectionTestUtils.setField(middle, "id", 2L);
+        ReflectionTestUtils.setField(farButInRange, "id", 3L);
+        when(projectRepo.findByStatusAndLatitudeBetweenAndLongitudeBetween(
+                eq(ProjectStatus.OPEN), anyDouble(), anyDouble(), anyDouble(), anyDouble()))
+                .thenReturn(Arrays.asList(farButInRange, middle, closest));
+
+        CursorPage<NearbyProjectResponse> first = service.getNearbyProjects(USER_LAT, USER_LNG, 25.0, 2, null);
+
+        assertEquals(List.of("Closest", "Middle"), first.items().stream().map(NearbyProjectResponse::title).toList());
+        assertTrue(first.hasMore());
+        assertNotNull(first.nextCursor());
+
+        CursorPage<NearbyProjectResponse> second = service.getNearbyProjects(USER_LAT, USER_LNG, 25.0, 2,
+                first.nextCursor());
+
+        assertEquals(List.of("FarInRange"), second.items().stream().map(NearbyProjectResponse::title).toList());
+        assertFalse(second.hasMore());
+        assertNull(second.nextCursor());
+    }
+
+    @Test
+    void invalidCursorAndLimitThrow() {
+        assertThrows(IllegalArgumentException.class,
+                () -> service.getNearbyProjects(USER_LAT, USER_LNG, 10.0, 0, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.getNearbyProjects(USER_LAT, USER_LNG, 10.0, 10, "not-a-cursor"));
+    }
+
     @Test
     void invalidLatitudeThrows() {
         IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
@@ -154,7 +215,8 @@ class ProjectViewerServiceNearbyTest {
         // A project ~120 km away must NOT appear even if a huge radius is requested,
         // because the radius is capped at MAX_RADIUS_KM (100 km).
         Project far = project("Far", -6.2000, 106.8000);
-        when(projectRepo.findByStatusAndLatitudeIsNotNullAndLongitudeIsNotNull(ProjectStatus.OPEN))
+        when(projectRepo.findByStatusAndLatitudeBetweenAndLongitudeBetween(
+                eq(ProjectStatus.OPEN), anyDouble(), anyDouble(), anyDouble(), anyDouble()))
                 .thenReturn(List.of(far));
 
         List<NearbyProjectResponse> result = service.getNearbyProjects(USER_LAT, USER_LNG, 5000.0);
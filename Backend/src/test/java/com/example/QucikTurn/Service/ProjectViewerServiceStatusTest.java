@@ -0,0 +1,163 @@
+package com.example.QucikTurn.Service;
+
+import com.example.QucikTurn.Entity.Project;
+import com.example.QucikTurn.Entity.User;
+import com.example.QucikTurn.Entity.enums.ApplicationStatus;
+import com.example.QucikTurn.Entity.enums.ProjectStatus;
+import com.example.QucikTurn.Repository.ApplicationRepository;
+import com.example.QucikTurn.Repository.ProjectRepository;
+import com.example.QucikTurn.Repository.WorkSubmissionRepository;
+import com.example.QucikTurn.dto.ProjectWithStatusResponse;
+import com.example.QucikTurn.dto.UmkmProjectResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the project listings of {@link ProjectViewerService} that
+ * carry per-project data (the student's application status, the latest
+ * submission, the UMKM's applicant counts): all of it is batch-loaded, never
+ * looked up per project.
+ */
+class ProjectViewerServiceStatusTest {
+
+    private static final long STUDENT_ID = 5L;
+
+    private ProjectRepository projectRepo;
+    private ApplicationRepository applicationRepo;
+    private WorkSubmissionRepository workSubmissionRepo;
+    private ProjectViewerService service;
+
+    @BeforeEach
+    void setUp() {
+        projectRepo = mock(ProjectRepository.class);
+        applicationRepo = mock(ApplicationRepository.class);
+        workSubmissionRepo = mock(WorkSubmissionRepository.class);
+        service = new ProjectViewerService(projectRepo, applicationRepo, workSubmissionRepo,
+                new ProjectSpatialIndex(projectRepo, true));
+    }
+
+    private Project project(long id) {
+        Project p = new Project();
+        ReflectionTestUtils.setField(p, "id", id);
+        p.setTitle("Project " + id);
+        p.setStatus(ProjectStatus.OPEN);
+        p.setOwner(new User());
+        return p;
+    }
+
+    private ApplicationRepository.ProjectApplicationStatus status(long projectId, ApplicationStatus status) {
+        return new ApplicationRepository.ProjectApplicationStatus() {
+            public Long getProjectId() {
+                return projectId;
+            }
+
+            public ApplicationStatus getStatus() {
+                return status;
+            }
+        };
+    }
+
+    private WorkSubmissionRepository.LatestSubmission submission(long id, long projectId, String status,
+            String feedback) {
+        LocalDateTime submittedAt = LocalDateTime.of(2025, 1, 1, 12, 0);
+        return new WorkSubmissionRepository.LatestSubmission() {
+            public Long getId() {
+                return id;
+            }
+
+            public Long getProjectId() {
+                return projectId;
+            }
+
+            public String getStatus() {
+                return status;
+            }
+
+            public String getFeedback() {
+                return feedback;
+            }
+
+            public LocalDateTime getSubmittedAt() {
+                return submittedAt;
+            }
+        };
+    }
+
+    @Test
+    void openProjectsAreAssembledFromBatchQueries() {
+        when(projectRepo.findByStatus(ProjectStatus.OPEN)).thenReturn(List.of(project(1), project(2), project(3)));
+        when(applicationRepo.findStatusesByStudentIdAndProjectIds(eq(STUDENT_ID), anyCollection()))
+                .thenReturn(List.of(status(2, ApplicationStatus.PENDING)));
+        when(workSubmissionRepo.findLatestByProjectIds(anyCollection())).thenReturn(List.of(
+                submission(10, 3, "PENDING", null),
+                submission(11, 3, "REJECTED", "Fix the layout"))); // same timestamp, newer row wins
+
+        List<ProjectWithStatusResponse> result = service.getOpenProjectsWithStatus(STUDENT_ID);
+
+        assertEquals(3, result.size());
+        assertNull(result.get(0).myApplicationStatus());
+        assertEquals("PENDING", result.get(1).myApplicationStatus());
+        assertEquals("REJECTED", result.get(2).latestSubmissionStatus());
+        assertEquals("Fix the layout", result.get(2).latestSubmissionFeedback());
+        assertNull(result.get(0).latestSubmissionStatus());
+
+        verify(applicationRepo, times(1)).findStatusesByStudentIdAndProjectIds(eq(STUDENT_ID), anyCollection());
+        verify(workSubmissionRepo, times(1)).findLatestByProjectIds(anyCollection());
+        verify(applicationRepo, never()).findByProjectIdAndStudentId(anyLong(), anyLong());
+        verify(workSubmissionRepo, never()).findByProjectIdOrderBySubmittedAtDesc(anyLong());
+    }
+
+    @Test
+    void anonymousListingSkipsStatusLookup() {
+        when(projectRepo.findByStatus(ProjectStatus.OPEN)).thenReturn(List.of(project(1)));
+
+        service.getOpenProjectsWithStatus(null);
+
+        verifyNoInteractions(applicationRepo);
+        verify(workSubmissionRepo, times(1)).findLatestByProjectIds(anyCollection());
+    }
+
+    @Test
+    void largeListingsAreSplitIntoBoundedBatches() {
+        List<Project> projects = new ArrayList<>();
+        for (long id = 1; id <= 2_500; id++) {
+            projects.add(project(id));
+        }
+
+        assertEquals(2_500, service.convertToStatusResponse(projects, STUDENT_ID).size());
+
+        verify(applicationRepo, times(3)).findStatusesByStudentIdAndProjectIds(eq(STUDENT_ID), anyCollection());
+        verify(workSubmissionRepo, times(3)).findLatestByProjectIds(anyCollection());
+    }
+
+    @Test
+    void ownerDashboardCountsApplicantsWithOneGroupedQuery() {
+        when(projectRepo.findByOwnerId(9L)).thenReturn(List.of(project(1), project(2)));
+        ApplicationRepository.ProjectApplicantCount row = mock(ApplicationRepository.ProjectApplicantCount.class);
+        when(row.getProjectId()).thenReturn(2L);
+        when(row.getApplicantCount()).thenReturn(4L);
+        when(applicationRepo.countApplicantsByOwnerId(9L)).thenReturn(List.of(row));
+
+        List<UmkmProjectResponse> result = service.getProjectsByOwnerWithApplicantCount(9L);
+
+        assertEquals(0, result.get(0).applicantCount());
+        assertEquals(4, result.get(1).applicantCount());
+        verify(applicationRepo, never()).countByProjectId(anyLong());
+    }
+
+    @Test
+    void emptyListingRunsNoLookups() {
+        assertTrue(service.convertToStatusResponse(List.of(), STUDENT_ID).isEmpty());
+
+        verifyNoInteractions(applicationRepo, workSubmissionRepo);
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.QucikTurn.Service;
+
+import com.example.QucikTurn.Entity.Project;
+import com.example.QucikTurn.Entity.User;
+import com.example.QucikTurn.Entity.enums.ProjectStatus;
+import com.example.QucikTurn.Repository.ProjectRepository;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark: {@link RecommendationService#getRecommendationsForUser} at
+ * 1k/10k/100k open projects.
+ *
+ * <ul>
+ * <li>{@code indexed} - skill index candidates plus bounded top-K heap</li>
+ * <li>{@code fullScanTopK} - every project scored, bounded top-K heap</li>
+ * <li>{@code fullScanRankAll} - every project scored and fully ranked, which
+ * is the cost of the previous sort-then-limit implementation</li>
+ * </ul>
+ *
+ * <p>
+ * Not a unit test. Run from the Backend directory with:
+ * {@code mvn -q test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.example.QucikTurn.Service.RecommendationServiceBenchmark}
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RecommendationServiceBenchmark {
+
+    private static final String[] SKILLS = { "Java", "React", "Figma", "Photoshop", "Node.js", "SQL",
+            "Python", "Flutter", "Corel", "Excel", "Go", "Kotlin", "Swift", "Laravel", "Vue",
+            "Illustrator", "Premiere", "Copywriting", "SEO", "Tableau" };
+    private static final String[] CATEGORIES = { "Web Development", "Design", "Multimedia", "Data",
+            "Mobile App", "Writing", "Marketing" };
+    private static final int LIMIT = 10;
+
+    @Param({ "1000", "10000", "100000" })
+    public int openProjects;
+
+    private RecommendationService indexed;
+    private RecommendationService fullScan;
+    private User user;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(5);
+        LocalDateTime base = LocalDateTime.now();
+        List<Project> catalog = new ArrayList<>(openProjects);
+        Map<Long, Project> byId = new HashMap<>();
+        for (long id = 1; id <= openProjects; id++) {
+            Project p = new Project();
+            ReflectionTestUtils.setField(p, "id", id);
+            ReflectionTestUtils.setField(p, "createdAt", base.minusMinutes(random.nextInt(100_000)));
+            p.setStatus(ProjectStatus.OPEN);
+            StringBuilder skills = new StringBuilder();
+            int n = 1 + random.nextInt(4);
+            for (int i = 0; i < n; i++) {
+                if (i > 0) {
+                    skills.append(", ");
+                }
+                skills.append(SKILLS[random.nextInt(SKILLS.length)]);
+            }
+            p.setRequiredSkills(skills.toString());
+            p.setCategory(CATEGORIES[random.nextInt(CATEGORIES.length)]);
+            p.setApplicantCount(random.nextInt(20));
+            catalog.add(p);
+            byId.put(id, p);
+        }
+
+        // Plain proxy instead of a Mockito mock so stubbing overhead stays out of the numbers.
+        ProjectRepository projectRepo = (ProjectRepository) Proxy.newProxyInstance(
+                ProjectRepository.class.getClassLoader(), new Class<?>[] { ProjectRepository.class },
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findByStatus" -> catalog;
+                    case "findAllById" -> ((Collection<?>) args[0]).stream()
+                            .map(byId::get)
+                            .filter(Objects::nonNull)
+                            .toList();
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+
+        ProjectSkillIndex index = new ProjectSkillIndex(projectRepo, true);
+        index.rebuild();
+        // Ranking cache disabled so every call measures the ranking itself.
+        indexed = new RecommendationService(projectRepo, index, "");
+        fullScan = new RecommendationService(projectRepo, new ProjectSkillIndex(projectRepo, false), "");
+
+        user = new User();
+        user.setSkills("Java, SQL, Figma");
+        user.setBidang("Web Development");
+    }
+
+    @Benchmark
+    public void indexed(Blackhole bh) {
+        bh.consume(indexed.getRecommendationsForUser(user, LIMIT));
+    }
+
+    @Benchmark
+    public void fullScanTopK(Blackhole bh) {
+        bh.consume(fullScan.getRecommendationsForUser(user, LIMIT));
+    }
+
+    @Benchmark
+    public void fullScanRankAll(Blackhole bh) {
+        bh.consume(fullScan.getRecommendationsForUser(user, openProjects));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RecommendationServiceBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,276 @@
+package com.example.QucikTurn.Service;
+
+import com.example.QucikTurn.Entity.Project;
+import com.example.QucikTurn.Entity.User;
+import com.example.QucikTurn.Entity.enums.ProjectStatus;
+import com.example.QucikTurn.Repository.ProjectRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link RecommendationService}.
+ */
+class RecommendationServiceTest {
+
+    private static final String[] SKILLS = { "Java", "React", "Figma", "Photoshop", "Node.js", "SQL",
+            "Python", "Flutter", "Corel", "Excel" };
+    private static final String[] CATEGORIES = { "Web Development", "Design", "Multimedia", "Data",
+            "Mobile App" };
+
+    private ProjectRepository projectRepo;
+    private List<Project> catalog;
+
+    @BeforeEach
+    void setUp() {
+        projectRepo = mock(ProjectRepository.class);
+        catalog = new ArrayList<>();
+        when(projectRepo.findByStatus(ProjectStatus.OPEN)).thenAnswer(inv -> catalog);
+        when(projectRepo.findAllById(any())).thenAnswer(inv -> {
+            Collection<?> ids = inv.getArgument(0);
+            return catalog.stream().filter(p -> ids.contains(p.getId())).toList();
+        });
+    }
+
+    private Project project(long id, String skills, String category, int applicants, LocalDateTime createdAt) {
+        Project p = new Project();
+        ReflectionTestUtils.setField(p, "id", id);
+        ReflectionTestUtils.setField(p, "createdAt", createdAt);
+        p.setStatus(ProjectStatus.OPEN);
+        p.setRequiredSkills(skills);
+        p.setCategory(category);
+        p.setApplicantCount(applicants);
+        return p;
+    }
+
+    private User user(long id, String skills, String bidang) {
+        User u = user(skills, bidang);
+        ReflectionTestUtils.setField(u, "id", id);
+        return u;
+    }
+
+    private User user(String skills, String bidang) {
+        User u = new User();
+        u.setSkills(skills);
+        u.setBidang(bidang);
+        return u;
+    }
+
+    private RecommendationService service(boolean indexed) {
+        ProjectSkillIndex index = new ProjectSkillIndex(projectRepo, indexed);
+        index.rebuild();
+        return new RecommendationService(projectRepo, index, "maximumSize=100");
+    }
+
+    private static List<Long> ids(List<Project> projects) {
+        return projects.stream().map(Project::getId).toList();
+    }
+
+    @Test
+    void ranksBySkillMatchThenCategoryThenTieBreaks() {
+        LocalDateTime now = LocalDateTime.now();
+        catalog.add(project(1, "Java, React", "Web Development", 0, now)); // full skill + category
+        catalog.add(project(2, "Java, Figma", "Design", 5, now)); // half skill
+        catalog.add(project(3, "Photoshop", "Multimedia", 9, now)); // nothing
+        catalog.add(project(4, "Java, Figma", "Design", 1, now.minusDays(1))); // same as 2, fewer applicants
+
+        List<Project> result = service(true).getRecommendationsForUser(user("java, REACT ", "web"), 10);
+
+        assertEquals(List.of(1L, 2L, 4L, 3L), ids(result));
+    }
+
+    @Test
+    void indexedRankingMatchesFullScan() {
+        Random random = new Random(11);
+        LocalDateTime base = LocalDateTime.now();
+        for (long id = 1; id <= 500; id++) {
+            StringBuilder skills = new StringBuilder();
+            int n = random.nextInt(4); // some projects have no required skills
+            for (int i = 0; i < n; i++) {
+                if (i > 0) {
+                    skills.append(", ");
+                }
+                skills.append(SKILLS[random.nextInt(SKILLS.length)]);
+            }
+            catalog.add(project(id, skills.toString(), CATEGORIES[random.nextInt(CATEGORIES.length)],
+                    random.nextInt(5), base.minusMinutes(random.nextInt(1000))));
+        }
+
+        RecommendationService indexed = service(true);
+        RecommendationService fullScan = service(false);
+        for (User u : List.of(user("Java, SQL", "Web"), user("Figma", "design"), user(null, null),
+                user("Cobol", "Finance"), user("Flutter, Python, Excel", "Mobile App"))) {
+            assertEquals(ids(fullScan.getRecommendationsForUser(u, 25)),
+                    ids(indexed.getRecommendationsForUser(u, 25)));
+        }
+    }
+
+    @Test
+    void indexTracksCreateAndEvict() {
+        RecommendationService svc = service(true);
+        ProjectSkillIndex index = (ProjectSkillIndex) ReflectionTestUtils.getField(svc, "skillIndex");
+
+        Project p = project(42, "Figma", "Design", 0, LocalDateTime.now());
+        catalog.add(p);
+        index.upsert(p);
+        assertEquals(List.of(42L), ids(svc.getRecommendationsForUser(user("Figma", null), 5)));
+
+        index.evict(42L);
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void indexChangesMadeDuringARebuildAreKept() {
+        LocalDateTime now = LocalDateTime.now();
+        Project closed = project(1, "Java", "Web Development", 0, now);
+        catalog.add(closed);
+        RecommendationService svc = service(true);
+        ProjectSkillIndex index = (ProjectSkillIndex) ReflectionTestUtils.getField(svc, "skillIndex");
+        Project created = project(42, "Figma", "Design", 0, now);
+        when(projectRepo.findByStatus(ProjectStatus.OPEN)).thenAnswer(inv -> {
+            List<Project> snapshot = List.copyOf(catalog);
+            // Committed after the snapshot was read
+            catalog.remove(closed);
+            catalog.add(created);
+            index.evict(1L);
+            index.upsert(created);
+            return snapshot;
+        });
+
+        index.rebuild();
+
+        assertEquals(1, index.size());
+        assertEquals(List.of(42L), ids(svc.getRecommendationsForUser(user("Java", null), 5)));
+    }
+
+    @Test
+    void rankedHeapSelectsSameAsFullSort() {
+        Random random = new Random(3);
+        int n = 2_000;
+        double[] scores = new double[n];
+        int[] applicants = new int[n];
+        long[] createdAt = new long[n];
+        List<Integer> sorted = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            // Coarse values so every tie-break level is exercised.
+            scores[i] = random.nextInt(5) / 4.0;
+            applicants[i] = random.nextInt(3);
+            createdAt[i] = random.nextInt(3);
+            sorted.add(i);
+        }
+        sorted.sort((a, b) -> RecommendationService.compareRank(scores[a], applicants[a], createdAt[a], a,
+                scores[b], applicants[b], createdAt[b], b));
+
+        for (int k : new int[] { 1, 10, 64, 65, 500, n + 5 }) {
+            RecommendationService.RankedHeap heap = new RecommendationService.RankedHeap(k);
+            for (int i = 0; i < n; i++) {
+                heap.offer(scores[i], applicants[i], createdAt[i], i, i);
+            }
+            int[] refs = heap.drainBestFirst().refs();
+
+            assertEquals(sorted.subList(0, Math.min(k, n)), Arrays.stream(refs).boxed().toList());
+        }
+    }
+
+    @Test
+    void cachedRankingIsReusedUntilProfileChanges() {
+        LocalDateTime now = LocalDateTime.now();
+        catalog.add(project(1, "Java", "Web Development", 0, now));
+        catalog.add(project(2, "Figma", "Design", 0, now));
+        RecommendationService svc = service(false); // full scan, so every miss hits findByStatus
+
+        assertEquals(List.of(1L, 2L), ids(svc.getRecommendationsForUser(user(7, "Java", null), 5)));
+        assertEquals(List.of(1L), ids(svc.getRecommendationsForUser(user(7, "Java", null), 1)));
+        verify(projectRepo, times(1)).findByStatus(ProjectStatus.OPEN);
+
+        // Changed skills no longer match the cached profile.
+        assertEquals(List.of(2L, 1L), ids(svc.getRecommendationsForUser(user(7, "Figma", null), 5)));
+        verify(projectRepo, times(2)).findByStatus(ProjectStatus.OPEN);
+
+        svc.evictUser(7L);
+        svc.getRecommendationsForUser(user(7, "Figma", null), 5);
+        verify(projectRepo, times(3)).findByStatus(ProjectStatus.OPEN);
+    }
+
+    @Test
+    void newProjectIsInsertedIntoCachedRankings() {
+        LocalDateTime now = LocalDateTime.now();
+        catalog.add(project(1, "Java", "Web Development", 0, now));
+        catalog.add(project(2, "Figma", "Design", 0, now));
+        RecommendationService svc = service(false);
+        ProjectSkillIndex index = (ProjectSkillIndex) ReflectionTestUtils.getField(svc, "skillIndex");
+        User designer = user(7, "Figma", "Web");
+        assertEquals(List.of(2L), ids(svc.getRecommendationsForUser(designer, 1)));
+
+        Project better = project(3, "Figma", "Web Design", 0, now);
+        catalog.add(better);
+        index.upsert(better);
+        Project worse = project(4, "Photoshop", "Multimedia", 0, now);
+        catalog.add(worse);
+        index.upsert(worse);
+
+        assertEquals(List.of(3L), ids(svc.getRecommendationsForUser(designer, 1)));
+        verify(projectRepo, times(1)).findByStatus(ProjectStatus.OPEN);
+    }
+
+    @Test
+    void applicantCountChangesReorderCachedRankingsOnlyWhereTheyMatter() {
+        LocalDateTime now = LocalDateTime.now();
+        Project first = project(1, "Figma", "Design", 5, now);
+        Project second = project(2, "Figma", "Design", 3, now);
+        Project other = project(3, "Excel", "Data", 0, now);
+        catalog.addAll(List.of(first, second, other));
+        RecommendationService svc = service(false);
+        ProjectSkillIndex index = (ProjectSkillIndex) ReflectionTestUtils.getField(svc, "skillIndex");
+        User designer = user(7, "Figma", "Design");
+        assertEquals(List.of(1L, 2L), ids(svc.getRecommendationsForUser(designer, 2)));
+
+        // Keeps its place, then overtakes the first; the unranked project cannot enter
+        second.setApplicantCount(4);
+        index.upsert(second);
+        second.setApplicantCount(6);
+        index.upsert(second);
+        other.setApplicantCount(50);
+        index.upsert(other);
+
+        assertEquals(List.of(2L, 1L), ids(svc.getRecommendationsForUser(designer, 2)));
+        verify(projectRepo, times(1)).findByStatus(ProjectStatus.OPEN);
+    }
+
+    @Test
+    void removingARankedProjectDropsOnlyAffectedRankings() {
+        LocalDateTime now = LocalDateTime.now();
+        catalog.add(project(1, "Java", "Web Development", 0, now));
+        catalog.add(project(2, "Figma", "Design", 0, now));
+        catalog.add(project(3, "Excel", "Data", 0, now));
+        RecommendationService svc = service(false);
+        ProjectSkillIndex index = (ProjectSkillIndex) ReflectionTestUtils.getField(svc, "skillIndex");
+        svc.getRecommendationsForUser(user(7, "Java", null), 1);
+        svc.getRecommendationsForUser(user(8, "Figma", null), 1);
+        verify(projectRepo, times(2)).findByStatus(ProjectStatus.OPEN);
+
+        catalog.remove(0);
+        index.evict(1L);
+
+        assertEquals(List.of(2L), ids(svc.getRecommendationsForUser(user(8, "Figma", null), 1)));
+        verify(projectRepo, times(2)).findByStatus(ProjectStatus.OPEN);
+        svc.getRecommendationsForUser(user(7, "Java", null), 1);
+        verify(projectRepo, times(3)).findByStatus(ProjectStatus.OPEN);
+    }
+
+    @Test
+    void nullUserGetsNothing() {
+        assertTrue(service(true).getRecommendationsForUser(null, 10).isEmpty());
+    }
+}
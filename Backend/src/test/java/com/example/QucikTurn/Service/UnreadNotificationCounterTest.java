@@ -0,0 +1,109 @@
+package com.example.QucikTurn.Service;
+
+import com.example.QucikTurn.Entity.NotificationUnreadCounter;
+import com.example.QucikTurn.Repository.NotificationRepository;
+import com.example.QucikTurn.Repository.NotificationUnreadCounterRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link UnreadNotificationCounter}.
+ */
+class UnreadNotificationCounterTest {
+
+    private static final long USER_ID = 7L;
+
+    private NotificationUnreadCounterRepository counterRepo;
+    private NotificationRepository notificationRepo;
+    private UnreadNotificationCounter counter;
+
+    @BeforeEach
+    void setUp() {
+        counterRepo = mock(NotificationUnreadCounterRepository.class);
+        notificationRepo = mock(NotificationRepository.class);
+        counter = new UnreadNotificationCounter(counterRepo, notificationRepo, "maximumSize=100");
+    }
+
+    private void stored(long userId, long count) {
+        when(counterRepo.existsById(userId)).thenReturn(true);
+        when(counterRepo.findById(userId)).thenReturn(Optional.of(new NotificationUnreadCounter(userId, count)));
+    }
+
+    @Test
+    void readsTheStoredCounterOnceThenFromCache() {
+        stored(USER_ID, 4);
+
+        assertEquals(4, counter.get(USER_ID));
+        assertEquals(4, counter.get(USER_ID));
+
+        verify(counterRepo, times(1)).findById(USER_ID);
+        verify(notificationRepo, never()).countByUserIdAndReadFalse(anyLong());
+    }
+
+    @Test
+    void missingCounterIsSeededFromTheRealCount() {
+        when(counterRepo.findById(USER_ID)).thenReturn(Optional.empty());
+        when(notificationRepo.countByUserIdAndReadFalse(USER_ID)).thenReturn(5L);
+
+        assertEquals(5, counter.get(USER_ID));
+
+        verify(counterRepo).setCount(USER_ID, 5L);
+    }
+
+    @Test
+    void changesAreAppliedAndEvictTheCachedCount() {
+        stored(USER_ID, 4);
+        counter.get(USER_ID);
+
+        counter.increment(USER_ID);
+        verify(counterRepo).addToCount(USER_ID, 1L);
+        counter.get(USER_ID);
+
+        counter.decrement(USER_ID);
+        verify(counterRepo).addToCount(USER_ID, -1L);
+        counter.get(USER_ID);
+
+        counter.reset(USER_ID);
+        verify(counterRepo).setCount(USER_ID, 0L);
+        counter.get(USER_ID);
+
+        verify(counterRepo, times(4)).findById(USER_ID);
+    }
+
+    @Test
+    void changeForUserWithoutCounterSeedsItInstead() {
+        when(counterRepo.existsById(USER_ID)).thenReturn(false);
+        when(notificationRepo.countByUserIdAndReadFalse(USER_ID)).thenReturn(3L);
+
+        counter.increment(USER_ID);
+
+        verify(counterRepo).setCount(USER_ID, 3L);
+        verify(counterRepo, never()).addToCount(anyLong(), anyLong());
+    }
+
+    @Test
+    void reconcileCorrectsOnlyDriftedCounters() {
+        when(notificationRepo.countUnreadGroupedByUser()).thenReturn(List.of(
+                new Object[] { 1L, 2L },
+                new Object[] { 2L, 5L },
+                new Object[] { 3L, 1L }));
+        when(counterRepo.findByUnreadCountGreaterThan(0)).thenReturn(List.of(
+                new NotificationUnreadCounter(1L, 2),
+                new NotificationUnreadCounter(2L, 4),
+                new NotificationUnreadCounter(4L, 6)));
+
+        assertEquals(3, counter.reconcile());
+
+        verify(counterRepo).setCount(2L, 5L);
+        verify(counterRepo).setCount(3L, 1L);
+        verify(counterRepo).setCount(4L, 0L);
+        verify(counterRepo, never()).setCount(eq(1L), anyLong());
+    }
+}
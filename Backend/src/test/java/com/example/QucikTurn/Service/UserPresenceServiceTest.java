@@ -0,0 +1,51 @@
+package com.example.QucikTurn.Service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.simp.user.SimpUser;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link UserPresenceService}.
+ */
+class UserPresenceServiceTest {
+
+    private SimpUserRegistry userRegistry;
+    private UserPresenceService service;
+
+    @BeforeEach
+    void setUp() {
+        userRegistry = mock(SimpUserRegistry.class);
+        service = new UserPresenceService(userRegistry);
+    }
+
+    private void connected(String name, boolean hasSessions) {
+        SimpUser user = mock(SimpUser.class);
+        when(user.hasSessions()).thenReturn(hasSessions);
+        when(userRegistry.getUser(name)).thenReturn(user);
+    }
+
+    @Test
+    void userWithASessionIsOnline() {
+        connected("7", true);
+
+        assertTrue(service.isOnline(7L));
+        assertFalse(service.isOnline(8L));
+    }
+
+    @Test
+    void userWithoutSessionsIsOffline() {
+        connected("7", false);
+
+        assertFalse(service.isOnline(7L));
+    }
+
+    @Test
+    void missingUserIsOffline() {
+        assertFalse(service.isOnline(null));
+        verifyNoInteractions(userRegistry);
+    }
+}
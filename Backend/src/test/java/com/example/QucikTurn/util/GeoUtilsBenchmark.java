@@ -0,0 +1,86 @@
+package com.example.QucikTurn.util;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark: per-call {@link GeoUtils#haversineKm} vs the primitive batch
+ * kernel {@link GeoUtils#haversineKmBatch} over 100k candidates around Bandung.
+ *
+ * <p>
+ * Not a unit test. Run from the Backend directory with:
+ * {@code mvn -q test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.example.QucikTurn.util.GeoUtilsBenchmark}
+ * (add {@code -prof gc} via the JMH command line to see allocation rates).
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GeoUtilsBenchmark {
+
+    private static final double ORIGIN_LAT = -6.9;
+    private static final double ORIGIN_LNG = 107.6;
+    private static final double RADIUS_KM = 10.0;
+
+    @Param({ "100000" })
+    public int candidates;
+
+    private double[] lat;
+    private double[] lng;
+    private double[] latRad;
+    private double[] lngRad;
+    private double[] cosLat;
+    private double[] out;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(7);
+        lat = new double[candidates];
+        lng = new double[candidates];
+        for (int i = 0; i < candidates; i++) {
+            // Spread over roughly a 220 km square so most points are rejected.
+            lat[i] = ORIGIN_LAT + (random.nextDouble() - 0.5) * 2;
+            lng[i] = ORIGIN_LNG + (random.nextDouble() - 0.5) * 2;
+        }
+        latRad = new double[candidates];
+        lngRad = new double[candidates];
+        cosLat = new double[candidates];
+        out = new double[candidates];
+        GeoUtils.toRadians(lat, latRad);
+        GeoUtils.toRadians(lng, lngRad);
+        GeoUtils.cosines(latRad, cosLat);
+    }
+
+    @Benchmark
+    public void perCallHaversine(Blackhole bh) {
+        int within = 0;
+        for (int i = 0; i < candidates; i++) {
+            if (GeoUtils.haversineKm(ORIGIN_LAT, ORIGIN_LNG, lat[i], lng[i]) <= RADIUS_KM) {
+                within++;
+            }
+        }
+        bh.consume(within);
+    }
+
+    @Benchmark
+    public void batchKernel(Blackhole bh) {
+        bh.consume(GeoUtils.haversineKmBatch(ORIGIN_LAT, ORIGIN_LNG, latRad, lngRad, cosLat,
+                0, candidates, RADIUS_KM, out));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(GeoUtilsBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
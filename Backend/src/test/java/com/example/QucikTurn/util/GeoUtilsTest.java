@@ -2,6 +2,8 @@ package com.example.QucikTurn.util;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.Random;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -47,4 +49,57 @@ class GeoUtilsTest {
         assertEquals(2.35, GeoUtils.roundToTwoDecimals(2.34567), 0.0);
         assertEquals(10.0, GeoUtils.roundToTwoDecimals(10.0), 0.0);
     }
+
+    @Test
+    void batchMatchesPerCallHaversineInsideRadius() {
+        double originLat = -6.9;
+        double originLng = 107.6;
+        Random random = new Random(42);
+        int n = 10_000;
+        double[] lat = new double[n];
+        double[] lng = new double[n];
+        for (int i = 0; i < n; i++) {
+            lat[i] = originLat + (random.nextDouble() - 0.5) * 4;
+            lng[i] = originLng + (random.nextDouble() - 0.5) * 4;
+        }
+        double[] latRad = new double[n];
+        double[] lngRad = new double[n];
+        double[] cosLat = new double[n];
+        GeoUtils.toRadians(lat, latRad);
+        GeoUtils.toRadians(lng, lngRad);
+        GeoUtils.cosines(latRad, cosLat);
+
+        double radius = 100.0;
+        double[] out = new double[n];
+        int within = GeoUtils.haversineKmBatch(originLat, originLng, latRad, lngRad, cosLat, 0, n, radius, out);
+
+        int expected = 0;
+        for (int i = 0; i < n; i++) {
+            double exact = GeoUtils.haversineKm(originLat, originLng, lat[i], lng[i]);
+            if (exact <= radius) {
+                expected++;
+                assertEquals(exact, out[i], 1e-6);
+            } else {
+                assertEquals(Double.POSITIVE_INFINITY, out[i]);
+            }
+        }
+        assertEquals(expected, within);
+        assertTrue(within > 0);
+    }
+
+    @Test
+    void batchHandlesAntimeridianAndPoles() {
+        double[] latRad = { Math.toRadians(-17.0), Math.toRadians(89.9) };
+        double[] lngRad = { Math.toRadians(-179.95), Math.toRadians(0.0) };
+        double[] cosLat = new double[2];
+        GeoUtils.cosines(latRad, cosLat);
+        double[] out = new double[2];
+
+        GeoUtils.haversineKmBatch(-17.0, 179.95, latRad, lngRad, cosLat, 0, 1, 20.0, out);
+        assertEquals(GeoUtils.haversineKm(-17.0, 179.95, -17.0, -179.95), out[0], 1e-6);
+
+        // Opposite side of the north pole: longitude span is 180 degrees.
+        GeoUtils.haversineKmBatch(89.9, 180.0, latRad, lngRad, cosLat, 1, 2, 50.0, out);
+        assertEquals(GeoUtils.haversineKm(89.9, 180.0, 89.9, 0.0), out[1], 1e-6);
+    }
 }
@@ -68,14 +68,15 @@ const NotificationBell = () => {
             heartbeatOutgoing: 4000,
             onConnect: () => {
                 // Subscribe to user-specific notification channel
-                client.subscribe(`/topic/notifications/${userId}`, (message) => {
+                client.subscribe('/user/queue/notifications', (message) => {
                     const notification = JSON.parse(message.body);
-                    setNotifications(prev => [notification, ...prev]);
+                    // A digest arrives again (same id) each time it summarizes one more event
+                    setNotifications(prev => [notification, ...prev.filter(n => n.id !== notification.id)]);
                     setUnreadCount(prev => prev + 1);
                 });
 
                 // Subscribe to unread count updates
-                client.subscribe(`/topic/notifications/${userId}/count`, (message) => {
+                client.subscribe('/user/queue/notifications/count', (message) => {
                     const count = JSON.parse(message.body);
                     setUnreadCount(count);
                 });
@@ -144,8 +144,18 @@ const ChatPage = () => {
         const headers = { 'Authorization': `Bearer ${token}` };
 
         client.connect(headers, () => {
-            client.subscribe(`/topic/public/${myUserId}`, (payload) => {
+            client.subscribe('/user/queue/messages', (payload) => {
                 const newMessage = JSON.parse(payload.body);
+
+                // Unread count update after messages were marked as read (not a chat message)
+                if (newMessage.type === 'UNREAD_COUNT') {
+                    setContacts(prevContacts => prevContacts.map(contact =>
+                        contact.userId === newMessage.senderId
+                            ? { ...contact, unreadCount: newMessage.unreadCount }
+                            : contact));
+                    return;
+                }
+
                 setMessages(prev => [...prev, newMessage]);
                 scrollToBottom();
 